@@ -0,0 +1,67 @@
+package com.georgeradu.bookstore.benchmark;
+
+import com.georgeradu.bookstore.dto.BookResponse;
+import com.georgeradu.bookstore.model.Book;
+import com.georgeradu.bookstore.model.BookCategory;
+import com.georgeradu.bookstore.model.BookRating;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// mapping of the book entities to the responses of the product page, the category pages and the search.
+// run with: mvn -Pjmh verify -Djmh.includes=BookResponseBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookResponseBenchmark {
+    @Param({"20", "100"})
+    private int size;
+
+    private Book book;
+    private List<Book> books;
+    private Page<Book> page;
+    private Map<Long, BookRating> ratings;
+
+    @Setup
+    public void setUp() {
+        var timestamp = LocalDateTime.now();
+        var bookCategory = new BookCategory(1L, "nameValue", "descriptionValue", timestamp, timestamp, null);
+        books = new ArrayList<>(size);
+        ratings = new HashMap<>();
+        for (long id = 1; id <= size; id++) {
+            books.add(new Book(id, "titleValue" + id, "authorValue" + id, "descriptionValue" + id,
+                    BigDecimal.valueOf(10), "imageUrl" + id, 100, "language", "publisher", timestamp, "isbn10",
+                    "isbn13", "dimensions", 0, bookCategory, timestamp, timestamp, null));
+            ratings.put(id, new BookRating(id, 4, 15, 0, 0, 1, 1, 2));
+        }
+        book = books.get(0);
+        page = new PageImpl<>(books, PageRequest.of(0, size), size * 10L);
+    }
+
+    @Benchmark
+    public BookResponse bookResponse() {
+        return new BookResponse(book);
+    }
+
+    @Benchmark
+    public List<BookResponse> fromList() {
+        return BookResponse.fromList(books, ratings);
+    }
+
+    @Benchmark
+    public Page<BookResponse> fromPage() {
+        return BookResponse.fromPage(page, ratings);
+    }
+}
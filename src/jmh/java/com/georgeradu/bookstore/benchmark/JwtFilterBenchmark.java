@@ -0,0 +1,77 @@
+package com.georgeradu.bookstore.benchmark;
+
+import com.georgeradu.bookstore.config.CacheConfig;
+import com.georgeradu.bookstore.model.User;
+import com.georgeradu.bookstore.model.UserRole;
+import com.georgeradu.bookstore.service.JwtServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// per request token cost of JwtAuthenticationFilter: the old way decoded the key and built a parser for each of the
+// three parses of the token, then the token was parsed once with the parser built at startup, now a token verified
+// before is found in the verified tokens cache by its digest.
+// run with: mvn -Pjmh verify -Djmh.includes=JwtFilterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+    private static final String SECRET_KEY = "2f2ce870d3eae7bbb6175beedf234facf5086c5ecdc995f5bdbd01d477e01ead";
+
+    private JwtServiceImpl jwtService;
+    private JwtServiceImpl uncachedJwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        var cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheConfig.VERIFIED_TOKENS,
+                CacheConfig.verifiedTokensCache("maximumSize=10000"));
+        jwtService = new JwtServiceImpl(SECRET_KEY, 3_600_000L, cacheManager);
+        uncachedJwtService = new JwtServiceImpl(SECRET_KEY, 3_600_000L, new NoOpCacheManager());
+        var timestamp = LocalDateTime.now();
+        user = new User(1L, "firstNameValue", "lastNameValue", "emailValue", "passwordValue", UserRole.ROLE_USER,
+                timestamp, timestamp, null);
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean verifiedTokenCache() {
+        var claims = jwtService.extractAllClaims(token);
+        return claims.getSubject() != null && jwtService.isTokenValid(claims, user);
+    }
+
+    @Benchmark
+    public boolean parseOnce() {
+        var claims = uncachedJwtService.extractAllClaims(token);
+        return claims.getSubject() != null && uncachedJwtService.isTokenValid(claims, user);
+    }
+
+    @Benchmark
+    public boolean parseThreeTimesWithNewParser() {
+        var userName = parseWithNewParser(token).getSubject();
+        return userName != null && parseWithNewParser(token).getSubject().equals(user.getUsername()) &&
+               !parseWithNewParser(token).getExpiration().before(new Date());
+    }
+
+    private static Claims parseWithNewParser(String token) {
+        return Jwts
+                .parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,46 @@
+package com.georgeradu.bookstore.benchmark;
+
+import com.georgeradu.bookstore.dto.RegisterRequest;
+import com.georgeradu.bookstore.validation.Password;
+import com.georgeradu.bookstore.validation.PasswordValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// validation of the password of every register request, with the defaults of @Password on RegisterRequest. The
+// legacy benchmark is the validator before the single pass scan: lower and upper case copies of the password and a
+// regex compiled for each of the digit and special character rules.
+// run with: mvn -Pjmh verify -Djmh.includes=PasswordValidatorBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordValidatorBenchmark {
+    // valid, without a special character, without a digit and a long valid one
+    @Param({"Password1!", "Password123", "Password!!!", "Aa1!Aa1!Aa1!Aa1!Aa1!Aa1!Aa1!Aa1!Aa1!Aa1!Aa1!Aa1!Aa1!Aa1!"})
+    private String password;
+
+    private PasswordValidator passwordValidator;
+
+    @Setup
+    public void setUp() throws NoSuchFieldException {
+        passwordValidator = new PasswordValidator();
+        passwordValidator.initialize(RegisterRequest.class.getDeclaredField("password").getAnnotation(Password.class));
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return passwordValidator.isValid(password, null);
+    }
+
+    @Benchmark
+    public boolean legacyIsValid() {
+        if (password.trim().isEmpty() || password.length() < 8 || password.length() > 255) {
+            return false;
+        }
+        return !password.equals(password.toLowerCase()) && !password.equals(password.toUpperCase()) &&
+               password.matches(".*\\d.*") && password.matches(".*" + "[!@#$%^&*(),.?\":{}|<>]" + ".*");
+    }
+}
@@ -0,0 +1,34 @@
+package com.georgeradu.bookstore.benchmark;
+
+import com.georgeradu.bookstore.utils.StringCombinationGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// the legacy /book/search query generates every combination of the query words, 2^n strings for n words.
+// run with: mvn -Pjmh verify -Djmh.includes=StringCombinationGeneratorBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringCombinationGeneratorBenchmark {
+    @Param({"1", "4", "8", "12", "16"})
+    private int words;
+
+    private String query;
+
+    @Setup
+    public void setUp() {
+        query = IntStream.range(0, words).mapToObj(i -> "word" + i).collect(Collectors.joining(" "));
+    }
+
+    @Benchmark
+    public List<String> generateWordsCombinations() {
+        return StringCombinationGenerator.generateWordsCombinations(query);
+    }
+}
@@ -0,0 +1,76 @@
+package com.georgeradu.bookstore.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+// every cache records its stats, hits and misses are exposed by actuator as the cache.gets metric
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    // authenticated users keyed by email (the token subject)
+    public static final String PRINCIPALS = "principals";
+    // immutable snapshots of the books keyed by id, see BookServiceImpl.getBook
+    public static final String BOOKS = "books";
+    // rating aggregates keyed by book id, loaded in bulk by BookRatingServiceImpl through the native cache
+    public static final String BOOK_RATINGS = "book-ratings";
+    // claims of the tokens whose signature was verified, keyed by the sha-256 digest of the token, see JwtServiceImpl
+    public static final String VERIFIED_TOKENS = "verified-tokens";
+
+    @Value("${app.cache.principals.spec}")
+    private String principalsSpec;
+
+    @Value("${app.cache.books.spec}")
+    private String booksSpec;
+
+    @Value("${app.cache.book-ratings.spec}")
+    private String bookRatingsSpec;
+
+    @Value("${app.cache.verified-tokens.spec}")
+    private String verifiedTokensSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        var cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PRINCIPALS, Caffeine.from(principalsSpec).build());
+        cacheManager.registerCustomCache(BOOKS, Caffeine.from(booksSpec).build());
+        cacheManager.registerCustomCache(BOOK_RATINGS, Caffeine.from(bookRatingsSpec).build());
+        cacheManager.registerCustomCache(VERIFIED_TOKENS, verifiedTokensCache(verifiedTokensSpec));
+        return cacheManager;
+    }
+
+    // a verified token is dropped when the token expires, the spec only sets the size and the stats
+    public static Cache<Object, Object> verifiedTokensCache(String spec) {
+        return Caffeine.from(spec).expireAfter(new ClaimsExpiry()).build();
+    }
+
+    private static final class ClaimsExpiry implements Expiry<Object, Object> {
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            var expiration = ((Claims) value).getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiration.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
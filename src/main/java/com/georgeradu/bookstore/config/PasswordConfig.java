@@ -1,5 +1,8 @@
 package com.georgeradu.bookstore.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -7,9 +10,44 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class PasswordConfig {
+    private static final Logger log = LoggerFactory.getLogger(PasswordConfig.class);
+    // the calibration does not go below the bcrypt default or above a cost that takes seconds per hash
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 16;
+
+    @Value("${app.auth.bcrypt.strength}")
+    private int strength;
+
+    @Value("${app.auth.bcrypt.target-ms}")
+    private long targetMs;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // hashes store their own strength, changing it keeps the existing passwords valid
+        return new BCryptPasswordEncoder(strength > 0 ? strength : calibrateStrength());
+    }
+
+    private int calibrateStrength() {
+        var encoder = new BCryptPasswordEncoder(MIN_STRENGTH);
+        // the first hash includes the class loading and the jit warm up
+        encoder.encode("calibration");
+        var start = System.nanoTime();
+        encoder.encode("calibration");
+        var elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        var calibrated = strengthFor(elapsedMs, targetMs);
+        log.info("BCrypt strength {} calibrated for {} ms per hash, strength {} took {} ms", calibrated, targetMs,
+                MIN_STRENGTH, elapsedMs);
+        return calibrated;
+    }
+
+    // every strength step doubles the work of a hash
+    static int strengthFor(long minStrengthMs, long targetMs) {
+        int calibrated = MIN_STRENGTH;
+        long elapsedMs = minStrengthMs;
+        while (calibrated < MAX_STRENGTH && elapsedMs * 2 <= targetMs) {
+            calibrated++;
+            elapsedMs *= 2;
+        }
+        return calibrated;
     }
-}
\ No newline at end of file
+}
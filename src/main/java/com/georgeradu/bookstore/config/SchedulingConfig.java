@@ -0,0 +1,10 @@
+package com.georgeradu.bookstore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// runs the @Scheduled maintenance tasks, see BookCategoryCountsImpl.scheduledReconcile
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
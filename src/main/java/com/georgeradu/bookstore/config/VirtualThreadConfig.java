@@ -0,0 +1,37 @@
+package com.georgeradu.bookstore.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// spring.threads.virtual.enabled runs tomcat and the @Async task executor on virtual threads. There is no thread
+// pool left to limit the number of requests talking to postgres at once, so the data source is gated by a
+// semaphore with as many permits as the hikari pool has connections
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(
+            @Value("${app.jdbc.gate.acquire-timeout-ms}") long acquireTimeoutMs
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    // an unset pool size is -1 until the pool starts, hikari then uses 10
+                    var maxConcurrency = dataSource.getMaximumPoolSize() > 0 ? dataSource.getMaximumPoolSize() : 10;
+                    log.info("Gating data source {} to {} concurrent connections", beanName, maxConcurrency);
+                    return new BoundedDataSource(dataSource, maxConcurrency, acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.georgeradu.bookstore.context;
+
+import com.georgeradu.bookstore.exception.InvalidUserAccessException;
+import com.georgeradu.bookstore.model.User;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+// user of the current request, filled once by the JwtAuthenticationFilter from the loaded principal so the services
+// can work with the user id instead of looking the user up by email again
+@Component
+@RequestScope
+public class ResolvedUserContext {
+    private User user;
+
+    public User getUser() throws InvalidUserAccessException {
+        if (user == null) {
+            throw new InvalidUserAccessException("Request is not authenticated");
+        }
+        return user;
+    }
+
+    public Long getUserId() throws InvalidUserAccessException {
+        return getUser().getId();
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+}
@@ -5,6 +5,7 @@ import com.georgeradu.bookstore.dto.LoginRequest;
 import com.georgeradu.bookstore.dto.RegisterRequest;
 import com.georgeradu.bookstore.dto.SpringErrorResponse;
 import com.georgeradu.bookstore.exception.InvalidLoginException;
+import com.georgeradu.bookstore.exception.TooManyRequestsException;
 import com.georgeradu.bookstore.exception.UserAlreadyExistsException;
 import com.georgeradu.bookstore.service.AuthenticationService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +14,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -20,6 +22,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/auth")
 @Validated
@@ -40,11 +44,14 @@ public class AuthController {
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
             @ApiResponse(responseCode = "409", description = "Username or email already exists",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
+            @ApiResponse(responseCode = "429", description = "Too many passwords waiting to be hashed",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
-    public JwtAuthenticationResponse register(@Valid @RequestBody RegisterRequest request) throws
-            UserAlreadyExistsException {
+    public CompletableFuture<JwtAuthenticationResponse> register(@Valid @RequestBody RegisterRequest request) throws
+            UserAlreadyExistsException, TooManyRequestsException {
+        // the request thread is released while the password is hashed
         return authenticationService.register(request);
     }
 
@@ -52,14 +59,17 @@ public class AuthController {
     @Operation(summary = "Login a user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully logged in"),
-            @ApiResponse(responseCode = "400", description = "Invalid request body, validation failed",
+            @ApiResponse(responseCode = "400", description = "Invalid request body or invalid credentials",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
-            @ApiResponse(responseCode = "401", description = "Invalid credentials",
+            @ApiResponse(responseCode = "429", description = "Too many login attempts for the account or address",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
-    public JwtAuthenticationResponse login(@Valid @RequestBody LoginRequest request) throws InvalidLoginException {
-        return authenticationService.login(request);
+    public CompletableFuture<JwtAuthenticationResponse> login(
+            @Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest
+    ) throws InvalidLoginException, TooManyRequestsException {
+        // the request thread is released while the password is hashed
+        return authenticationService.login(request, httpRequest.getRemoteAddr());
     }
 }
@@ -6,28 +6,35 @@ import com.georgeradu.bookstore.dto.SpringErrorResponse;
 import com.georgeradu.bookstore.exception.DuplicateObjectException;
 import com.georgeradu.bookstore.exception.EntityNotFoundException;
 import com.georgeradu.bookstore.service.BookCategoryService;
+import com.georgeradu.bookstore.utils.ConditionalRequests;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.time.Clock;
 
 @RestController
 @RequestMapping("/book-category")
 @Validated
 @Tag(name = "Book Category Controller", description = "Provides endpoints for book categories")
 public class BookCategoryController {
+    private final Clock clock;
     private final BookCategoryService bookCategoryService;
 
-    public BookCategoryController(BookCategoryService bookCategoryService) {
+    public BookCategoryController(Clock clock, BookCategoryService bookCategoryService) {
+        this.clock = clock;
         this.bookCategoryService = bookCategoryService;
     }
 
@@ -35,26 +42,46 @@ public class BookCategoryController {
     @Operation(summary = "Get a book category by id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved book category"),
+            @ApiResponse(responseCode = "304", description = "Book category did not change since the ETag or date",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Book category not found",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
-    public ResponseEntity<BookCategoryResponse> getBookCategory(@PathVariable Long id) throws EntityNotFoundException {
+    public ResponseEntity<BookCategoryResponse> getBookCategory(@PathVariable Long id, WebRequest webRequest) throws
+            EntityNotFoundException {
         var response = bookCategoryService.getBookCategory(id);
-        return ResponseEntity.ok(new BookCategoryResponse(response));
+        var etag = ConditionalRequests.etag(response.getId(), response.getUpdatedAt());
+        var lastModified = ConditionalRequests.lastModified(clock.getZone(), response.getUpdatedAt());
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).lastModified(lastModified).build();
+        }
+        return ResponseEntity.ok().eTag(etag).lastModified(lastModified).body(new BookCategoryResponse(response));
     }
 
     @GetMapping()
     @Operation(summary = "Get all book categories")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved book categories"),
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved book categories",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = BookCategoryResponse.class)))),
+            @ApiResponse(responseCode = "304", description = "Book categories did not change since the given ETag",
+                    content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
-    public ResponseEntity<List<BookCategoryResponse>> getBookCategories() {
+    public ResponseEntity<byte[]> getBookCategories(WebRequest webRequest) {
+        // the json is serialized once per change of the categories, the response only copies the bytes
         var response = bookCategoryService.getBookCategories();
-        return ResponseEntity.ok(BookCategoryResponse.fromList(response));
+        if (webRequest.checkNotModified(response.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(response.getEtag()).build();
+        }
+        return ResponseEntity
+                .ok()
+                .eTag(response.getEtag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.getJson());
     }
 
     @PostMapping()
@@ -1,24 +1,42 @@
 package com.georgeradu.bookstore.controller;
 
+import com.georgeradu.bookstore.dto.BookImportFormat;
+import com.georgeradu.bookstore.dto.BookImportProgress;
 import com.georgeradu.bookstore.dto.BookRequest;
 import com.georgeradu.bookstore.dto.BookResponse;
+import com.georgeradu.bookstore.dto.BookSliceResponse;
 import com.georgeradu.bookstore.dto.SpringErrorResponse;
 import com.georgeradu.bookstore.exception.EntityNotFoundException;
+import com.georgeradu.bookstore.model.Book;
+import com.georgeradu.bookstore.model.BookRating;
+import com.georgeradu.bookstore.service.BookImportService;
+import com.georgeradu.bookstore.service.BookRatingService;
 import com.georgeradu.bookstore.service.BookService;
+import com.georgeradu.bookstore.utils.ConditionalRequests;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -26,30 +44,58 @@ import java.util.Optional;
 @Validated
 @Tag(name = "Book Controller", description = "Provides endpoints for books")
 public class BookController {
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CSV = "text/csv";
+
+    private final Clock clock;
     private final BookService bookService;
+    private final BookRatingService bookRatingService;
+    private final BookImportService bookImportService;
 
-    public BookController(BookService bookService) {
+    public BookController(
+            Clock clock, BookService bookService, BookRatingService bookRatingService,
+            BookImportService bookImportService
+    ) {
+        this.clock = clock;
         this.bookService = bookService;
+        this.bookRatingService = bookRatingService;
+        this.bookImportService = bookImportService;
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get a book by id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved book"),
+            @ApiResponse(responseCode = "304", description = "Book did not change since the given ETag or date",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Book not found",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
-    public ResponseEntity<BookResponse> getBook(@PathVariable Long id) throws EntityNotFoundException {
+    public ResponseEntity<BookResponse> getBook(@PathVariable Long id, WebRequest webRequest) throws
+            EntityNotFoundException {
         var response = bookService.getBook(id);
-        return ResponseEntity.ok(new BookResponse(response));
+        var rating = bookRatingService.getBookRating(id);
+        // the response is the book row with the average and count of its rating aggregate
+        var etag = ConditionalRequests.etag(response.getId(), response.getUpdatedAt(), rating.getReviewCount(),
+                rating.getRatingSum());
+        var lastModified = ConditionalRequests.lastModified(clock.getZone(), response.getUpdatedAt(),
+                rating.getUpdatedAt());
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).lastModified(lastModified).build();
+        }
+        return ResponseEntity.ok().eTag(etag).lastModified(lastModified).body(new BookResponse(response, rating));
     }
 
     @GetMapping("/category/{id}")
     @Operation(summary = "Get all books by category id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved books"),
+            @ApiResponse(responseCode = "304", description = "Page did not change since the given ETag",
+                    content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid page or page size",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "Book category not found",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
@@ -57,10 +103,42 @@ public class BookController {
     })
     public ResponseEntity<Page<BookResponse>> getBooksByCategoryId(
             @PathVariable Long id,
-            @RequestParam Optional<Integer> page
+            @RequestParam Optional<Integer> page,
+            @RequestParam Optional<Integer> size,
+            WebRequest webRequest
+    ) throws EntityNotFoundException {
+        var response = bookService.getBooksByCategoryId(id, page, size);
+        var ratings = getBookRatings(response.getContent());
+        // no Last-Modified for a page, a book removed from the page does not move the timestamp of the others
+        var etag = ConditionalRequests.etag(getPageValidators(response, ratings));
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(BookResponse.fromPage(response, ratings));
+    }
+
+    @GetMapping("/category/{id}/slice")
+    @Operation(summary = "Get a slice of books by category id without counting them, by page or after a book id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved books"),
+            @ApiResponse(responseCode = "400", description = "Invalid page or page size, or both page and afterId",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Book category not found",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
+    })
+    public ResponseEntity<BookSliceResponse> getBookSliceByCategoryId(
+            @PathVariable Long id,
+            @RequestParam Optional<Integer> page,
+            @RequestParam Optional<Integer> size,
+            @RequestParam Optional<Long> afterId
     ) throws EntityNotFoundException {
-        var response = bookService.getBooksByCategoryId(id, page);
-        return ResponseEntity.ok(BookResponse.fromPage(response));
+        var response = bookService.getBookSliceByCategoryId(id, page, size, afterId);
+        var content = BookResponse.fromList(response.getContent(), getBookRatings(response.getContent()));
+        // the id of the last book continues the slice with afterId, for infinite scroll at any depth
+        var nextAfterId = response.hasNext() ? content.get(content.size() - 1).getId() : null;
+        return ResponseEntity.ok(new BookSliceResponse(content, response.hasNext(), nextAfterId));
     }
 
     @GetMapping("/search")
@@ -74,7 +152,41 @@ public class BookController {
             @RequestParam Optional<String> searchQuery
     ) {
         var response = bookService.searchBooks(searchQuery);
-        return ResponseEntity.ok(BookResponse.fromList(response));
+        return ResponseEntity.ok(BookResponse.fromList(response, getBookRatings(response)));
+    }
+
+    @GetMapping("/search/ranked")
+    @Operation(summary = "Full text search books by title, author or description, ordered by relevance")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved books"),
+            @ApiResponse(responseCode = "400", description = "Invalid page",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
+    })
+    public ResponseEntity<Page<BookResponse>> searchBooksRanked(
+            @RequestParam Optional<String> searchQuery,
+            @RequestParam Optional<Integer> page
+    ) {
+        var response = bookService.searchBooksRanked(searchQuery, page);
+        return ResponseEntity.ok(BookResponse.fromPage(response, getBookRatings(response.getContent())));
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export every book as newline delimited json, one book with its rating per line")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully exported books"),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
+    })
+    public void exportBooks(HttpServletResponse response) throws IOException {
+        // written to the response while the books are read, the response is never held in memory
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        bookService.exportBooks(response.getOutputStream());
     }
 
     @PostMapping()
@@ -97,6 +209,28 @@ public class BookController {
         return ResponseEntity.ok(new BookResponse(response));
     }
 
+    @PostMapping(value = "/import", consumes = {CSV, NDJSON}, produces = NDJSON)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Import books from a csv or ndjson body, a progress line is written after every chunk")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import done, rejected rows are in the progress lines",
+                    content = @Content(schema = @Schema(implementation = BookImportProgress.class))),
+            @ApiResponse(responseCode = "400", description = "Missing csv columns",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
+    })
+    public void importBooks(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        var format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? BookImportFormat.CSV : BookImportFormat.NDJSON;
+        // the body is read and the progress written while the import runs, neither is held in memory
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        bookImportService.importBooks(request.getInputStream(), format, response.getOutputStream());
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update a book")
@@ -114,7 +248,7 @@ public class BookController {
     public ResponseEntity<BookResponse> updateBook(@PathVariable Long id, @RequestBody @Valid BookRequest request)
             throws EntityNotFoundException {
         var response = bookService.updateBook(id, request);
-        return ResponseEntity.ok(new BookResponse(response));
+        return ResponseEntity.ok(new BookResponse(response, bookRatingService.getBookRating(id)));
     }
 
     @DeleteMapping("/{id}")
@@ -133,4 +267,24 @@ public class BookController {
         bookService.deleteBook(id);
         return ResponseEntity.ok().build();
     }
+
+    // the ratings of a whole page are read from the cache, the missing ones with one query
+    private Map<Long, BookRating> getBookRatings(List<Book> books) {
+        return bookRatingService.getBookRatings(books.stream().map(Book::getId).toList());
+    }
+
+    private static Object[] getPageValidators(Page<Book> page, Map<Long, BookRating> ratings) {
+        var validators = new ArrayList<>();
+        validators.add(page.getNumber());
+        validators.add(page.getSize());
+        validators.add(page.getTotalElements());
+        for (var book : page.getContent()) {
+            var rating = ratings.get(book.getId());
+            validators.add(book.getId());
+            validators.add(book.getUpdatedAt());
+            validators.add(rating.getReviewCount());
+            validators.add(rating.getRatingSum());
+        }
+        return validators.toArray();
+    }
 }
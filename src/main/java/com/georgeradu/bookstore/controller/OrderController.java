@@ -1,5 +1,7 @@
 package com.georgeradu.bookstore.controller;
 
+import com.georgeradu.bookstore.context.ResolvedUserContext;
+import com.georgeradu.bookstore.dto.OrderDetailsResponse;
 import com.georgeradu.bookstore.dto.OrderInfoResponse;
 import com.georgeradu.bookstore.dto.OrderItemResponse;
 import com.georgeradu.bookstore.dto.SpringErrorResponse;
@@ -12,8 +14,6 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,9 +25,11 @@ import java.util.List;
 @Tag(name = "Orders Controller", description = "Provides endpoints for orders")
 public class OrderController {
     private final OrderService orderService;
+    private final ResolvedUserContext resolvedUserContext;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, ResolvedUserContext resolvedUserContext) {
         this.orderService = orderService;
+        this.resolvedUserContext = resolvedUserContext;
     }
 
     @PostMapping("/new-order")
@@ -44,8 +46,7 @@ public class OrderController {
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
     public ResponseEntity<OrderInfoResponse> makeOrderFromShoppingCart(@RequestParam String shippingAddress) {
-        var loggedUser = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        var response = orderService.saveUserShoppingCartAsOrder(loggedUser.getUsername(), shippingAddress);
+        var response = orderService.saveUserShoppingCartAsOrder(resolvedUserContext.getUserId(), shippingAddress);
         return ResponseEntity.ok(new OrderInfoResponse(response));
     }
 
@@ -63,8 +64,7 @@ public class OrderController {
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class)))
     })
     public ResponseEntity<OrderInfoResponse> cancelOrder(@PathVariable Long orderId) {
-        var loggedUser = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        var response = orderService.cancelOrder(loggedUser.getUsername(), orderId);
+        var response = orderService.cancelOrder(resolvedUserContext.getUserId(), orderId);
         return ResponseEntity.ok(new OrderInfoResponse(response));
     }
 
@@ -99,9 +99,8 @@ public class OrderController {
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
     public ResponseEntity<OrderInfoResponse> getCurrentUserOrderInfoById(@PathVariable Long orderId) {
-        var loggedUser = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        var response = orderService.getUserOrderInfoById(loggedUser.getUsername(), orderId);
-        return ResponseEntity.ok(new OrderInfoResponse(response));
+        var response = orderService.getUserOrderInfoById(resolvedUserContext.getUserId(), orderId);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/my-order-items/{orderId}")
@@ -116,9 +115,24 @@ public class OrderController {
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
     public ResponseEntity<List<OrderItemResponse>> getCurrentUserOrderItemsByOrderInfoId(@PathVariable Long orderId) {
-        var loggedUser = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        var response = orderService.getUserOrderItemsByOrderInfoId(loggedUser.getUsername(), orderId);
-        return ResponseEntity.ok(OrderItemResponse.fromList(response));
+        var response = orderService.getUserOrderItemsByOrderInfoId(resolvedUserContext.getUserId(), orderId);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/my-order/{orderId}")
+    @Operation(summary = "Get current user order info and its items by order info id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved order"),
+            @ApiResponse(responseCode = "400", description = "Invalid order id",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
+    })
+    public ResponseEntity<OrderDetailsResponse> getCurrentUserOrderDetailsById(@PathVariable Long orderId) {
+        var response = orderService.getUserOrderDetailsById(resolvedUserContext.getUserId(), orderId);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/my-order-history")
@@ -133,9 +147,8 @@ public class OrderController {
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
     public ResponseEntity<List<OrderInfoResponse>> getCurrentUserOrderHistory() {
-        var loggedUser = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        var response = orderService.getUserOrderHistory(loggedUser.getUsername());
-        return ResponseEntity.ok(OrderInfoResponse.fromList(response));
+        var response = orderService.getUserOrderHistory(resolvedUserContext.getUserId());
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/order-info/{orderId}")
@@ -169,7 +182,7 @@ public class OrderController {
     })
     public ResponseEntity<List<OrderItemResponse>> getOrderItemsByOrderInfoId(@PathVariable Long orderId) {
         var response = orderService.getOrderItemsByOrderInfoId(orderId);
-        return ResponseEntity.ok(OrderItemResponse.fromList(response));
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/order-history/{userId}")
@@ -186,6 +199,6 @@ public class OrderController {
     })
     public ResponseEntity<List<OrderInfoResponse>> getOrderHistoryForUserById(@PathVariable Long userId) {
         var response = orderService.getOrderHistoryForUserById(userId);
-        return ResponseEntity.ok(OrderInfoResponse.fromList(response));
+        return ResponseEntity.ok(response);
     }
 }
@@ -1,5 +1,7 @@
 package com.georgeradu.bookstore.controller;
 
+import com.georgeradu.bookstore.context.ResolvedUserContext;
+import com.georgeradu.bookstore.dto.ReviewPageResponse;
 import com.georgeradu.bookstore.dto.ReviewRequest;
 import com.georgeradu.bookstore.dto.ReviewResponse;
 import com.georgeradu.bookstore.dto.SpringErrorResponse;
@@ -14,12 +16,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/review")
@@ -27,9 +27,11 @@ import java.util.List;
 @Tag(name = "Review Controller", description = "Provides endpoints for reviews")
 public class ReviewController {
     private final ReviewService reviewService;
+    private final ResolvedUserContext resolvedUserContext;
 
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, ResolvedUserContext resolvedUserContext) {
         this.reviewService = reviewService;
+        this.resolvedUserContext = resolvedUserContext;
     }
 
     @GetMapping("/{id}")
@@ -47,33 +49,39 @@ public class ReviewController {
     }
 
     @GetMapping("/for-book/{bookId}")
-    @Operation(summary = "Get all reviews for a book")
+    @Operation(summary = "Get a page of reviews for a book, newest first")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved reviews for book"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "Book not found",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
-    public ResponseEntity<List<ReviewResponse>> getReviewsForBook(@PathVariable Long bookId) throws
-            EntityNotFoundException {
-        var response = reviewService.getReviewsForBook(bookId);
-        return ResponseEntity.ok(ReviewResponse.fromList(response));
+    public ResponseEntity<ReviewPageResponse> getReviewsForBook(
+            @PathVariable Long bookId, @RequestParam Optional<String> cursor, @RequestParam Optional<Integer> size
+    ) throws EntityNotFoundException {
+        var response = reviewService.getReviewsForBook(bookId, cursor, size);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/for-user/{userId}")
-    @Operation(summary = "Get all reviews for a user")
+    @Operation(summary = "Get a page of reviews for a user, newest first")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved reviews for user"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size",
+                    content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "User not found",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
-    public ResponseEntity<List<ReviewResponse>> getReviewsForUser(@PathVariable Long userId) throws
-            EntityNotFoundException {
-        var response = reviewService.getReviewsForUser(userId);
-        return ResponseEntity.ok(ReviewResponse.fromList(response));
+    public ResponseEntity<ReviewPageResponse> getReviewsForUser(
+            @PathVariable Long userId, @RequestParam Optional<String> cursor, @RequestParam Optional<Integer> size
+    ) throws EntityNotFoundException {
+        var response = reviewService.getReviewsForUser(userId, cursor, size);
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping()
@@ -91,8 +99,7 @@ public class ReviewController {
     })
     public ResponseEntity<ReviewResponse> createReview(@Validated @RequestBody ReviewRequest request) throws
             EntityNotFoundException, DuplicateObjectException {
-        var loggedUser = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        var response = reviewService.createReview(request, loggedUser.getUsername());
+        var response = reviewService.createReview(request, resolvedUserContext.getUserId());
         return ResponseEntity.ok(new ReviewResponse(response));
     }
 
@@ -113,8 +120,7 @@ public class ReviewController {
             @PathVariable Long id, @Validated @RequestBody ReviewRequest request
     ) throws
             EntityNotFoundException, InvalidUserAccessException {
-        var loggedUser = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        var response = reviewService.updateReview(id, request, loggedUser.getUsername());
+        var response = reviewService.updateReview(id, request, resolvedUserContext.getUserId());
         return ResponseEntity.ok(new ReviewResponse(response));
     }
 
@@ -130,8 +136,7 @@ public class ReviewController {
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
     public ResponseEntity<Void> deleteReview(@PathVariable Long id) throws EntityNotFoundException {
-        var loggedUser = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        reviewService.deleteReview(id, loggedUser.getUsername());
+        reviewService.deleteReview(id, resolvedUserContext.getUserId());
         return ResponseEntity.ok().build();
     }
 }
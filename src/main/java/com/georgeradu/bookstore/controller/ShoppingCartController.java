@@ -1,5 +1,6 @@
 package com.georgeradu.bookstore.controller;
 
+import com.georgeradu.bookstore.context.ResolvedUserContext;
 import com.georgeradu.bookstore.dto.ShoppingCartItemRequest;
 import com.georgeradu.bookstore.dto.ShoppingCartItemResponse;
 import com.georgeradu.bookstore.dto.SpringErrorResponse;
@@ -12,8 +13,6 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -25,9 +24,13 @@ import java.util.List;
 @Tag(name = "Shopping Cart Controller", description = "Provides endpoints for shopping cart")
 public class ShoppingCartController {
     private final ShoppingCartItemService shoppingCartItemService;
+    private final ResolvedUserContext resolvedUserContext;
 
-    public ShoppingCartController(ShoppingCartItemService shoppingCartItemService) {
+    public ShoppingCartController(
+            ShoppingCartItemService shoppingCartItemService, ResolvedUserContext resolvedUserContext
+    ) {
         this.shoppingCartItemService = shoppingCartItemService;
+        this.resolvedUserContext = resolvedUserContext;
     }
 
     @GetMapping()
@@ -40,8 +43,7 @@ public class ShoppingCartController {
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
     public ResponseEntity<List<ShoppingCartItemResponse>> getCurrentUserShoppingCart() {
-        var loggedUser = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        var response = shoppingCartItemService.getUserShoppingCartByEmail(loggedUser.getUsername());
+        var response = shoppingCartItemService.getResolvedUserShoppingCart(resolvedUserContext.getUserId());
         return ResponseEntity.ok(ShoppingCartItemResponse.fromList(response));
     }
 
@@ -66,8 +68,7 @@ public class ShoppingCartController {
     @Operation(summary = "Add a book to the user's shopping cart")
     @ApiResponse(responseCode = "200", description = "Successfully added book to shopping cart")
     public ResponseEntity<ShoppingCartItemResponse> addBookToShoppingCart(@Validated @RequestBody ShoppingCartItemRequest request) {
-        var loggedUser = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        var response = shoppingCartItemService.addBookToShoppingCart(loggedUser.getUsername(), request);
+        var response = shoppingCartItemService.addBookToShoppingCart(resolvedUserContext.getUserId(), request);
         return ResponseEntity.ok(new ShoppingCartItemResponse(response));
     }
 
@@ -85,8 +86,7 @@ public class ShoppingCartController {
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
     public ResponseEntity<ShoppingCartItemResponse> updateShoppingCartItem(@PathVariable Long shoppingCartItemId, @Validated @RequestBody ShoppingCartItemRequest request) {
-        var loggedUser = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        var response = shoppingCartItemService.updateShoppingCartItem(loggedUser.getUsername(), shoppingCartItemId, request);
+        var response = shoppingCartItemService.updateShoppingCartItem(resolvedUserContext.getUserId(), shoppingCartItemId, request);
         return ResponseEntity.ok(new ShoppingCartItemResponse(response));
     }
 
@@ -102,8 +102,7 @@ public class ShoppingCartController {
                     content = @Content(schema = @Schema(implementation = SpringErrorResponse.class))),
     })
     public ResponseEntity<Void> deleteShoppingCartItem(@PathVariable Long shoppingCartItemId) {
-        var loggedUser = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        shoppingCartItemService.deleteShoppingCartItem(loggedUser.getUsername(), shoppingCartItemId);
+        shoppingCartItemService.deleteShoppingCartItem(resolvedUserContext.getUserId(), shoppingCartItemId);
         return ResponseEntity.ok().build();
     }
 }
@@ -0,0 +1,34 @@
+package com.georgeradu.bookstore.dto;
+
+import java.util.List;
+
+// the list of book categories together with its serialized json and the etag of the json, built once per change of
+// the categories. The json array is shared by every request and must not be modified
+public final class BookCategoriesSnapshot {
+    private final List<BookCategoryResponse> categories;
+    private final byte[] json;
+    private final String etag;
+
+    public BookCategoriesSnapshot(List<BookCategoryResponse> categories, byte[] json, String etag) {
+        this.categories = List.copyOf(categories);
+        this.json = json;
+        this.etag = etag;
+    }
+
+    public List<BookCategoryResponse> getCategories() {
+        return categories;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    @Override
+    public String toString() {
+        return "BookCategoriesSnapshot{" + "categories=" + categories + ", etag='" + etag + '\'' + '}';
+    }
+}
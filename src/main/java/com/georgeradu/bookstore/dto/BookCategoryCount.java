@@ -0,0 +1,50 @@
+package com.georgeradu.bookstore.dto;
+
+import java.util.Objects;
+
+public class BookCategoryCount {
+    private Long categoryId;
+    private long count;
+
+    public BookCategoryCount() {
+    }
+
+    public BookCategoryCount(Long categoryId, long count) {
+        this.categoryId = categoryId;
+        this.count = count;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BookCategoryCount that = (BookCategoryCount) o;
+        return count == that.count && Objects.equals(categoryId, that.categoryId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(categoryId, count);
+    }
+
+    @Override
+    public String toString() {
+        return "BookCategoryCount{" + "categoryId=" + categoryId + ", count=" + count + '}';
+    }
+}
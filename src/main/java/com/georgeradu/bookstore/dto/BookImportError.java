@@ -0,0 +1,51 @@
+package com.georgeradu.bookstore.dto;
+
+import java.util.Objects;
+
+public class BookImportError {
+    // number of the row in the imported body, the csv header is not counted
+    private long row;
+    private String message;
+
+    public BookImportError() {
+    }
+
+    public BookImportError(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BookImportError that = (BookImportError) o;
+        return row == that.row && Objects.equals(message, that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(row, message);
+    }
+
+    @Override
+    public String toString() {
+        return "BookImportError{" + "row=" + row + ", message='" + message + '\'' + '}';
+    }
+}
@@ -0,0 +1,8 @@
+package com.georgeradu.bookstore.dto;
+
+public enum BookImportFormat {
+    // a header row with the BookRequest field names, then one book per row
+    CSV,
+    // one BookRequest json document per line
+    NDJSON
+}
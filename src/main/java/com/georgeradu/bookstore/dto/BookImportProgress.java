@@ -0,0 +1,87 @@
+package com.georgeradu.bookstore.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+// written after every chunk of an import, the counts are totals since the start of the import and the errors are
+// the rows rejected in this chunk only
+public class BookImportProgress {
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private List<BookImportError> errors;
+    private boolean done;
+
+    public BookImportProgress() {
+    }
+
+    public BookImportProgress(
+            long rowsRead, long rowsImported, long rowsRejected, List<BookImportError> errors, boolean done
+    ) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.errors = errors;
+        this.done = done;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public void setRowsRejected(long rowsRejected) {
+        this.rowsRejected = rowsRejected;
+    }
+
+    public List<BookImportError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BookImportError> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public void setDone(boolean done) {
+        this.done = done;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BookImportProgress that = (BookImportProgress) o;
+        return rowsRead == that.rowsRead && rowsImported == that.rowsImported && rowsRejected == that.rowsRejected &&
+               done == that.done && Objects.equals(errors, that.errors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rowsRead, rowsImported, rowsRejected, errors, done);
+    }
+
+    @Override
+    public String toString() {
+        return "BookImportProgress{" + "rowsRead=" + rowsRead + ", rowsImported=" + rowsImported + ", rowsRejected=" +
+               rowsRejected + ", errors=" + errors + ", done=" + done + '}';
+    }
+}
@@ -3,6 +3,7 @@ package com.georgeradu.bookstore.dto;
 import jakarta.validation.constraints.*;
 import org.springframework.format.annotation.DateTimeFormat;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
@@ -16,9 +17,10 @@ public class BookRequest {
     @NotBlank(message = "Description is mandatory")
     @Size(min = 3, max = 1000, message = "Description must be between 3 and 1000 characters long")
     private String description;
+    @NotNull(message = "Price is mandatory")
     @Min(value = 0, message = "Price must be greater than 0")
     @Max(value = 100000, message = "Price must be less than 100000")
-    private double price;
+    private BigDecimal price;
     @NotBlank(message = "Image URL is mandatory")
     @Size(min = 3, max = 255, message = "Image URL must be between 3 and 255 characters long")
     private String imageUrl;
@@ -49,7 +51,7 @@ public class BookRequest {
     }
 
     public BookRequest(
-            String title, String author, String description, double price, String imageUrl, int quantity,
+            String title, String author, String description, BigDecimal price, String imageUrl, int quantity,
             String language, String publisher, LocalDateTime publicationDate, String isbn10, String isbn13,
             String dimensions, Long bookCategoryId
     ) {
@@ -92,11 +94,11 @@ public class BookRequest {
         this.description = description;
     }
 
-    public double getPrice() {
+    public BigDecimal getPrice() {
         return price;
     }
 
-    public void setPrice(double price) {
+    public void setPrice(BigDecimal price) {
         this.price = price;
     }
 
@@ -177,7 +179,7 @@ public class BookRequest {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         BookRequest that = (BookRequest) o;
-        return Double.compare(price, that.price) == 0 && quantity == that.quantity &&
+        return Objects.equals(price, that.price) && quantity == that.quantity &&
                Objects.equals(title, that.title) && Objects.equals(author, that.author) &&
                Objects.equals(description, that.description) && Objects.equals(imageUrl, that.imageUrl) &&
                Objects.equals(language, that.language) && Objects.equals(publisher, that.publisher) &&
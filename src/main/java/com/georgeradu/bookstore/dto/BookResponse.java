@@ -1,10 +1,13 @@
 package com.georgeradu.bookstore.dto;
 
 import com.georgeradu.bookstore.model.Book;
+import com.georgeradu.bookstore.model.BookRating;
 import org.springframework.data.domain.Page;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 public class BookResponse {
@@ -12,7 +15,7 @@ public class BookResponse {
     private String title;
     private String author;
     private String description;
-    private double price;
+    private BigDecimal price;
     private String imageUrl;
     private int quantity;
     private String language;
@@ -22,14 +25,16 @@ public class BookResponse {
     private String isbn13;
     private String dimensions;
     private Long bookCategoryId;
+    private double averageRating;
+    private long reviewCount;
 
     public BookResponse() {
     }
 
     public BookResponse(
-            Long id, String title, String author, String description, double price, String imageUrl, int quantity,
+            Long id, String title, String author, String description, BigDecimal price, String imageUrl, int quantity,
             String language, String publisher, LocalDateTime publicationDate, String isbn10, String isbn13,
-            String dimensions, Long bookCategoryId
+            String dimensions, Long bookCategoryId, double averageRating, long reviewCount
     ) {
         this.id = id;
         this.title = title;
@@ -45,6 +50,8 @@ public class BookResponse {
         this.isbn13 = isbn13;
         this.dimensions = dimensions;
         this.bookCategoryId = bookCategoryId;
+        this.averageRating = averageRating;
+        this.reviewCount = reviewCount;
     }
 
     public BookResponse(Book response) {
@@ -64,12 +71,20 @@ public class BookResponse {
         this.bookCategoryId = response.getCategory().getId();
     }
 
-    public static List<BookResponse> fromList(List<Book> response) {
-        return response.stream().map(BookResponse::new).toList();
+    public BookResponse(Book response, BookRating rating) {
+        this(response);
+        if (rating != null) {
+            this.averageRating = rating.getAverageRating();
+            this.reviewCount = rating.getReviewCount();
+        }
     }
 
-    public static Page<BookResponse> fromPage(Page<Book> response) {
-        return response.map(BookResponse::new);
+    public static List<BookResponse> fromList(List<Book> response, Map<Long, BookRating> ratings) {
+        return response.stream().map(book -> new BookResponse(book, ratings.get(book.getId()))).toList();
+    }
+
+    public static Page<BookResponse> fromPage(Page<Book> response, Map<Long, BookRating> ratings) {
+        return response.map(book -> new BookResponse(book, ratings.get(book.getId())));
     }
 
     public Long getId() {
@@ -104,11 +119,11 @@ public class BookResponse {
         this.description = description;
     }
 
-    public double getPrice() {
+    public BigDecimal getPrice() {
         return price;
     }
 
-    public void setPrice(double price) {
+    public void setPrice(BigDecimal price) {
         this.price = price;
     }
 
@@ -184,12 +199,30 @@ public class BookResponse {
         this.bookCategoryId = bookCategoryId;
     }
 
+    public double getAverageRating() {
+        return averageRating;
+    }
+
+    public void setAverageRating(double averageRating) {
+        this.averageRating = averageRating;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(long reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         BookResponse that = (BookResponse) o;
-        return Double.compare(price, that.price) == 0 && quantity == that.quantity && Objects.equals(id, that.id) &&
+        return Objects.equals(price, that.price) && quantity == that.quantity &&
+               Double.compare(averageRating, that.averageRating) == 0 && reviewCount == that.reviewCount &&
+               Objects.equals(id, that.id) &&
                Objects.equals(title, that.title) && Objects.equals(author, that.author) &&
                Objects.equals(description, that.description) && Objects.equals(imageUrl, that.imageUrl) &&
                Objects.equals(language, that.language) && Objects.equals(publisher, that.publisher) &&
@@ -201,7 +234,7 @@ public class BookResponse {
     @Override
     public int hashCode() {
         return Objects.hash(id, title, author, description, price, imageUrl, quantity, language, publisher,
-                publicationDate, isbn10, isbn13, dimensions, bookCategoryId);
+                publicationDate, isbn10, isbn13, dimensions, bookCategoryId, averageRating, reviewCount);
     }
 
     @Override
@@ -210,6 +243,7 @@ public class BookResponse {
                ", description='" + description + '\'' + ", price=" + price + ", imageUrl='" + imageUrl + '\'' +
                ", quantity=" + quantity + ", language='" + language + '\'' + ", publisher='" + publisher + '\'' +
                ", publicationDate=" + publicationDate + ", isbn10='" + isbn10 + '\'' + ", isbn13='" + isbn13 + '\'' +
-               ", dimensions='" + dimensions + '\'' + ", bookCategoryId=" + bookCategoryId + '}';
+               ", dimensions='" + dimensions + '\'' + ", bookCategoryId=" + bookCategoryId + ", averageRating=" + averageRating +
+               ", reviewCount=" + reviewCount + '}';
     }
 }
@@ -0,0 +1,72 @@
+package com.georgeradu.bookstore.dto;
+
+import java.util.Objects;
+
+public class BookSearchText {
+    private Long id;
+    private String title;
+    private String author;
+    private String description;
+
+    public BookSearchText() {
+    }
+
+    public BookSearchText(Long id, String title, String author, String description) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.description = description;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BookSearchText that = (BookSearchText) o;
+        return Objects.equals(id, that.id) && Objects.equals(title, that.title) &&
+               Objects.equals(author, that.author) && Objects.equals(description, that.description);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, title, author, description);
+    }
+
+    @Override
+    public String toString() {
+        return "BookSearchText{" + "id=" + id + ", title='" + title + '\'' + ", author='" + author + '\'' +
+               ", description='" + description + '\'' + '}';
+    }
+}
@@ -0,0 +1,64 @@
+package com.georgeradu.bookstore.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+public class BookSliceResponse {
+    private List<BookResponse> content;
+    private boolean hasNext;
+    // pass it as the afterId parameter to get the next slice, null on the last slice
+    private Long nextAfterId;
+
+    public BookSliceResponse() {
+    }
+
+    public BookSliceResponse(List<BookResponse> content, boolean hasNext, Long nextAfterId) {
+        this.content = content;
+        this.hasNext = hasNext;
+        this.nextAfterId = nextAfterId;
+    }
+
+    public List<BookResponse> getContent() {
+        return content;
+    }
+
+    public void setContent(List<BookResponse> content) {
+        this.content = content;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public Long getNextAfterId() {
+        return nextAfterId;
+    }
+
+    public void setNextAfterId(Long nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BookSliceResponse that = (BookSliceResponse) o;
+        return hasNext == that.hasNext && Objects.equals(content, that.content) &&
+               Objects.equals(nextAfterId, that.nextAfterId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(content, hasNext, nextAfterId);
+    }
+
+    @Override
+    public String toString() {
+        return "BookSliceResponse{" + "content=" + content + ", hasNext=" + hasNext + ", nextAfterId=" + nextAfterId +
+               '}';
+    }
+}
@@ -0,0 +1,51 @@
+package com.georgeradu.bookstore.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+public class OrderDetailsResponse {
+    private OrderInfoResponse orderInfo;
+    private List<OrderItemResponse> orderItems;
+
+    public OrderDetailsResponse() {
+    }
+
+    public OrderDetailsResponse(OrderInfoResponse orderInfo, List<OrderItemResponse> orderItems) {
+        this.orderInfo = orderInfo;
+        this.orderItems = orderItems;
+    }
+
+    public OrderInfoResponse getOrderInfo() {
+        return orderInfo;
+    }
+
+    public void setOrderInfo(OrderInfoResponse orderInfo) {
+        this.orderInfo = orderInfo;
+    }
+
+    public List<OrderItemResponse> getOrderItems() {
+        return orderItems;
+    }
+
+    public void setOrderItems(List<OrderItemResponse> orderItems) {
+        this.orderItems = orderItems;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OrderDetailsResponse that = (OrderDetailsResponse) o;
+        return Objects.equals(orderInfo, that.orderInfo) && Objects.equals(orderItems, that.orderItems);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(orderInfo, orderItems);
+    }
+
+    @Override
+    public String toString() {
+        return "OrderDetailsResponse{" + "orderInfo=" + orderInfo + ", orderItems=" + orderItems + '}';
+    }
+}
@@ -3,6 +3,7 @@ package com.georgeradu.bookstore.dto;
 import com.georgeradu.bookstore.model.OrderInfo;
 import com.georgeradu.bookstore.model.OrderStatus;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
@@ -10,7 +11,7 @@ import java.util.Objects;
 public class OrderInfoResponse {
     private Long id;
     private Long userId;
-    private double totalPrice;
+    private BigDecimal totalPrice;
     private String shippingAddress;
     private OrderStatus status;
     private LocalDateTime deliveredAt;
@@ -21,7 +22,7 @@ public class OrderInfoResponse {
     }
 
     public OrderInfoResponse(
-            Long id, Long userId, double totalPrice, String shippingAddress, OrderStatus status,
+            Long id, Long userId, BigDecimal totalPrice, String shippingAddress, OrderStatus status,
             LocalDateTime deliveredAt, LocalDateTime createdAt, LocalDateTime updatedAt
     ) {
         this.id = id;
@@ -65,11 +66,11 @@ public class OrderInfoResponse {
         this.userId = userId;
     }
 
-    public double getTotalPrice() {
+    public BigDecimal getTotalPrice() {
         return totalPrice;
     }
 
-    public void setTotalPrice(double totalPrice) {
+    public void setTotalPrice(BigDecimal totalPrice) {
         this.totalPrice = totalPrice;
     }
 
@@ -118,7 +119,7 @@ public class OrderInfoResponse {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         OrderInfoResponse that = (OrderInfoResponse) o;
-        return Double.compare(totalPrice, that.totalPrice) == 0 && Objects.equals(id, that.id) &&
+        return Objects.equals(totalPrice, that.totalPrice) && Objects.equals(id, that.id) &&
                Objects.equals(userId, that.userId) && Objects.equals(shippingAddress, that.shippingAddress) &&
                status == that.status && Objects.equals(deliveredAt, that.deliveredAt) &&
                Objects.equals(createdAt, that.createdAt) && Objects.equals(updatedAt, that.updatedAt);
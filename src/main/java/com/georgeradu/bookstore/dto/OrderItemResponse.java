@@ -2,6 +2,7 @@ package com.georgeradu.bookstore.dto;
 
 import com.georgeradu.bookstore.model.OrderItem;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Objects;
 
@@ -10,12 +11,12 @@ public class OrderItemResponse {
     private Long orderId;
     private Long bookId;
     private int quantity;
-    private double price;
+    private BigDecimal price;
 
     public OrderItemResponse() {
     }
 
-    public OrderItemResponse(Long id, Long orderId, Long bookId, int quantity, double price) {
+    public OrderItemResponse(Long id, Long orderId, Long bookId, int quantity, BigDecimal price) {
         this.id = id;
         this.orderId = orderId;
         this.bookId = bookId;
@@ -67,11 +68,11 @@ public class OrderItemResponse {
         this.quantity = quantity;
     }
 
-    public double getPrice() {
+    public BigDecimal getPrice() {
         return price;
     }
 
-    public void setPrice(double price) {
+    public void setPrice(BigDecimal price) {
         this.price = price;
     }
 
@@ -80,7 +81,7 @@ public class OrderItemResponse {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         OrderItemResponse that = (OrderItemResponse) o;
-        return quantity == that.quantity && Double.compare(price, that.price) == 0 && Objects.equals(id, that.id) &&
+        return quantity == that.quantity && Objects.equals(price, that.price) && Objects.equals(id, that.id) &&
                Objects.equals(orderId, that.orderId) && Objects.equals(bookId, that.bookId);
     }
 
@@ -0,0 +1,52 @@
+package com.georgeradu.bookstore.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+public class ReviewPageResponse {
+    private List<ReviewResponse> content;
+    // pass it as the cursor parameter to get the next page, null on the last page
+    private String nextCursor;
+
+    public ReviewPageResponse() {
+    }
+
+    public ReviewPageResponse(List<ReviewResponse> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ReviewResponse> getContent() {
+        return content;
+    }
+
+    public void setContent(List<ReviewResponse> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReviewPageResponse that = (ReviewPageResponse) o;
+        return Objects.equals(content, that.content) && Objects.equals(nextCursor, that.nextCursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(content, nextCursor);
+    }
+
+    @Override
+    public String toString() {
+        return "ReviewPageResponse{" + "content=" + content + ", nextCursor='" + nextCursor + '\'' + '}';
+    }
+}
@@ -1,7 +1,9 @@
 package com.georgeradu.bookstore.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.georgeradu.bookstore.model.Review;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
 
@@ -11,6 +13,9 @@ public class ReviewResponse {
     private Long bookId;
     private int rating;
     private String comment;
+    // only used to build the keyset cursor of a page
+    @JsonIgnore
+    private LocalDateTime createdAt;
 
     public ReviewResponse() {
     }
@@ -23,12 +28,19 @@ public class ReviewResponse {
         this.comment = comment;
     }
 
+    // used by the projection queries of ReviewRepository, so the book and the user are not loaded
+    public ReviewResponse(Long id, Long userId, Long bookId, int rating, String comment, LocalDateTime createdAt) {
+        this(id, userId, bookId, rating, comment);
+        this.createdAt = createdAt;
+    }
+
     public ReviewResponse(Review response) {
         this.id = response.getId();
         this.userId = response.getUser().getId();
         this.bookId = response.getBook().getId();
         this.rating = response.getRating();
         this.comment = response.getComment();
+        this.createdAt = response.getCreatedAt();
     }
 
     public static List<ReviewResponse> fromList(List<Review> reviews) {
@@ -75,6 +87,14 @@ public class ReviewResponse {
         this.comment = comment;
     }
 
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
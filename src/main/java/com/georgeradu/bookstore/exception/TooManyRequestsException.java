@@ -0,0 +1,13 @@
+package com.georgeradu.bookstore.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends RuntimeException {
+    private static final String errorMessage = "Too many requests: %s";
+
+    public TooManyRequestsException(String reason) {
+        super(String.format(errorMessage, reason));
+    }
+}
@@ -1,7 +1,10 @@
 package com.georgeradu.bookstore.filters;
 
+import com.georgeradu.bookstore.context.ResolvedUserContext;
+import com.georgeradu.bookstore.model.User;
 import com.georgeradu.bookstore.service.JwtService;
 import com.georgeradu.bookstore.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,13 +26,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserService userService;
     private final UserDetailsService userDetailsService;
+    private final ResolvedUserContext resolvedUserContext;
 
     public JwtAuthenticationFilter(
-            JwtService jwtService, UserService userService, UserDetailsService userDetailsService
+            JwtService jwtService, UserService userService, UserDetailsService userDetailsService,
+            ResolvedUserContext resolvedUserContext
     ) {
         this.jwtService = jwtService;
         this.userService = userService;
         this.userDetailsService = userDetailsService;
+        this.resolvedUserContext = resolvedUserContext;
     }
 
     @Override
@@ -44,16 +50,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUserName(jwt);
+        // the token is parsed and its signature checked once, the claims are reused for the validation
+        final Claims claims = jwtService.extractAllClaims(jwt);
+        userEmail = claims.getSubject();
         if (StringUtils.isNotEmpty(userEmail) && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (jwtService.isTokenValid(claims, userDetails)) {
                 SecurityContext context = SecurityContextHolder.createEmptyContext();
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
                         null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 context.setAuthentication(authToken);
                 SecurityContextHolder.setContext(context);
+                if (userDetails instanceof User user) {
+                    resolvedUserContext.setUser(user);
+                }
             }
         }
         filterChain.doFilter(request, response);
@@ -2,12 +2,17 @@ package com.georgeradu.bookstore.model;
 
 import jakarta.persistence.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+// the category is lazy, a read that needs more than its id fetches the book with the graph of its use case
 @Entity
 @Table(name = "book")
+@NamedEntityGraph(name = Book.WITH_CATEGORY, attributeNodes = @NamedAttributeNode("category"))
 public class Book {
+    public static final String WITH_CATEGORY = "Book.withCategory";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -22,7 +27,7 @@ public class Book {
     private String description;
 
     @Column(name = "price", nullable = false)
-    private double price;
+    private BigDecimal price;
 
     @Column(name = "image_url", nullable = false)
     private String imageUrl;
@@ -48,7 +53,7 @@ public class Book {
     @Column(name = "dimensions", nullable = false)
     private String dimensions;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", referencedColumnName = "id")
     private BookCategory category;
 
@@ -72,7 +77,7 @@ public class Book {
     }
 
     public Book(
-            Long id, String title, String author, String description, double price, String imageUrl, int quantity,
+            Long id, String title, String author, String description, BigDecimal price, String imageUrl, int quantity,
             String language, String publisher, LocalDateTime publicationDate, String isbn10, String isbn13,
             String dimensions, double averageRating, BookCategory category, LocalDateTime createdAt,
             LocalDateTime updatedAt, LocalDateTime deletedAt
@@ -128,11 +133,11 @@ public class Book {
         this.description = description;
     }
 
-    public double getPrice() {
+    public BigDecimal getPrice() {
         return price;
     }
 
-    public void setPrice(double price) {
+    public void setPrice(BigDecimal price) {
         this.price = price;
     }
 
@@ -232,25 +237,30 @@ public class Book {
         this.deletedAt = deletedAt;
     }
 
+    // associations are compared by id, a lazy association can be an uninitialized proxy
+    private Long categoryId() {
+        return category == null ? null : category.getId();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Book book = (Book) o;
-        return Double.compare(price, book.price) == 0 && quantity == book.quantity && Objects.equals(id, book.id) &&
+        return Objects.equals(price, book.price) && quantity == book.quantity && Objects.equals(id, book.id) &&
                Objects.equals(title, book.title) && Objects.equals(author, book.author) &&
                Objects.equals(description, book.description) && Objects.equals(imageUrl, book.imageUrl) &&
                Objects.equals(language, book.language) && Objects.equals(publisher, book.publisher) &&
                Objects.equals(publicationDate, book.publicationDate) && Objects.equals(isbn10, book.isbn10) &&
                Objects.equals(isbn13, book.isbn13) && Objects.equals(dimensions, book.dimensions) &&
-               Objects.equals(category, book.category) && Objects.equals(createdAt, book.createdAt) &&
+               Objects.equals(categoryId(), book.categoryId()) && Objects.equals(createdAt, book.createdAt) &&
                Objects.equals(updatedAt, book.updatedAt) && Objects.equals(deletedAt, book.deletedAt);
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(id, title, author, description, price, imageUrl, quantity, language, publisher,
-                publicationDate, isbn10, isbn13, dimensions, category, createdAt, updatedAt, deletedAt);
+                publicationDate, isbn10, isbn13, dimensions, categoryId(), createdAt, updatedAt, deletedAt);
     }
 
     @Override
@@ -259,7 +269,7 @@ public class Book {
                description + '\'' + ", price=" + price + ", imageUrl='" + imageUrl + '\'' + ", quantity=" + quantity +
                ", language='" + language + '\'' + ", publisher='" + publisher + '\'' + ", publicationLocalDateTime='" +
                publicationDate + '\'' + ", isbn10='" + isbn10 + '\'' + ", isbn13='" + isbn13 + '\'' + ", dimensions='" +
-               dimensions + '\'' + ", category=" + category + ", createdAt=" +
-               createdAt + ", updatedAt=" + updatedAt + ", deletedAt=" + deletedAt + '}';
+               dimensions + '\'' + ", categoryId=" + (category == null ? null : category.getId()) +
+               ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + ", deletedAt=" + deletedAt + '}';
     }
 }
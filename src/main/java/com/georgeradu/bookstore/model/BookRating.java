@@ -0,0 +1,162 @@
+package com.georgeradu.bookstore.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// rating aggregate of a book, kept up to date by the review writes so the average does not need the review rows
+@Entity
+@Table(name = "book_rating")
+public class BookRating {
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_1_count", nullable = false)
+    private long rating1Count;
+
+    @Column(name = "rating_2_count", nullable = false)
+    private long rating2Count;
+
+    @Column(name = "rating_3_count", nullable = false)
+    private long rating3Count;
+
+    @Column(name = "rating_4_count", nullable = false)
+    private long rating4Count;
+
+    @Column(name = "rating_5_count", nullable = false)
+    private long rating5Count;
+
+    @Column(name = "updated_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private LocalDateTime updatedAt;
+
+    public BookRating() {
+    }
+
+    public BookRating(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public BookRating(
+            Long bookId, long reviewCount, long ratingSum, long rating1Count, long rating2Count, long rating3Count,
+            long rating4Count, long rating5Count
+    ) {
+        this.bookId = bookId;
+        this.reviewCount = reviewCount;
+        this.ratingSum = ratingSum;
+        this.rating1Count = rating1Count;
+        this.rating2Count = rating2Count;
+        this.rating3Count = rating3Count;
+        this.rating4Count = rating4Count;
+        this.rating5Count = rating5Count;
+    }
+
+    public double getAverageRating() {
+        return reviewCount == 0 ? 0 : (double) ratingSum / reviewCount;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(long reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public long getRating1Count() {
+        return rating1Count;
+    }
+
+    public void setRating1Count(long rating1Count) {
+        this.rating1Count = rating1Count;
+    }
+
+    public long getRating2Count() {
+        return rating2Count;
+    }
+
+    public void setRating2Count(long rating2Count) {
+        this.rating2Count = rating2Count;
+    }
+
+    public long getRating3Count() {
+        return rating3Count;
+    }
+
+    public void setRating3Count(long rating3Count) {
+        this.rating3Count = rating3Count;
+    }
+
+    public long getRating4Count() {
+        return rating4Count;
+    }
+
+    public void setRating4Count(long rating4Count) {
+        this.rating4Count = rating4Count;
+    }
+
+    public long getRating5Count() {
+        return rating5Count;
+    }
+
+    public void setRating5Count(long rating5Count) {
+        this.rating5Count = rating5Count;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BookRating that = (BookRating) o;
+        return reviewCount == that.reviewCount && ratingSum == that.ratingSum && rating1Count == that.rating1Count &&
+               rating2Count == that.rating2Count && rating3Count == that.rating3Count &&
+               rating4Count == that.rating4Count && rating5Count == that.rating5Count &&
+               Objects.equals(bookId, that.bookId) && Objects.equals(updatedAt, that.updatedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bookId, reviewCount, ratingSum, rating1Count, rating2Count, rating3Count, rating4Count,
+                rating5Count, updatedAt);
+    }
+
+    @Override
+    public String toString() {
+        return "BookRating{" + "bookId=" + bookId + ", reviewCount=" + reviewCount + ", ratingSum=" + ratingSum +
+               ", rating1Count=" + rating1Count + ", rating2Count=" + rating2Count + ", rating3Count=" +
+               rating3Count + ", rating4Count=" + rating4Count + ", rating5Count=" + rating5Count + ", updatedAt=" +
+               updatedAt + '}';
+    }
+}
@@ -2,22 +2,28 @@ package com.georgeradu.bookstore.model;
 
 import jakarta.persistence.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+// the user is lazy, the order reads are projected to responses and a cancel or a delivery only checks the user id,
+// so the graph of a status change loads the order row alone
 @Entity
 @Table(name = "order_info")
+@NamedEntityGraph(name = OrderInfo.STATUS_CHANGE)
 public class OrderInfo {
+    public static final String STATUS_CHANGE = "OrderInfo.statusChange";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user;
 
     @Column(name = "total_price", nullable = false)
-    private double totalPrice;
+    private BigDecimal totalPrice;
 
     @Column(name = "shipping_address", nullable = false)
     private String shippingAddress;
@@ -49,7 +55,7 @@ public class OrderInfo {
     }
 
     public OrderInfo(
-            Long id, User user, double totalPrice, String shippingAddress, OrderStatus orderStatus,
+            Long id, User user, BigDecimal totalPrice, String shippingAddress, OrderStatus orderStatus,
             LocalDateTime deliveredAt, LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime deletedAt
     ) {
         this.id = id;
@@ -79,11 +85,11 @@ public class OrderInfo {
         this.user = user;
     }
 
-    public double getTotalPrice() {
+    public BigDecimal getTotalPrice() {
         return totalPrice;
     }
 
-    public void setTotalPrice(double totalPrice) {
+    public void setTotalPrice(BigDecimal totalPrice) {
         this.totalPrice = totalPrice;
     }
 
@@ -135,28 +141,34 @@ public class OrderInfo {
         this.deletedAt = deletedAt;
     }
 
+    // associations are compared by id, a lazy association can be an uninitialized proxy
+    private Long userId() {
+        return user == null ? null : user.getId();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         OrderInfo orderInfo = (OrderInfo) o;
-        return Double.compare(totalPrice, orderInfo.totalPrice) == 0 && Objects.equals(id, orderInfo.id) &&
-               Objects.equals(user, orderInfo.user) && Objects.equals(shippingAddress, orderInfo.shippingAddress) &&
-               status == orderInfo.status && Objects.equals(deliveredAt, orderInfo.deliveredAt) &&
+        return Objects.equals(totalPrice, orderInfo.totalPrice) && Objects.equals(id, orderInfo.id) &&
+               Objects.equals(userId(), orderInfo.userId()) &&
+               Objects.equals(shippingAddress, orderInfo.shippingAddress) && status == orderInfo.status &&
+               Objects.equals(deliveredAt, orderInfo.deliveredAt) &&
                Objects.equals(createdAt, orderInfo.createdAt) && Objects.equals(updatedAt, orderInfo.updatedAt) &&
                Objects.equals(deletedAt, orderInfo.deletedAt);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, user, totalPrice, shippingAddress, status, deliveredAt, createdAt, updatedAt,
+        return Objects.hash(id, userId(), totalPrice, shippingAddress, status, deliveredAt, createdAt, updatedAt,
                 deletedAt);
     }
 
     @Override
     public String toString() {
-        return "OrderInfo{" + "id=" + id + ", user=" + user + ", totalPrice=" + totalPrice + ", shippingAddress='" +
-               shippingAddress + '\'' + ", status=" + status + ", deliveredAt=" + deliveredAt + ", createdAt=" +
-               createdAt + ", updatedAt=" + updatedAt + ", deletedAt=" + deletedAt + '}';
+        return "OrderInfo{" + "id=" + id + ", userId=" + (user == null ? null : user.getId()) + ", totalPrice=" +
+               totalPrice + ", shippingAddress='" + shippingAddress + '\'' + ", status=" + status + ", deliveredAt=" +
+               deliveredAt + ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + ", deletedAt=" + deletedAt + '}';
     }
 }
@@ -2,21 +2,24 @@ package com.georgeradu.bookstore.model;
 
 import jakarta.persistence.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
 @Table(name = "order_item")
 public class OrderItem {
+    // the items of an order are inserted by OrderItemRepository.insertFromShoppingCart, ids come from the column
+    // default
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", referencedColumnName = "id")
     private OrderInfo orderInfo;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id", referencedColumnName = "id")
     private Book book;
 
@@ -24,7 +27,7 @@ public class OrderItem {
     private int quantity;
 
     @Column(name = "price", nullable = false)
-    private double price;
+    private BigDecimal price;
 
     @Column(name = "created_at", nullable = false)
     @Temporal(TemporalType.TIMESTAMP)
@@ -46,7 +49,7 @@ public class OrderItem {
     }
 
     public OrderItem(
-            Long id, OrderInfo orderInfo, Book book, int quantity, double price, LocalDateTime createdAt,
+            Long id, OrderInfo orderInfo, Book book, int quantity, BigDecimal price, LocalDateTime createdAt,
             LocalDateTime updatedAt, LocalDateTime deletedAt
     ) {
         this.id = id;
@@ -91,11 +94,11 @@ public class OrderItem {
         this.quantity = quantity;
     }
 
-    public double getPrice() {
+    public BigDecimal getPrice() {
         return price;
     }
 
-    public void setPrice(double price) {
+    public void setPrice(BigDecimal price) {
         this.price = price;
     }
 
@@ -123,26 +126,35 @@ public class OrderItem {
         this.deletedAt = deletedAt;
     }
 
+    // associations are compared by id, a lazy association can be an uninitialized proxy
+    private Long orderInfoId() {
+        return orderInfo == null ? null : orderInfo.getId();
+    }
+
+    private Long bookId() {
+        return book == null ? null : book.getId();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         OrderItem orderItem = (OrderItem) o;
-        return quantity == orderItem.quantity && Double.compare(price, orderItem.price) == 0 &&
-               Objects.equals(id, orderItem.id) && Objects.equals(orderInfo, orderItem.orderInfo) &&
-               Objects.equals(book, orderItem.book) && Objects.equals(createdAt, orderItem.createdAt) &&
+        return quantity == orderItem.quantity && Objects.equals(price, orderItem.price) &&
+               Objects.equals(id, orderItem.id) && Objects.equals(orderInfoId(), orderItem.orderInfoId()) &&
+               Objects.equals(bookId(), orderItem.bookId()) && Objects.equals(createdAt, orderItem.createdAt) &&
                Objects.equals(updatedAt, orderItem.updatedAt) && Objects.equals(deletedAt, orderItem.deletedAt);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, orderInfo, book, quantity, price, createdAt, updatedAt, deletedAt);
+        return Objects.hash(id, orderInfoId(), bookId(), quantity, price, createdAt, updatedAt, deletedAt);
     }
 
     @Override
     public String toString() {
-        return "OrderItem{" + "id=" + id + ", orderInfo=" + orderInfo + ", book=" + book + ", quantity=" + quantity +
-               ", price=" + price + ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + ", deletedAt=" +
-               deletedAt + '}';
+        return "OrderItem{" + "id=" + id + ", orderInfoId=" + (orderInfo == null ? null : orderInfo.getId()) +
+               ", bookId=" + (book == null ? null : book.getId()) + ", quantity=" + quantity + ", price=" + price +
+               ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + ", deletedAt=" + deletedAt + '}';
     }
 }
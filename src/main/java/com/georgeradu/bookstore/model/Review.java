@@ -5,18 +5,23 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+// the book and the user are lazy, the review pages are projected to responses and the reads of a single review only
+// check the ids of its book and user, so the graph of a single review loads the review row alone
 @Entity
 @Table(name = "book_review")
+@NamedEntityGraph(name = Review.SINGLE)
 public class Review {
+    public static final String SINGLE = "Review.single";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id", referencedColumnName = "id")
     private Book book;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user;
 
@@ -123,26 +128,35 @@ public class Review {
         this.deletedAt = deletedAt;
     }
 
+    // associations are compared by id, a lazy association can be an uninitialized proxy
+    private Long bookId() {
+        return book == null ? null : book.getId();
+    }
+
+    private Long userId() {
+        return user == null ? null : user.getId();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Review that = (Review) o;
-        return rating == that.rating && Objects.equals(id, that.id) && Objects.equals(book, that.book) &&
-               Objects.equals(user, that.user) && Objects.equals(comment, that.comment) &&
+        return rating == that.rating && Objects.equals(id, that.id) && Objects.equals(bookId(), that.bookId()) &&
+               Objects.equals(userId(), that.userId()) && Objects.equals(comment, that.comment) &&
                Objects.equals(createdAt, that.createdAt) && Objects.equals(updatedAt, that.updatedAt) &&
                Objects.equals(deletedAt, that.deletedAt);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, book, user, rating, comment, createdAt, updatedAt, deletedAt);
+        return Objects.hash(id, bookId(), userId(), rating, comment, createdAt, updatedAt, deletedAt);
     }
 
     @Override
     public String toString() {
-        return "BookReview{" + "id=" + id + ", book=" + book + ", user=" + user + ", rating=" + rating + ", comment='" +
-               comment + '\'' + ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + ", deletedAt=" + deletedAt +
-               '}';
+        return "BookReview{" + "id=" + id + ", bookId=" + (book == null ? null : book.getId()) + ", userId=" +
+               (user == null ? null : user.getId()) + ", rating=" + rating + ", comment='" + comment + '\'' +
+               ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + ", deletedAt=" + deletedAt + '}';
     }
 }
@@ -5,18 +5,23 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+// the user and the book are lazy, the cart listing and the checkout only read their ids, which the proxies hold, so
+// the graph of the cart loads the item row alone
 @Entity
 @Table(name = "shopping_cart_item")
+@NamedEntityGraph(name = ShoppingCartItem.CART)
 public class ShoppingCartItem {
+    public static final String CART = "ShoppingCartItem.cart";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id", referencedColumnName = "id")
     private Book book;
 
@@ -111,24 +116,34 @@ public class ShoppingCartItem {
         this.deletedAt = deletedAt;
     }
 
+    // associations are compared by id, a lazy association can be an uninitialized proxy
+    private Long userId() {
+        return user == null ? null : user.getId();
+    }
+
+    private Long bookId() {
+        return book == null ? null : book.getId();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         ShoppingCartItem that = (ShoppingCartItem) o;
-        return quantity == that.quantity && Objects.equals(id, that.id) && Objects.equals(user, that.user) &&
-               Objects.equals(book, that.book) && Objects.equals(createdAt, that.createdAt) &&
+        return quantity == that.quantity && Objects.equals(id, that.id) && Objects.equals(userId(), that.userId()) &&
+               Objects.equals(bookId(), that.bookId()) && Objects.equals(createdAt, that.createdAt) &&
                Objects.equals(updatedAt, that.updatedAt) && Objects.equals(deletedAt, that.deletedAt);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, user, book, quantity, createdAt, updatedAt, deletedAt);
+        return Objects.hash(id, userId(), bookId(), quantity, createdAt, updatedAt, deletedAt);
     }
 
     @Override
     public String toString() {
-        return "ShoppingCartItem{" + "id=" + id + ", user=" + user + ", book=" + book + ", quantity=" + quantity +
-               ", createdAt=" + createdAt + ", updatedAt=" + updatedAt + ", deletedAt=" + deletedAt + '}';
+        return "ShoppingCartItem{" + "id=" + id + ", userId=" + (user == null ? null : user.getId()) + ", bookId=" +
+               (book == null ? null : book.getId()) + ", quantity=" + quantity + ", createdAt=" + createdAt +
+               ", updatedAt=" + updatedAt + ", deletedAt=" + deletedAt + '}';
     }
 }
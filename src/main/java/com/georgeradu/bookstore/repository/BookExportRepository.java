@@ -0,0 +1,12 @@
+package com.georgeradu.bookstore.repository;
+
+import com.georgeradu.bookstore.dto.BookResponse;
+
+import java.util.function.Consumer;
+
+// reads the whole catalog through a server side cursor, the driver holds at most fetchSize rows at a time. Postgres
+// only opens the cursor inside a transaction, the caller must run in one
+public interface BookExportRepository {
+    // every book in id order with its rating aggregate, passed to the consumer while the rows are read
+    void exportBooks(int fetchSize, Consumer<BookResponse> consumer);
+}
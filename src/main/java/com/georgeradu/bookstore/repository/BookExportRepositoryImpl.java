@@ -0,0 +1,57 @@
+package com.georgeradu.bookstore.repository;
+
+import com.georgeradu.bookstore.dto.BookResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+public class BookExportRepositoryImpl implements BookExportRepository {
+    // the rows are mapped straight to the response, no entity is created or kept by the persistence context
+    private static final String EXPORT_BOOKS =
+            "SELECT b.id, b.title, b.author, b.description, b.price, b.image_url, b.quantity, b.language, " +
+            "b.publisher, b.publication_date, b.isbn10, b.isbn13, b.dimensions, b.category_id, r.review_count, " +
+            "r.rating_sum FROM book b LEFT JOIN book_rating r ON r.book_id = b.id ORDER BY b.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookExportRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void exportBooks(int fetchSize, Consumer<BookResponse> consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(EXPORT_BOOKS, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(mapBook(resultSet)));
+    }
+
+    private static BookResponse mapBook(ResultSet resultSet) throws SQLException {
+        // a book without reviews has no rating row, getLong reads the null columns as 0
+        var reviewCount = resultSet.getLong("review_count");
+        var ratingSum = resultSet.getLong("rating_sum");
+        return new BookResponse(
+                resultSet.getLong("id"),
+                resultSet.getString("title"),
+                resultSet.getString("author"),
+                resultSet.getString("description"),
+                resultSet.getBigDecimal("price"),
+                resultSet.getString("image_url"),
+                resultSet.getInt("quantity"),
+                resultSet.getString("language"),
+                resultSet.getString("publisher"),
+                resultSet.getObject("publication_date", LocalDate.class).atStartOfDay(),
+                resultSet.getString("isbn10"),
+                resultSet.getString("isbn13"),
+                resultSet.getString("dimensions"),
+                resultSet.getLong("category_id"),
+                reviewCount == 0 ? 0 : (double) ratingSum / reviewCount,
+                reviewCount
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package com.georgeradu.bookstore.repository;
+
+import com.georgeradu.bookstore.dto.BookRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// bulk load of validated books with postgres COPY, one statement per call instead of one insert per book
+public interface BookImportRepository {
+    // returns the ids given to the copied books in the order of books, the books must already reference existing
+    // categories
+    List<Long> copyBooks(List<BookRequest> books, LocalDateTime timestamp);
+}
@@ -0,0 +1,75 @@
+package com.georgeradu.bookstore.repository;
+
+import com.georgeradu.bookstore.dto.BookRequest;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookImportRepositoryImpl implements BookImportRepository {
+    // the ids are taken from the sequence of the id column before the COPY, so the caller knows which rows it loaded
+    private static final String NEXT_BOOK_IDS =
+            "SELECT nextval(pg_get_serial_sequence('book', 'id')) FROM generate_series(1, ?)";
+    private static final String COPY_BOOKS =
+            "COPY book (id, title, author, description, price, image_url, quantity, language, publisher, " +
+            "publication_date, isbn10, isbn13, dimensions, category_id, created_at, updated_at) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookImportRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Long> copyBooks(List<BookRequest> books, LocalDateTime timestamp) {
+        var ids = jdbcTemplate.queryForList(NEXT_BOOK_IDS, Long.class, books.size());
+        var rows = new StringBuilder(books.size() * 256);
+        for (int i = 0; i < books.size(); i++) {
+            var book = books.get(i);
+            rows.append(ids.get(i)).append(',');
+            appendText(rows, book.getTitle()).append(',');
+            appendText(rows, book.getAuthor()).append(',');
+            appendText(rows, book.getDescription()).append(',');
+            rows.append(book.getPrice().toPlainString()).append(',');
+            appendText(rows, book.getImageUrl()).append(',');
+            rows.append(book.getQuantity()).append(',');
+            appendText(rows, book.getLanguage()).append(',');
+            appendText(rows, book.getPublisher()).append(',');
+            rows.append(book.getPublicationDate().toLocalDate()).append(',');
+            appendText(rows, book.getIsbn10()).append(',');
+            appendText(rows, book.getIsbn13()).append(',');
+            appendText(rows, book.getDimensions()).append(',');
+            rows.append(book.getBookCategoryId()).append(',');
+            rows.append(timestamp).append(',');
+            rows.append(timestamp).append('\n');
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_BOOKS, new StringReader(rows.toString()));
+            } catch (IOException e) {
+                throw new SQLException("Could not copy the books", e);
+            }
+        });
+        return ids;
+    }
+
+    // every text value is quoted, so an empty string is not read as null and commas and line breaks are kept
+    private static StringBuilder appendText(StringBuilder rows, String value) {
+        rows.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c == '"') {
+                rows.append('"');
+            }
+            rows.append(c);
+        }
+        return rows.append('"');
+    }
+}
@@ -0,0 +1,38 @@
+package com.georgeradu.bookstore.repository;
+
+import com.georgeradu.bookstore.model.BookRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface BookRatingRepository extends JpaRepository<BookRating, Long> {
+    // adds the deltas to the aggregate of the book in one atomic statement, creating the row on the first review.
+    // updated_at is stamped by the application clock like the entity writes
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO book_rating AS r (book_id, review_count, rating_sum, rating_1_count, rating_2_count, " +
+                   "rating_3_count, rating_4_count, rating_5_count, updated_at) " +
+                   "VALUES (:bookId, :countDelta, :sumDelta, :delta1, :delta2, :delta3, :delta4, :delta5, " +
+                   ":updatedAt) " +
+                   "ON CONFLICT (book_id) DO UPDATE SET " +
+                   "review_count = r.review_count + EXCLUDED.review_count, " +
+                   "rating_sum = r.rating_sum + EXCLUDED.rating_sum, " +
+                   "rating_1_count = r.rating_1_count + EXCLUDED.rating_1_count, " +
+                   "rating_2_count = r.rating_2_count + EXCLUDED.rating_2_count, " +
+                   "rating_3_count = r.rating_3_count + EXCLUDED.rating_3_count, " +
+                   "rating_4_count = r.rating_4_count + EXCLUDED.rating_4_count, " +
+                   "rating_5_count = r.rating_5_count + EXCLUDED.rating_5_count, " +
+                   "updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    void applyDelta(
+            @Param("bookId") Long bookId, @Param("countDelta") long countDelta, @Param("sumDelta") long sumDelta,
+            @Param("delta1") long delta1, @Param("delta2") long delta2, @Param("delta3") long delta3,
+            @Param("delta4") long delta4, @Param("delta5") long delta5, @Param("updatedAt") LocalDateTime updatedAt
+    );
+}
@@ -1,17 +1,53 @@
 package com.georgeradu.bookstore.repository;
 
+import com.georgeradu.bookstore.dto.BookCategoryCount;
+import com.georgeradu.bookstore.dto.BookSearchText;
 import com.georgeradu.bookstore.model.Book;
 import com.georgeradu.bookstore.model.BookCategory;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
-    Page<Book> findAllByCategory(BookCategory bookCategory, PageRequest pageRequest);
+public interface BookRepository extends JpaRepository<Book, Long>, BookStockRepository, BookExportRepository,
+        BookImportRepository {
+    // the product page caches the book with its whole category, joined in the same query. The other reads only
+    // serialize the category id, which the lazy proxy holds without a query
+    @EntityGraph(Book.WITH_CATEGORY)
+    Optional<Book> findWithCategoryById(Long id);
+
+    // a slice reads one more book than the page size to know if there is a next one, there is no count query
+    Slice<Book> findSliceByCategory(BookCategory bookCategory, Pageable pageable);
+
+    // keyset page, starts at the given id in the (category_id, id) index instead of skipping the previous rows
+    Slice<Book> findSliceByCategoryAndIdGreaterThan(BookCategory bookCategory, Long afterId, Pageable pageable);
+
+    long countByCategoryId(Long categoryId);
+
+    // read by the reconcile of BookCategoryCounts, the categories without books are missing
+    @Query("SELECT new com.georgeradu.bookstore.dto.BookCategoryCount(b.category.id, COUNT(b)) FROM Book b " +
+           "GROUP BY b.category.id")
+    List<BookCategoryCount> countBooksByCategory();
+
+    // read by the rebuild of BookSearchIndex, only the indexed columns and no managed entities
+    @Query("SELECT new com.georgeradu.bookstore.dto.BookSearchText(b.id, b.title, b.author, b.description) " +
+           "FROM Book b")
+    List<BookSearchText> findAllSearchTexts();
 
     List<Book> findAllByTitleIsInOrAuthorIsIn(List<String> orElse, List<String> orElse1);
+
+    // uses the generated search_vector column and its GIN index, see V2__book_search_vector.sql
+    @Query(value = "SELECT b.* FROM book b, websearch_to_tsquery('english', :query) q " +
+                   "WHERE b.search_vector @@ q ORDER BY ts_rank(b.search_vector, q) DESC, b.id",
+            countQuery = "SELECT count(*) FROM book b WHERE b.search_vector @@ websearch_to_tsquery('english', :query)",
+            nativeQuery = true)
+    Page<Book> searchRanked(@Param("query") String query, Pageable pageable);
 }
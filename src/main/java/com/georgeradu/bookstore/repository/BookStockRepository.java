@@ -0,0 +1,14 @@
+package com.georgeradu.bookstore.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.SortedMap;
+
+// stock updates sent as one jdbc batch, the lines are applied in ascending book id order so concurrent checkouts lock
+// the book rows in the same order and cannot deadlock
+public interface BookStockRepository {
+    // decrements the stock of every book that has enough left, returns the ids of the books that did not
+    List<Long> reserveStock(SortedMap<Long, Integer> quantitiesByBookId, LocalDateTime updatedAt);
+
+    void releaseStock(SortedMap<Long, Integer> quantitiesByBookId, LocalDateTime updatedAt);
+}
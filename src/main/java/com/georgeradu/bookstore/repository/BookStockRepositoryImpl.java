@@ -0,0 +1,49 @@
+package com.georgeradu.bookstore.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+
+public class BookStockRepositoryImpl implements BookStockRepository {
+    // the row is updated only if there is enough stock, so no read-modify-write race between checkouts. The
+    // quantity is part of the book response, updated_at moves with it for the conditional GETs and is stamped by the
+    // application clock like the entity writes
+    private static final String RESERVE_STOCK =
+            "UPDATE book SET quantity = quantity - ?, updated_at = ? WHERE id = ? AND quantity >= ?";
+    private static final String RELEASE_STOCK =
+            "UPDATE book SET quantity = quantity + ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookStockRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Long> reserveStock(SortedMap<Long, Integer> quantitiesByBookId, LocalDateTime updatedAt) {
+        var lines = new ArrayList<>(quantitiesByBookId.entrySet());
+        var batchArgs = new ArrayList<Object[]>(lines.size());
+        for (var line : lines) {
+            batchArgs.add(new Object[]{line.getValue(), updatedAt, line.getKey(), line.getValue()});
+        }
+        var updateCounts = jdbcTemplate.batchUpdate(RESERVE_STOCK, batchArgs);
+
+        var outOfStockBookIds = new ArrayList<Long>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                outOfStockBookIds.add(lines.get(i).getKey());
+            }
+        }
+        return outOfStockBookIds;
+    }
+
+    public void releaseStock(SortedMap<Long, Integer> quantitiesByBookId, LocalDateTime updatedAt) {
+        var batchArgs = new ArrayList<Object[]>(quantitiesByBookId.size());
+        for (var line : quantitiesByBookId.entrySet()) {
+            batchArgs.add(new Object[]{line.getValue(), updatedAt, line.getKey()});
+        }
+        jdbcTemplate.batchUpdate(RELEASE_STOCK, batchArgs);
+    }
+}
@@ -1,12 +1,34 @@
 package com.georgeradu.bookstore.repository;
 
+import com.georgeradu.bookstore.dto.OrderInfoResponse;
 import com.georgeradu.bookstore.model.OrderInfo;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderInfoRepository extends JpaRepository<OrderInfo, Long> {
-    List<OrderInfo> findAllByUserId(Long id);
+    // the read endpoints only need the columns of order_info, projecting them directly skips loading the user
+    @Query("SELECT new com.georgeradu.bookstore.dto.OrderInfoResponse(o.id, o.user.id, o.totalPrice, " +
+           "o.shippingAddress, o.status, o.deliveredAt, o.createdAt, o.updatedAt) " +
+           "FROM OrderInfo o WHERE o.user.id = :userId ORDER BY o.id")
+    List<OrderInfoResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.georgeradu.bookstore.dto.OrderInfoResponse(o.id, o.user.id, o.totalPrice, " +
+           "o.shippingAddress, o.status, o.deliveredAt, o.createdAt, o.updatedAt) " +
+           "FROM OrderInfo o WHERE o.id = :id")
+    Optional<OrderInfoResponse> findResponseById(@Param("id") Long id);
+
+    // locks the order row until the end of the transaction, so an order cannot be cancelled twice or cancelled and
+    // delivered in parallel
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(OrderInfo.STATUS_CHANGE)
+    Optional<OrderInfo> findLockedById(Long id);
 }
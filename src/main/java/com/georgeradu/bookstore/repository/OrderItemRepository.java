@@ -1,12 +1,38 @@
 package com.georgeradu.bookstore.repository;
 
+import com.georgeradu.bookstore.dto.OrderItemResponse;
 import com.georgeradu.bookstore.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-    List<OrderItem> findAllByOrderInfoId(Long orderInfoId);
+    // reads the items of an order in one query, loading the entities would also load the book, its category, the
+    // order and its user of every item
+    @Query("SELECT new com.georgeradu.bookstore.dto.OrderItemResponse(i.id, i.orderInfo.id, i.book.id, i.quantity, " +
+           "i.price) FROM OrderItem i WHERE i.orderInfo.id = :orderInfoId ORDER BY i.id")
+    List<OrderItemResponse> findResponsesByOrderInfoId(@Param("orderInfoId") Long orderInfoId);
+
+    // copies the given shopping cart items into the order in one statement, the numeric book prices are copied as
+    // they are
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO order_item (order_id, book_id, quantity, price, created_at, updated_at) " +
+                   "SELECT :orderInfoId, s.book_id, s.quantity, b.price, :timestamp, :timestamp " +
+                   "FROM shopping_cart_item s JOIN book b ON b.id = s.book_id WHERE s.id IN (:shoppingCartItemIds) " +
+                   "ORDER BY s.id",
+           nativeQuery = true)
+    int insertFromShoppingCart(
+            @Param("orderInfoId") Long orderInfoId,
+            @Param("shoppingCartItemIds") Collection<Long> shoppingCartItemIds,
+            @Param("timestamp") LocalDateTime timestamp
+    );
 }
@@ -1,17 +1,49 @@
 package com.georgeradu.bookstore.repository;
 
+import com.georgeradu.bookstore.dto.ReviewResponse;
 import com.georgeradu.bookstore.model.Review;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
-    List<Review> findAllByBookId(Long bookId);
+    // keyset pages sorted by (created_at, id) descending, served by the (book_id, created_at, id) and
+    // (user_id, created_at, id) indexes. Only the page size of the pageable is used, the position is the cursor
+    String REVIEW_PROJECTION = "SELECT new com.georgeradu.bookstore.dto.ReviewResponse(" +
+                               "r.id, r.user.id, r.book.id, r.rating, r.comment, r.createdAt) FROM Review r ";
+    String AFTER_CURSOR = "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) ";
+    String NEWEST_FIRST = "ORDER BY r.createdAt DESC, r.id DESC";
 
-    List<Review> findAllByUserId(Long userId);
+    @Query(REVIEW_PROJECTION + "WHERE r.book.id = :bookId " + NEWEST_FIRST)
+    List<ReviewResponse> findFirstPageByBookId(@Param("bookId") Long bookId, Pageable pageable);
 
+    @Query(REVIEW_PROJECTION + "WHERE r.book.id = :bookId " + AFTER_CURSOR + NEWEST_FIRST)
+    List<ReviewResponse> findPageByBookIdAfter(
+            @Param("bookId") Long bookId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Query(REVIEW_PROJECTION + "WHERE r.user.id = :userId " + NEWEST_FIRST)
+    List<ReviewResponse> findFirstPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(REVIEW_PROJECTION + "WHERE r.user.id = :userId " + AFTER_CURSOR + NEWEST_FIRST)
+    List<ReviewResponse> findPageByUserIdAfter(
+            @Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Override
+    @EntityGraph(Review.SINGLE)
+    Optional<Review> findById(Long id);
+
+    @EntityGraph(Review.SINGLE)
     Optional<Review> findByBookIdAndUserId(Long bookId, Long userId);
 }
@@ -1,17 +1,35 @@
 package com.georgeradu.bookstore.repository;
 
 import com.georgeradu.bookstore.model.ShoppingCartItem;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ShoppingCartItemRepository extends JpaRepository<ShoppingCartItem, Long> {
+    @EntityGraph(ShoppingCartItem.CART)
     List<ShoppingCartItem> findAllByUserId(Long userId);
 
-    void deleteAllByUserId(Long id);
+    // locks the items of the user until the end of the transaction, checkout orders exactly these items even if the
+    // user adds to the cart in parallel. The books are not loaded, only their ids are read
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(ShoppingCartItem.CART)
+    @Query("SELECT s FROM ShoppingCartItem s WHERE s.user.id = :userId ORDER BY s.id")
+    List<ShoppingCartItem> findLockedByUserId(@Param("userId") Long userId);
+
+    // summed by postgres in numeric arithmetic
+    @Query(value = "SELECT COALESCE(SUM(b.price * s.quantity), 0) FROM shopping_cart_item s " +
+                   "JOIN book b ON b.id = s.book_id WHERE s.id IN (:ids)", nativeQuery = true)
+    BigDecimal getTotalPriceByIds(@Param("ids") Collection<Long> ids);
 
     Optional<ShoppingCartItem> findByUserIdAndBookId(Long id, Long id1);
 }
@@ -4,8 +4,10 @@ import com.georgeradu.bookstore.dto.JwtAuthenticationResponse;
 import com.georgeradu.bookstore.dto.LoginRequest;
 import com.georgeradu.bookstore.dto.RegisterRequest;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthenticationService {
-    JwtAuthenticationResponse register(RegisterRequest request);
+    CompletableFuture<JwtAuthenticationResponse> register(RegisterRequest request);
 
-    JwtAuthenticationResponse login(LoginRequest request);
+    CompletableFuture<JwtAuthenticationResponse> login(LoginRequest request, String clientIp);
 }
@@ -4,58 +4,72 @@ import com.georgeradu.bookstore.dto.JwtAuthenticationResponse;
 import com.georgeradu.bookstore.dto.LoginRequest;
 import com.georgeradu.bookstore.dto.RegisterRequest;
 import com.georgeradu.bookstore.exception.InvalidLoginException;
-import com.georgeradu.bookstore.exception.UserAlreadyExistsException;
+import com.georgeradu.bookstore.exception.TooManyRequestsException;
 import com.georgeradu.bookstore.model.User;
 import com.georgeradu.bookstore.model.UserRole;
 import com.georgeradu.bookstore.repository.UserRepository;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class AuthenticationServiceImpl implements AuthenticationService {
     private final UserRepository userRepository;
     private final UserService userService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginRateLimiter loginRateLimiter;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
+    // checked against the password of a login with an unknown email, the response time does not tell whether the
+    // account exists
+    private final String unknownUserPassword;
 
     public AuthenticationServiceImpl(
-            UserRepository userRepository, UserService userService, PasswordEncoder passwordEncoder,
-            JwtService jwtService, AuthenticationManager authenticationManager
+            UserRepository userRepository, UserService userService, PasswordHashingService passwordHashingService,
+            LoginRateLimiter loginRateLimiter, JwtService jwtService, PasswordEncoder passwordEncoder
     ) {
         this.userRepository = userRepository;
         this.userService = userService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.loginRateLimiter = loginRateLimiter;
         this.jwtService = jwtService;
-        this.authenticationManager = authenticationManager;
+        this.unknownUserPassword = passwordEncoder.encode(UUID.randomUUID().toString());
     }
 
-    public JwtAuthenticationResponse register(RegisterRequest request) throws UserAlreadyExistsException {
-        var user = User
-                .builder()
-                .firstName(request.getFirstName())
-                .lastName(request.getLastName())
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .role(UserRole.ROLE_USER)
-                .build();
+    // the hash runs on the password hashing pool, the returned future completes with the token or fails with
+    // UserAlreadyExistsException
+    public CompletableFuture<JwtAuthenticationResponse> register(RegisterRequest request) throws
+            TooManyRequestsException {
+        return passwordHashingService.encode(request.getPassword()).thenApply(encodedPassword -> {
+            var user = User
+                    .builder()
+                    .firstName(request.getFirstName())
+                    .lastName(request.getLastName())
+                    .email(request.getEmail())
+                    .password(encodedPassword)
+                    .role(UserRole.ROLE_USER)
+                    .build();
 
-        user = userService.addUser(user);
-        var jwt = jwtService.generateToken(user);
-        return JwtAuthenticationResponse.builder().token(jwt).build();
+            user = userService.addUser(user);
+            var jwt = jwtService.generateToken(user);
+            return JwtAuthenticationResponse.builder().token(jwt).build();
+        });
     }
 
-
-    public JwtAuthenticationResponse login(LoginRequest request) throws InvalidLoginException {
-        var user = userRepository
-                .findByEmail(request.getEmail())
-                .orElseThrow(InvalidLoginException::new);
-
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
-        var jwt = jwtService.generateToken(user);
-        return JwtAuthenticationResponse.builder().token(jwt).build();
+    // the user is read once and its password checked here. The hash runs on the password hashing pool, the returned
+    // future completes with the token or fails with InvalidLoginException
+    public CompletableFuture<JwtAuthenticationResponse> login(LoginRequest request, String clientIp) throws
+            TooManyRequestsException {
+        loginRateLimiter.acquire(request.getEmail(), clientIp);
+        var user = userRepository.findByEmail(request.getEmail());
+        var encodedPassword = user.map(User::getPassword).orElse(unknownUserPassword);
+        return passwordHashingService.matches(request.getPassword(), encodedPassword).thenApply(matches -> {
+            if (!matches || user.isEmpty()) {
+                throw new InvalidLoginException();
+            }
+            var jwt = jwtService.generateToken(user.get());
+            return JwtAuthenticationResponse.builder().token(jwt).build();
+        });
     }
 }
@@ -0,0 +1,7 @@
+package com.georgeradu.bookstore.service;
+
+public interface BookCategoryCounts {
+    long getCount(Long categoryId);
+    void add(Long categoryId, long delta);
+    void reconcile();
+}
@@ -0,0 +1,125 @@
+package com.georgeradu.bookstore.service;
+
+import com.georgeradu.bookstore.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// number of books in every category, so the total of a category page is read from memory instead of counting the
+// category. The book writes add and remove their books once committed. The counts are reconciled with the database
+// every reconcile-ms, which corrects the books changed outside the application
+@Service
+public class BookCategoryCountsImpl implements BookCategoryCounts {
+    private static final Logger log = LoggerFactory.getLogger(BookCategoryCountsImpl.class);
+
+    private final BookRepository bookRepository;
+    private final Map<Long, CategoryCount> counts = new ConcurrentHashMap<>();
+
+    public BookCategoryCountsImpl(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        try {
+            reconcile();
+        } catch (DataAccessException | TransactionException e) {
+            // every category is counted on its first read instead
+            log.warn("Could not load the book counts of the categories on startup: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.catalog.category-counts.reconcile-ms:300000}",
+            fixedDelayString = "${app.catalog.category-counts.reconcile-ms:300000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Could not reconcile the book counts of the categories: {}", e.getMessage());
+        }
+    }
+
+    public long getCount(Long categoryId) {
+        var count = counts.computeIfAbsent(categoryId, id -> new CategoryCount());
+        if (count.isLoaded()) {
+            return count.get();
+        }
+        // counted outside of the map so a slow count does not block the other categories
+        var addedAtStart = count.getAdded();
+        count.set(bookRepository.countByCategoryId(categoryId), addedAtStart);
+        return count.get();
+    }
+
+    // a category that is not loaded yet is still tracked, so a count running at the same time keeps the change
+    public void add(Long categoryId, long delta) {
+        counts.computeIfAbsent(categoryId, id -> new CategoryCount()).add(delta);
+    }
+
+    public void reconcile() {
+        // the categories added to the map after this point take every change they saw since they were created
+        var addedAtStart = new HashMap<Long, Long>();
+        counts.forEach((id, count) -> addedAtStart.put(id, count.getAdded()));
+        var current = new HashMap<Long, Long>();
+        for (var categoryCount : bookRepository.countBooksByCategory()) {
+            current.put(categoryCount.getCategoryId(), categoryCount.getCount());
+            counts.computeIfAbsent(categoryCount.getCategoryId(), id -> new CategoryCount());
+        }
+
+        int corrected = 0;
+        // the categories without books are not in the query result, their count is 0
+        for (var entry : counts.entrySet()) {
+            var count = current.getOrDefault(entry.getKey(), 0L);
+            if (entry.getValue().set(count, addedAtStart.getOrDefault(entry.getKey(), 0L))) {
+                corrected++;
+            }
+        }
+        if (corrected > 0) {
+            log.info("Corrected the book counts of {} categories", corrected);
+        }
+    }
+
+    // the book count of one category. added sums every change ever applied to it, a count query reads it before it
+    // runs and adds the changes made while it ran to its result, so a write committed after the query read the table
+    // is not overwritten. A write whose change is applied after a query started that already sees it is counted
+    // twice until the next reconcile, which only takes the time between its commit and its after commit callback
+    private static final class CategoryCount {
+        private long count;
+        private long added;
+        private boolean loaded;
+
+        synchronized boolean isLoaded() {
+            return loaded;
+        }
+
+        synchronized long get() {
+            return count;
+        }
+
+        synchronized long getAdded() {
+            return added;
+        }
+
+        synchronized void add(long delta) {
+            added += delta;
+            count += delta;
+        }
+
+        // returns if a loaded count was corrected
+        synchronized boolean set(long counted, long addedAtStart) {
+            var corrected = counted + added - addedAtStart;
+            var changed = loaded && corrected != count;
+            count = corrected;
+            loaded = true;
+            return changed;
+        }
+    }
+}
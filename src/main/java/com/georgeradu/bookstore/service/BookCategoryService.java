@@ -1,13 +1,12 @@
 package com.georgeradu.bookstore.service;
 
+import com.georgeradu.bookstore.dto.BookCategoriesSnapshot;
 import com.georgeradu.bookstore.dto.BookCategoryRequest;
 import com.georgeradu.bookstore.model.BookCategory;
 
-import java.util.List;
-
 public interface BookCategoryService {
     BookCategory getBookCategory(Long id);
-    List<BookCategory> getBookCategories();
+    BookCategoriesSnapshot getBookCategories();
     BookCategory createBookCategory(BookCategoryRequest request);
     BookCategory updateBookCategory(Long id, BookCategoryRequest request);
     void deleteBookCategory(Long id);
@@ -1,24 +1,42 @@
 package com.georgeradu.bookstore.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.georgeradu.bookstore.config.CacheConfig;
+import com.georgeradu.bookstore.dto.BookCategoriesSnapshot;
 import com.georgeradu.bookstore.dto.BookCategoryRequest;
+import com.georgeradu.bookstore.dto.BookCategoryResponse;
 import com.georgeradu.bookstore.exception.DuplicateObjectException;
 import com.georgeradu.bookstore.exception.EntityNotFoundException;
 import com.georgeradu.bookstore.model.BookCategory;
 import com.georgeradu.bookstore.repository.BookCategoryRepository;
+import com.georgeradu.bookstore.utils.ConditionalRequests;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.Clock;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
 public class BookCategoryServiceImpl implements BookCategoryService {
     private final Clock clock;
     private final BookCategoryRepository bookCategoryRepository;
+    private final ObjectMapper objectMapper;
+    // the cached book snapshots copy their category, see BookServiceImpl.getBook
+    private final Cache books;
+    // replaced as a whole after every category write, readers never see a partially built list
+    private volatile BookCategoriesSnapshot snapshot;
 
-    public BookCategoryServiceImpl(Clock clock, BookCategoryRepository bookCategoryRepository) {
+    public BookCategoryServiceImpl(
+            Clock clock, BookCategoryRepository bookCategoryRepository, ObjectMapper objectMapper,
+            CacheManager cacheManager
+    ) {
         this.clock = clock;
         this.bookCategoryRepository = bookCategoryRepository;
+        this.objectMapper = objectMapper;
+        this.books = cacheManager.getCache(CacheConfig.BOOKS);
     }
 
     public BookCategory getBookCategory(Long id) throws EntityNotFoundException {
@@ -27,8 +45,12 @@ public class BookCategoryServiceImpl implements BookCategoryService {
                 .orElseThrow(() -> new EntityNotFoundException("Book category with id " + id));
     }
 
-    public List<BookCategory> getBookCategories() {
-        return bookCategoryRepository.findAll();
+    public BookCategoriesSnapshot getBookCategories() {
+        var current = snapshot;
+        if (current == null) {
+            current = refreshSnapshot();
+        }
+        return current;
     }
 
     public BookCategory createBookCategory(BookCategoryRequest request) throws DuplicateObjectException {
@@ -44,7 +66,9 @@ public class BookCategoryServiceImpl implements BookCategoryService {
         bookCategory.setCreatedAt(timestamp);
         bookCategory.setUpdatedAt(timestamp);
 
-        return bookCategoryRepository.save(bookCategory);
+        bookCategory = bookCategoryRepository.save(bookCategory);
+        refreshSnapshot();
+        return bookCategory;
     }
 
     public BookCategory updateBookCategory(Long id, BookCategoryRequest request) throws EntityNotFoundException,
@@ -58,11 +82,33 @@ public class BookCategoryServiceImpl implements BookCategoryService {
         bookCategory.setDescription(request.getDescription());
         bookCategory.setUpdatedAt(LocalDateTime.now(clock));
 
-        return bookCategoryRepository.save(bookCategory);
+        bookCategory = bookCategoryRepository.save(bookCategory);
+        refreshSnapshot();
+        // category writes are rare, drop every cached book instead of looking up the books of the category
+        books.clear();
+        return bookCategory;
     }
 
     public void deleteBookCategory(Long id) throws EntityNotFoundException {
         var bookCategory = getBookCategory(id);
         bookCategoryRepository.delete(bookCategory);
+        refreshSnapshot();
+        books.clear();
+    }
+
+    // synchronized so a rebuild that read the categories before a write cannot replace the snapshot of that write
+    private synchronized BookCategoriesSnapshot refreshSnapshot() {
+        var categories = bookCategoryRepository
+                .findAll(Sort.by(Sort.Direction.ASC, "id"))
+                .stream()
+                .map(BookCategoryResponse::new)
+                .toList();
+        try {
+            var json = objectMapper.writeValueAsBytes(categories);
+            snapshot = new BookCategoriesSnapshot(categories, json, ConditionalRequests.etag(json));
+            return snapshot;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not build the book categories snapshot", e);
+        }
     }
 }
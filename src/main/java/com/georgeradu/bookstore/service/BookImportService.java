@@ -0,0 +1,13 @@
+package com.georgeradu.bookstore.service;
+
+import com.georgeradu.bookstore.dto.BookImportFormat;
+import com.georgeradu.bookstore.dto.BookImportProgress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface BookImportService {
+    BookImportProgress importBooks(InputStream inputStream, BookImportFormat format, OutputStream outputStream)
+            throws IOException;
+}
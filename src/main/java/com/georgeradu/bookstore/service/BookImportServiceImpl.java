@@ -0,0 +1,257 @@
+package com.georgeradu.bookstore.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.georgeradu.bookstore.dto.BookCategoryResponse;
+import com.georgeradu.bookstore.dto.BookImportError;
+import com.georgeradu.bookstore.dto.BookImportFormat;
+import com.georgeradu.bookstore.dto.BookImportProgress;
+import com.georgeradu.bookstore.dto.BookRequest;
+import com.georgeradu.bookstore.exception.InvalidRequestException;
+import com.georgeradu.bookstore.repository.BookRepository;
+import com.georgeradu.bookstore.utils.CsvReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// loads a streamed csv or ndjson body of books in chunks. Every row is validated like a BookRequest of createBook,
+// the valid rows of a chunk are loaded with one COPY and a progress line with the rejected rows is written after
+// every chunk. The chunks are committed one by one, an import that fails keeps the chunks already reported
+@Service
+public class BookImportServiceImpl implements BookImportService {
+    private static final Logger log = LoggerFactory.getLogger(BookImportServiceImpl.class);
+    private static final List<String> CSV_COLUMNS = List.of("title", "author", "description", "price", "imageUrl",
+            "quantity", "language", "publisher", "publicationDate", "isbn10", "isbn13", "dimensions",
+            "bookCategoryId");
+
+    private final Clock clock;
+    private final BookRepository bookRepository;
+    private final BookCategoryService bookCategoryService;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookCategoryCounts bookCategoryCounts;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final ObjectWriter progressWriter;
+
+    // rows read between two COPY statements and two progress lines
+    @Value("${app.import.chunk-size:5000}")
+    int chunkSize;
+
+    public BookImportServiceImpl(
+            Clock clock, BookRepository bookRepository, BookCategoryService bookCategoryService,
+            BookSearchIndex bookSearchIndex, BookCategoryCounts bookCategoryCounts, Validator validator,
+            ObjectMapper objectMapper
+    ) {
+        this.clock = clock;
+        this.bookRepository = bookRepository;
+        this.bookCategoryService = bookCategoryService;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookCategoryCounts = bookCategoryCounts;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(BookRequest.class);
+        this.progressWriter = objectMapper.writerFor(BookImportProgress.class);
+    }
+
+    public BookImportProgress importBooks(InputStream inputStream, BookImportFormat format, OutputStream outputStream)
+            throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        Rows rows;
+        if (format == BookImportFormat.CSV) {
+            var csvReader = new CsvReader(reader);
+            rows = new CsvRows(csvReader, readHeader(csvReader));
+        } else {
+            rows = new NdjsonRows(reader);
+        }
+        // resolved once for the whole import instead of a category query per book
+        var categoryIds = bookCategoryService.getBookCategories().getCategories().stream()
+                .map(BookCategoryResponse::getId)
+                .collect(Collectors.toSet());
+
+        var chunk = new ArrayList<BookRequest>(chunkSize);
+        var errors = new ArrayList<BookImportError>();
+        long rowsRead = 0;
+        long rowsImported = 0;
+        long rowsRejected = 0;
+        try (var generator = progressWriter.createGenerator(outputStream)) {
+            // one progress document per line
+            generator.setRootValueSeparator(null);
+            while (true) {
+                BookRequest request = null;
+                String rejection = null;
+                try {
+                    request = rows.next();
+                    if (request == null) {
+                        break;
+                    }
+                    validate(request, categoryIds);
+                } catch (InvalidRequestException e) {
+                    rejection = e.getMessage();
+                }
+                rowsRead++;
+                if (rejection == null) {
+                    chunk.add(request);
+                } else {
+                    rowsRejected++;
+                    errors.add(new BookImportError(rowsRead, rejection));
+                }
+
+                if (chunk.size() + errors.size() >= chunkSize) {
+                    rowsImported += copyChunk(chunk);
+                    progressWriter.writeValue(generator,
+                            new BookImportProgress(rowsRead, rowsImported, rowsRejected, errors, false));
+                    generator.writeRaw('\n');
+                    generator.flush();
+                    chunk = new ArrayList<>(chunkSize);
+                    errors = new ArrayList<>();
+                }
+            }
+
+            rowsImported += copyChunk(chunk);
+            var progress = new BookImportProgress(rowsRead, rowsImported, rowsRejected, errors, true);
+            progressWriter.writeValue(generator, progress);
+            generator.writeRaw('\n');
+            log.info("Imported {} of {} books, {} rejected", rowsImported, rowsRead, rowsRejected);
+            return progress;
+        }
+    }
+
+    private long copyChunk(List<BookRequest> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        var bookIds = bookRepository.copyBooks(chunk, LocalDateTime.now(clock));
+        // the COPY of the chunk is already committed, only the copied books are added to the search index
+        for (int i = 0; i < chunk.size(); i++) {
+            var book = chunk.get(i);
+            bookSearchIndex.indexBook(bookIds.get(i), book.getTitle(), book.getAuthor(), book.getDescription());
+        }
+        chunk.stream()
+                .collect(Collectors.groupingBy(BookRequest::getBookCategoryId, Collectors.counting()))
+                .forEach(bookCategoryCounts::add);
+        return bookIds.size();
+    }
+
+    // the constraints of BookRequest, plus the columns that are required by the book table
+    private void validate(BookRequest request, Set<Long> categoryIds) throws InvalidRequestException {
+        var violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new InvalidRequestException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        if (request.getPublicationDate() == null) {
+            throw new InvalidRequestException("Publication date is mandatory");
+        }
+        if (!categoryIds.contains(request.getBookCategoryId())) {
+            throw new InvalidRequestException("Book category with id " + request.getBookCategoryId() + " not found");
+        }
+    }
+
+    // a missing column would reject every row, so the whole import is rejected before anything is loaded
+    private static List<String> readHeader(CsvReader reader) throws IOException, InvalidRequestException {
+        var columns = reader.readRecord();
+        if (columns == null) {
+            return null;
+        }
+        columns.replaceAll(String::trim);
+        var missing = CSV_COLUMNS.stream().filter(column -> !columns.contains(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new InvalidRequestException("Missing csv columns " + missing);
+        }
+        return columns;
+    }
+
+    private interface Rows {
+        // the next book of the body or null at the end, a row that cannot be read is still consumed
+        BookRequest next() throws IOException, InvalidRequestException;
+    }
+
+    private final class NdjsonRows implements Rows {
+        private final BufferedReader reader;
+
+        NdjsonRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        public BookRequest next() throws IOException, InvalidRequestException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            BookRequest request;
+            try {
+                request = requestReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                throw new InvalidRequestException(e.getOriginalMessage());
+            }
+            if (request == null) {
+                throw new InvalidRequestException("Row is not a book");
+            }
+            return request;
+        }
+    }
+
+    private final class CsvRows implements Rows {
+        private final CsvReader reader;
+        private final List<String> header;
+
+        CsvRows(CsvReader reader, List<String> header) {
+            this.reader = reader;
+            this.header = header;
+        }
+
+        public BookRequest next() throws IOException, InvalidRequestException {
+            if (header == null) {
+                return null;
+            }
+            List<String> record;
+            do {
+                record = reader.readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isBlank());
+            if (record.size() != header.size()) {
+                throw new InvalidRequestException("Row has " + record.size() + " fields, expected " + header.size());
+            }
+
+            var fields = new LinkedHashMap<String, String>();
+            for (int i = 0; i < header.size(); i++) {
+                var value = record.get(i);
+                // an empty field is a missing value, so it fails the same constraints as a missing json property
+                fields.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            try {
+                return objectMapper.convertValue(fields, BookRequest.class);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRequestException(e.getCause() instanceof JsonProcessingException cause
+                        ? cause.getOriginalMessage() : e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.georgeradu.bookstore.service;
+
+import com.georgeradu.bookstore.model.BookRating;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface BookRatingService {
+    BookRating getBookRating(Long bookId);
+    Map<Long, BookRating> getBookRatings(Collection<Long> bookIds);
+    void addRating(Long bookId, int rating);
+    void replaceRating(Long bookId, int oldRating, int newRating);
+    void removeRating(Long bookId, int rating);
+}
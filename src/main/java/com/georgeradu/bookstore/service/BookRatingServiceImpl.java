@@ -0,0 +1,102 @@
+package com.georgeradu.bookstore.service;
+
+import com.georgeradu.bookstore.config.CacheConfig;
+import com.georgeradu.bookstore.model.BookRating;
+import com.georgeradu.bookstore.repository.BookRatingRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// the aggregates are cached in memory, a catalog page reads the ratings of all its books with at most one query
+@Service
+public class BookRatingServiceImpl implements BookRatingService {
+    private final Clock clock;
+    private final BookRatingRepository bookRatingRepository;
+    // the native cache, the spring cache api cannot load the missing entries of a page in one call
+    private final Cache<Object, Object> bookRatings;
+
+    public BookRatingServiceImpl(Clock clock, BookRatingRepository bookRatingRepository, CacheManager cacheManager) {
+        this.clock = clock;
+        this.bookRatingRepository = bookRatingRepository;
+        this.bookRatings = ((CaffeineCache) cacheManager.getCache(CacheConfig.BOOK_RATINGS)).getNativeCache();
+    }
+
+    public BookRating getBookRating(Long bookId) {
+        return (BookRating) bookRatings.get(bookId, key -> loadBookRating((Long) key));
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<Long, BookRating> getBookRatings(Collection<Long> bookIds) {
+        return (Map<Long, BookRating>) (Map<?, ?>) bookRatings.getAll(bookIds,
+                keys -> loadBookRatings((Set<Long>) keys));
+    }
+
+    public void addRating(Long bookId, int rating) {
+        var histogramDelta = new long[5];
+        histogramDelta[rating - 1]++;
+        applyDelta(bookId, 1, rating, histogramDelta);
+    }
+
+    public void replaceRating(Long bookId, int oldRating, int newRating) {
+        if (oldRating == newRating) {
+            return;
+        }
+        var histogramDelta = new long[5];
+        histogramDelta[oldRating - 1]--;
+        histogramDelta[newRating - 1]++;
+        applyDelta(bookId, 0, newRating - oldRating, histogramDelta);
+    }
+
+    public void removeRating(Long bookId, int rating) {
+        var histogramDelta = new long[5];
+        histogramDelta[rating - 1]--;
+        applyDelta(bookId, -1, -rating, histogramDelta);
+    }
+
+    private void applyDelta(Long bookId, long countDelta, long sumDelta, long[] histogramDelta) {
+        bookRatingRepository.applyDelta(bookId, countDelta, sumDelta, histogramDelta[0], histogramDelta[1],
+                histogramDelta[2], histogramDelta[3], histogramDelta[4], LocalDateTime.now(clock));
+        evictAfterCommit(bookId);
+    }
+
+    // evicting before the commit would let a parallel read cache the old aggregate again
+    private void evictAfterCommit(Long bookId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bookRatings.invalidate(bookId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                bookRatings.invalidate(bookId);
+            }
+        });
+    }
+
+    // books without reviews have no row, they are cached as an empty aggregate
+    private BookRating loadBookRating(Long bookId) {
+        return bookRatingRepository.findById(bookId).orElseGet(() -> new BookRating(bookId));
+    }
+
+    private Map<Long, BookRating> loadBookRatings(Set<Long> bookIds) {
+        var loaded = new HashMap<Long, BookRating>();
+        for (var bookRating : bookRatingRepository.findAllById(List.copyOf(bookIds))) {
+            loaded.put(bookRating.getBookId(), bookRating);
+        }
+        for (var bookId : bookIds) {
+            loaded.putIfAbsent(bookId, new BookRating(bookId));
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,11 @@
+package com.georgeradu.bookstore.service;
+
+import com.georgeradu.bookstore.model.Book;
+
+public interface BookSearchIndex {
+    void rebuild();
+    void indexBook(Book book);
+    void indexBook(Long bookId, String title, String author, String description);
+    void removeBook(Long bookId);
+    long[] search(String query, int limit);
+}
@@ -0,0 +1,296 @@
+package com.georgeradu.bookstore.service;
+
+import com.georgeradu.bookstore.dto.BookSearchText;
+import com.georgeradu.bookstore.model.Book;
+import com.georgeradu.bookstore.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// in-memory inverted index over the title, author and description of every book. Each term maps to a sorted array
+// of book ids, so a query only touches the posting lists of its own terms instead of generating word combinations
+@Service
+public class BookSearchIndexImpl implements BookSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(BookSearchIndexImpl.class);
+    private static final long[] NO_RESULTS = new long[0];
+    // the number of missed terms is packed in the upper 16 bits of a long when ranking, see search
+    private static final int MAX_QUERY_TERMS = 64;
+    // words too common or too short to tell books apart, matching them would return most of the catalog
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final Set<String> STOPWORDS = Set.of(
+            "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into", "is", "it", "its", "of", "on",
+            "or", "that", "the", "this", "to", "was", "with");
+
+    private final BookRepository bookRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // only one rebuild loads the books at a time, the searches waiting for the first build reuse its result
+    private final Lock rebuildLock = new ReentrantLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    // terms of every indexed book, needed to remove the book from its posting lists on update or delete
+    private final Map<Long, String[]> bookTerms = new HashMap<>();
+    // writes made while a rebuild reads the books, replayed over the loaded books so they are not lost. Null when no
+    // rebuild is running
+    private List<PendingWrite> pendingWrites = null;
+    private volatile boolean built = false;
+
+    public BookSearchIndexImpl(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (DataAccessException | TransactionException e) {
+            // the index is built again on the first search
+            log.warn("Could not build the book search index on startup: {}", e.getMessage());
+        }
+    }
+
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            rebuildLocked();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public void indexBook(Book book) {
+        indexBook(book.getId(), book.getTitle(), book.getAuthor(), book.getDescription());
+    }
+
+    public void indexBook(Long bookId, String title, String author, String description) {
+        var terms = bookTerms(title, author, description);
+        lock.writeLock().lock();
+        try {
+            removeBookTerms(bookId);
+            addBookTerms(bookId, terms);
+            if (pendingWrites != null) {
+                pendingWrites.add(new PendingWrite(bookId, terms));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeBookTerms(bookId);
+            if (pendingWrites != null) {
+                pendingWrites.add(new PendingWrite(bookId, null));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // returns the ids of at most limit books matching at least one term of the query, the books matching more terms
+    // first
+    public long[] search(String query, int limit) {
+        var terms = tokenize(query);
+        if (terms.length == 0 || limit <= 0) {
+            return NO_RESULTS;
+        }
+        if (terms.length > MAX_QUERY_TERMS) {
+            terms = Arrays.copyOf(terms, MAX_QUERY_TERMS);
+        }
+        if (!built) {
+            buildIfMissing();
+        }
+
+        long[] matches;
+        int size = 0;
+        lock.readLock().lock();
+        try {
+            int total = 0;
+            var lists = new PostingList[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                lists[i] = postings.get(terms[i]);
+                if (lists[i] != null) {
+                    total += lists[i].size;
+                }
+            }
+            matches = new long[total];
+            for (var list : lists) {
+                if (list != null) {
+                    System.arraycopy(list.ids, 0, matches, size, list.size);
+                    size += list.size;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (size == 0) {
+            return NO_RESULTS;
+        }
+
+        // every posting list holds a book at most once, so after sorting the run length of an id is the number of
+        // query terms the book matched. Pack (hits, id) into one long to rank without boxing
+        Arrays.sort(matches, 0, size);
+        var ranked = new long[size];
+        int distinct = 0;
+        for (int i = 0; i < size; ) {
+            int j = i;
+            while (j < size && matches[j] == matches[i]) {
+                j++;
+            }
+            ranked[distinct++] = ((long) (terms.length - (j - i)) << 48) | matches[i];
+            i = j;
+        }
+        Arrays.sort(ranked, 0, distinct);
+
+        var result = new long[Math.min(distinct, limit)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ranked[i] & 0xFFFF_FFFF_FFFFL;
+        }
+        return result;
+    }
+
+    // splits the text into lower case words made of letters and digits, without duplicates, stopwords and one
+    // letter words
+    static String[] tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[0];
+        }
+        var terms = new LinkedHashSet<String>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start >= MIN_TERM_LENGTH) {
+                    var term = text.substring(start, i).toLowerCase(Locale.ROOT);
+                    if (!STOPWORDS.contains(term)) {
+                        terms.add(term);
+                    }
+                }
+                start = -1;
+            }
+        }
+        return terms.toArray(new String[0]);
+    }
+
+    private void buildIfMissing() {
+        rebuildLock.lock();
+        try {
+            if (!built) {
+                rebuildLocked();
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildLocked() {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<BookSearchText> books;
+        try {
+            books = bookRepository.findAllSearchTexts();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            bookTerms.clear();
+            for (var book : books) {
+                addBookTerms(book.getId(), bookTerms(book.getTitle(), book.getAuthor(), book.getDescription()));
+            }
+            // the loaded books may predate these writes, apply them again in the order they were made
+            for (var write : pendingWrites) {
+                removeBookTerms(write.bookId());
+                if (write.terms() != null) {
+                    addBookTerms(write.bookId(), write.terms());
+                }
+            }
+            pendingWrites = null;
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Book search index built with {} books and {} terms", books.size(), postings.size());
+    }
+
+    private static String[] bookTerms(String title, String author, String description) {
+        return tokenize(title + " " + author + " " + description);
+    }
+
+    private void addBookTerms(Long bookId, String[] terms) {
+        for (var term : terms) {
+            postings.computeIfAbsent(term, t -> new PostingList()).add(bookId);
+        }
+        bookTerms.put(bookId, terms);
+    }
+
+    private void removeBookTerms(Long bookId) {
+        var terms = bookTerms.remove(bookId);
+        if (terms == null) {
+            return;
+        }
+        for (var term : terms) {
+            var list = postings.get(term);
+            if (list != null && list.remove(bookId) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    // terms null when the book was removed
+    private record PendingWrite(Long bookId, String[] terms) {}
+
+    // sorted, growable array of book ids
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private int size = 0;
+
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -3,15 +3,25 @@ package com.georgeradu.bookstore.service;
 import com.georgeradu.bookstore.dto.BookRequest;
 import com.georgeradu.bookstore.model.Book;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.SortedMap;
 
 public interface BookService {
     Book getBook(Long id);
     Book createBook(BookRequest request);
     Book updateBook(Long id, BookRequest request);
     void deleteBook(Long id);
-    Page<Book> getBooksByCategoryId(Long id, Optional<Integer> page);
+    Page<Book> getBooksByCategoryId(Long id, Optional<Integer> page, Optional<Integer> size);
+    Slice<Book> getBookSliceByCategoryId(
+            Long id, Optional<Integer> page, Optional<Integer> size, Optional<Long> afterId);
     List<Book> searchBooks(Optional<String> searchQueryContainingNameAndAuthorOfTheBook);
+    Page<Book> searchBooksRanked(Optional<String> searchQuery, Optional<Integer> page);
+    void reserveStock(SortedMap<Long, Integer> quantitiesByBookId);
+    void releaseStock(SortedMap<Long, Integer> quantitiesByBookId);
+    void exportBooks(OutputStream outputStream) throws IOException;
 }
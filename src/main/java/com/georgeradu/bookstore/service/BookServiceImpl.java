@@ -1,35 +1,108 @@
 package com.georgeradu.bookstore.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.georgeradu.bookstore.config.CacheConfig;
 import com.georgeradu.bookstore.dto.BookRequest;
+import com.georgeradu.bookstore.dto.BookResponse;
 import com.georgeradu.bookstore.exception.EntityNotFoundException;
+import com.georgeradu.bookstore.exception.IllegalEntityStateException;
+import com.georgeradu.bookstore.exception.InvalidRequestException;
 import com.georgeradu.bookstore.model.Book;
 import com.georgeradu.bookstore.model.BookCategory;
 import com.georgeradu.bookstore.repository.BookRepository;
 import com.georgeradu.bookstore.utils.StringCombinationGenerator;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 @Service
 public class BookServiceImpl implements BookService {
     private final Clock clock;
     private final BookRepository bookRepository;
     private final BookCategoryService bookCategoryService;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookCategoryCounts bookCategoryCounts;
+    private final Cache books;
+    // the output stream is flushed by the servlet container when its buffer is full, not after every exported book
+    private final ObjectWriter exportWriter;
 
-    public BookServiceImpl(Clock clock, BookRepository bookRepository, BookCategoryService bookCategoryService) {
+    // serve /book/search with the old word combinations query instead of the search index, kept to compare latency
+    @Value("${app.search.legacy-combinations:false}")
+    boolean legacyCombinationsSearch;
+
+    // most books returned by /book/search, the best ranked ones are kept
+    @Value("${app.search.max-results:100}")
+    int maxSearchResults;
+
+    @Value("${app.cache.books.enabled:true}")
+    boolean bookCacheEnabled;
+
+    // page size of the category browsing when the client does not choose one, and the largest one it can choose
+    @Value("${app.catalog.page-size.default:20}")
+    int defaultPageSize;
+
+    @Value("${app.catalog.page-size.max:100}")
+    int maxPageSize;
+
+    // rows of the catalog export held by the jdbc driver at a time
+    @Value("${app.export.fetch-size:1000}")
+    int exportFetchSize;
+
+    public BookServiceImpl(
+            Clock clock, BookRepository bookRepository, BookCategoryService bookCategoryService,
+            BookSearchIndex bookSearchIndex, BookCategoryCounts bookCategoryCounts, CacheManager cacheManager,
+            ObjectMapper objectMapper
+    ) {
         this.clock = clock;
         this.bookRepository = bookRepository;
         this.bookCategoryService = bookCategoryService;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookCategoryCounts = bookCategoryCounts;
+        this.books = cacheManager.getCache(CacheConfig.BOOKS);
+        this.exportWriter = objectMapper.writerFor(BookResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
+    // the cache holds immutable snapshots and every call gets its own detached copy, so a caller changing the book
+    // cannot change the cached one
     public Book getBook(Long id) throws EntityNotFoundException {
-        return bookRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Book with id " + id));
+        if (!bookCacheEnabled) {
+            return findBookWithCategory(id);
+        }
+        try {
+            return books.get(id, () -> BookSnapshot.of(findBookWithCategory(id))).toBook();
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof EntityNotFoundException notFound) {
+                throw notFound;
+            }
+            throw e;
+        }
     }
 
     public Book createBook(BookRequest request) throws EntityNotFoundException {
@@ -41,35 +114,191 @@ public class BookServiceImpl implements BookService {
         book.setCreatedAt(timestamp);
         book.setUpdatedAt(timestamp);
 
-        return bookRepository.save(book);
+        book = bookRepository.save(book);
+        bookSearchIndex.indexBook(book);
+        addToCategoryCountAfterCommit(bookCategory.getId(), 1);
+        return book;
     }
 
-
+    // the cached book is evicted once the transaction completes, a getBook before the commit still reads the old row
+    @Transactional
     public Book updateBook(Long id, BookRequest request) {
-        var book = getBook(id);
+        var book = findBook(id);
         var bookCategory = bookCategoryService.getBookCategory(request.getBookCategoryId());
+        var previousCategoryId = book.getCategory().getId();
 
         createNewBook(request, bookCategory, book);
         book.setUpdatedAt(LocalDateTime.now(clock));
 
-        return bookRepository.save(book);
+        book = bookRepository.save(book);
+        evictAfterCommit(List.of(id));
+        bookSearchIndex.indexBook(book);
+        if (!previousCategoryId.equals(bookCategory.getId())) {
+            addToCategoryCountAfterCommit(previousCategoryId, -1);
+            addToCategoryCountAfterCommit(bookCategory.getId(), 1);
+        }
+        return book;
     }
 
+    @Transactional
     public void deleteBook(Long id) {
-        var book = getBook(id);
+        var book = findBook(id);
         bookRepository.delete(book);
+        evictAfterCommit(List.of(id));
+        bookSearchIndex.removeBook(id);
+        addToCategoryCountAfterCommit(book.getCategory().getId(), -1);
     }
 
-    public Page<Book> getBooksByCategoryId(Long id, Optional<Integer> page) throws EntityNotFoundException {
+    public Page<Book> getBooksByCategoryId(Long id, Optional<Integer> page, Optional<Integer> size)
+            throws EntityNotFoundException, InvalidRequestException {
+        var pageRequest = toPageRequest(page, size, Sort.by(Sort.Direction.ASC, "id"));
         var bookCategory = bookCategoryService.getBookCategory(id);
-        return bookRepository.findAllByCategory(bookCategory,
-                PageRequest.of(page.orElse(0), 20, Sort.Direction.ASC, "id"));
+        // the total comes from the cached count of the category instead of a count query
+        var slice = bookRepository.findSliceByCategory(bookCategory, pageRequest);
+        return new PageImpl<>(slice.getContent(), pageRequest, bookCategoryCounts.getCount(id));
+    }
+
+    // no count query in either mode. With afterId the slice starts after that book instead of at an offset, so the
+    // cost of a slice does not grow with its depth
+    public Slice<Book> getBookSliceByCategoryId(
+            Long id, Optional<Integer> page, Optional<Integer> size, Optional<Long> afterId
+    ) throws EntityNotFoundException, InvalidRequestException {
+        if (page.isPresent() && afterId.isPresent()) {
+            throw new InvalidRequestException("Use either page or afterId");
+        }
+        var pageRequest = toPageRequest(page, size, Sort.by(Sort.Direction.ASC, "id"));
+        var bookCategory = bookCategoryService.getBookCategory(id);
+        if (afterId.isPresent()) {
+            return bookRepository.findSliceByCategoryAndIdGreaterThan(bookCategory, afterId.get(), pageRequest);
+        }
+        return bookRepository.findSliceByCategory(bookCategory, pageRequest);
     }
 
     public List<Book> searchBooks(Optional<String> searchQueryContainingNameAndAuthorOfTheBook) {
-        List<String> wordsCombinations = StringCombinationGenerator.generateWordsCombinations(
-                searchQueryContainingNameAndAuthorOfTheBook.orElse(""));
-        return bookRepository.findAllByTitleIsInOrAuthorIsIn(wordsCombinations, wordsCombinations);
+        if (legacyCombinationsSearch) {
+            List<String> wordsCombinations = StringCombinationGenerator.generateWordsCombinations(
+                    searchQueryContainingNameAndAuthorOfTheBook.orElse(""));
+            return bookRepository.findAllByTitleIsInOrAuthorIsIn(wordsCombinations, wordsCombinations);
+        }
+
+        var bookIds = bookSearchIndex.search(searchQueryContainingNameAndAuthorOfTheBook.orElse(""),
+                maxSearchResults);
+        if (bookIds.length == 0) {
+            return List.of();
+        }
+
+        // findAllById does not keep the order of the ids, restore the ranking of the index
+        var booksById = bookRepository
+                .findAllById(LongStream.of(bookIds).boxed().toList())
+                .stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return LongStream.of(bookIds).mapToObj(booksById::get).filter(Objects::nonNull).toList();
+    }
+
+    public Page<Book> searchBooksRanked(Optional<String> searchQuery, Optional<Integer> page)
+            throws InvalidRequestException {
+        // unsorted, the native query orders by rank
+        var pageRequest = toPageRequest(page, Optional.empty(), Sort.unsorted());
+        if (searchQuery.isEmpty() || searchQuery.get().isBlank()) {
+            return Page.empty(pageRequest);
+        }
+        return bookRepository.searchRanked(searchQuery.get(), pageRequest);
+    }
+
+    // must run in the caller transaction, a failed reservation throws and rolls back the lines already reserved
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void reserveStock(SortedMap<Long, Integer> quantitiesByBookId) throws IllegalEntityStateException {
+        if (quantitiesByBookId.isEmpty()) {
+            return;
+        }
+        var outOfStockBookIds = bookRepository.reserveStock(quantitiesByBookId, LocalDateTime.now(clock));
+        if (!outOfStockBookIds.isEmpty()) {
+            throw new IllegalEntityStateException("Not enough stock for books " + outOfStockBookIds);
+        }
+        evictAfterCommit(quantitiesByBookId.keySet());
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void releaseStock(SortedMap<Long, Integer> quantitiesByBookId) {
+        if (quantitiesByBookId.isEmpty()) {
+            return;
+        }
+        bookRepository.releaseStock(quantitiesByBookId, LocalDateTime.now(clock));
+        evictAfterCommit(quantitiesByBookId.keySet());
+    }
+
+    // writes one json document per line while the rows come from the cursor, so the memory used does not grow with
+    // the catalog. The server side cursor is only kept open inside a transaction
+    @Transactional
+    public void exportBooks(OutputStream outputStream) throws IOException {
+        try (var generator = exportWriter.createGenerator(outputStream)) {
+            // newline delimited instead of the default space between root values
+            generator.setRootValueSeparator(null);
+            try {
+                bookRepository.exportBooks(exportFetchSize, book -> {
+                    try {
+                        exportWriter.writeValue(generator, book);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private PageRequest toPageRequest(
+            Optional<Integer> page, Optional<Integer> size, Sort sort
+    ) throws InvalidRequestException {
+        var pageNumber = page.orElse(0);
+        if (pageNumber < 0) {
+            throw new InvalidRequestException("Page must not be negative");
+        }
+        var pageSize = size.orElse(defaultPageSize);
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new InvalidRequestException("Page size must be between 1 and " + maxPageSize);
+        }
+        return PageRequest.of(pageNumber, pageSize, sort);
+    }
+
+    private Book findBook(Long id) throws EntityNotFoundException {
+        return bookRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Book with id " + id));
+    }
+
+    private Book findBookWithCategory(Long id) throws EntityNotFoundException {
+        return bookRepository
+                .findWithCategoryById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Book with id " + id));
+    }
+
+    // evict the changed books once the new rows are visible, the stock and the book writes run in a transaction
+    private void evictAfterCommit(Collection<Long> bookIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bookIds.forEach(books::evict);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                bookIds.forEach(books::evict);
+            }
+        });
+    }
+
+    // a rolled back write does not change the count
+    private void addToCategoryCountAfterCommit(Long categoryId, long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bookCategoryCounts.add(categoryId, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bookCategoryCounts.add(categoryId, delta);
+            }
+        });
     }
 
     private void createNewBook(BookRequest request, BookCategory bookCategory, Book book) {
@@ -87,4 +316,55 @@ public class BookServiceImpl implements BookService {
         book.setDimensions(request.getDimensions());
         book.setCategory(bookCategory);
     }
+
+    // immutable copy of a book and its category, every cache hit builds new detached entities from it
+    private record BookSnapshot(
+            Long id, String title, String author, String description, BigDecimal price, String imageUrl,
+            int quantity, String language, String publisher, LocalDateTime publicationDate, String isbn10,
+            String isbn13, String dimensions, CategorySnapshot category, LocalDateTime createdAt,
+            LocalDateTime updatedAt, LocalDateTime deletedAt
+    ) {
+        static BookSnapshot of(Book book) {
+            return new BookSnapshot(book.getId(), book.getTitle(), book.getAuthor(), book.getDescription(),
+                    book.getPrice(), book.getImageUrl(), book.getQuantity(), book.getLanguage(), book.getPublisher(),
+                    book.getPublicationDate(), book.getIsbn10(), book.getIsbn13(), book.getDimensions(),
+                    CategorySnapshot.of(book.getCategory()), book.getCreatedAt(), book.getUpdatedAt(),
+                    book.getDeletedAt());
+        }
+
+        Book toBook() {
+            var book = new Book(id);
+            book.setTitle(title);
+            book.setAuthor(author);
+            book.setDescription(description);
+            book.setPrice(price);
+            book.setImageUrl(imageUrl);
+            book.setQuantity(quantity);
+            book.setLanguage(language);
+            book.setPublisher(publisher);
+            book.setPublicationDate(publicationDate);
+            book.setIsbn10(isbn10);
+            book.setIsbn13(isbn13);
+            book.setDimensions(dimensions);
+            book.setCategory(category.toBookCategory());
+            book.setCreatedAt(createdAt);
+            book.setUpdatedAt(updatedAt);
+            book.setDeletedAt(deletedAt);
+            return book;
+        }
+    }
+
+    private record CategorySnapshot(
+            Long id, String name, String description, LocalDateTime createdAt, LocalDateTime updatedAt,
+            LocalDateTime deletedAt
+    ) {
+        static CategorySnapshot of(BookCategory category) {
+            return new CategorySnapshot(category.getId(), category.getName(), category.getDescription(),
+                    category.getCreatedAt(), category.getUpdatedAt(), category.getDeletedAt());
+        }
+
+        BookCategory toBookCategory() {
+            return new BookCategory(id, name, description, createdAt, updatedAt, deletedAt);
+        }
+    }
 }
@@ -1,11 +1,16 @@
 package com.georgeradu.bookstore.service;
 
+import com.georgeradu.bookstore.config.CacheConfig;
+import com.georgeradu.bookstore.utils.ConditionalRequests;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
@@ -13,19 +18,42 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 @Service
 public class JwtServiceImpl implements JwtService {
+    private final Long jwtExpirationMs;
+    // the key and the parser are immutable and thread safe, build them once instead of on every token
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final Cache verifiedTokens;
 
-    @Value("${token.secret.key}")
-    String jwtSecretKey;
-
-    @Value("${token.expiration_time_in_ms}")
-    Long jwtExpirationMs;
+    public JwtServiceImpl(
+            @Value("${token.secret.key}") String jwtSecretKey,
+            @Value("${token.expiration_time_in_ms}") Long jwtExpirationMs,
+            CacheManager cacheManager
+    ) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecretKey));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verifiedTokens = cacheManager.getCache(CacheConfig.VERIFIED_TOKENS);
+    }
 
     public String extractUserName(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return extractAllClaims(token).getSubject();
+    }
+
+    // verifies the signature and the expiration of the token, callers reuse the claims instead of parsing again.
+    // a token verified before is looked up by its digest and not verified again until it expires, the cached claims
+    // are shared and must not be modified
+    public Claims extractAllClaims(String token) {
+        // the cache keeps a digest and not the token, a heap dump does not leak usable tokens
+        var digest = ConditionalRequests.sha256Hex(token);
+        var claims = verifiedTokens.get(digest, Claims.class);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(digest, claims);
+        }
+        return claims;
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -33,13 +61,11 @@ public class JwtServiceImpl implements JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String userName = extractUserName(token);
-        return (userName.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolvers) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolvers.apply(claims);
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
     }
 
     private String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -49,30 +75,11 @@ public class JwtServiceImpl implements JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,5 @@
+package com.georgeradu.bookstore.service;
+
+public interface LoginRateLimiter {
+    void acquire(String email, String clientIp);
+}
@@ -0,0 +1,88 @@
+package com.georgeradu.bookstore.service;
+
+import com.georgeradu.bookstore.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+
+// token buckets of login attempts per account and per client ip. A login takes one token of each bucket before its
+// password is hashed, the buckets refill continuously and idle buckets are dropped after an hour
+@Service
+public class LoginRateLimiterImpl implements LoginRateLimiter {
+    private static final long BUCKETS_MAXIMUM_SIZE = 100_000;
+    private static final Duration BUCKETS_IDLE_EXPIRATION = Duration.ofHours(1);
+
+    private final Clock clock;
+    private final int accountCapacity;
+    private final int accountRefillPerMinute;
+    private final int ipCapacity;
+    private final int ipRefillPerMinute;
+    private final Cache<String, TokenBucket> accountBuckets = newBuckets();
+    private final Cache<String, TokenBucket> ipBuckets = newBuckets();
+
+    public LoginRateLimiterImpl(
+            Clock clock,
+            @Value("${app.auth.rate-limit.account.capacity}") int accountCapacity,
+            @Value("${app.auth.rate-limit.account.refill-per-minute}") int accountRefillPerMinute,
+            @Value("${app.auth.rate-limit.ip.capacity}") int ipCapacity,
+            @Value("${app.auth.rate-limit.ip.refill-per-minute}") int ipRefillPerMinute
+    ) {
+        this.clock = clock;
+        this.accountCapacity = accountCapacity;
+        this.accountRefillPerMinute = accountRefillPerMinute;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerMinute = ipRefillPerMinute;
+    }
+
+    public void acquire(String email, String clientIp) throws TooManyRequestsException {
+        var now = clock.millis();
+        var ipBucket = ipBuckets.get(clientIp, ip -> new TokenBucket(ipCapacity, ipRefillPerMinute, now));
+        if (!ipBucket.tryConsume(now)) {
+            throw new TooManyRequestsException("too many login attempts from this address, try again later");
+        }
+        var accountBucket = accountBuckets.get(email.toLowerCase(Locale.ROOT),
+                account -> new TokenBucket(accountCapacity, accountRefillPerMinute, now));
+        if (!accountBucket.tryConsume(now)) {
+            throw new TooManyRequestsException("too many login attempts for this account, try again later");
+        }
+    }
+
+    private static Cache<String, TokenBucket> newBuckets() {
+        return Caffeine
+                .newBuilder()
+                .maximumSize(BUCKETS_MAXIMUM_SIZE)
+                .expireAfterAccess(BUCKETS_IDLE_EXPIRATION)
+                .build();
+    }
+
+    private static final class TokenBucket {
+        private final int capacity;
+        private final double tokensPerMs;
+        private double tokens;
+        private long lastRefillMs;
+
+        TokenBucket(int capacity, int refillPerMinute, long nowMs) {
+            this.capacity = capacity;
+            this.tokensPerMs = refillPerMinute / 60_000.0;
+            this.tokens = capacity;
+            this.lastRefillMs = nowMs;
+        }
+
+        synchronized boolean tryConsume(long nowMs) {
+            if (nowMs > lastRefillMs) {
+                tokens = Math.min(capacity, tokens + (nowMs - lastRefillMs) * tokensPerMs);
+                lastRefillMs = nowMs;
+            }
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
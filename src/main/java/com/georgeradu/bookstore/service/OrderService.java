@@ -1,18 +1,21 @@
 package com.georgeradu.bookstore.service;
 
+import com.georgeradu.bookstore.dto.OrderDetailsResponse;
+import com.georgeradu.bookstore.dto.OrderInfoResponse;
+import com.georgeradu.bookstore.dto.OrderItemResponse;
 import com.georgeradu.bookstore.model.OrderInfo;
-import com.georgeradu.bookstore.model.OrderItem;
 
 import java.util.List;
 
 public interface OrderService {
     OrderInfo getOrderInfoById(Long id);
-    OrderInfo getUserOrderInfoById(String userEmail, Long id);
-    List<OrderItem> getOrderItemsByOrderInfoId(Long orderInfoId);
-    List<OrderItem> getUserOrderItemsByOrderInfoId(String userEmail, Long orderInfoId);
-    List<OrderInfo> getUserOrderHistory(String userEmail);
-    List<OrderInfo> getOrderHistoryForUserById(Long userId);
-    OrderInfo saveUserShoppingCartAsOrder(String userEmail, String shippingAddress);
+    OrderInfoResponse getUserOrderInfoById(Long userId, Long id);
+    List<OrderItemResponse> getOrderItemsByOrderInfoId(Long orderInfoId);
+    List<OrderItemResponse> getUserOrderItemsByOrderInfoId(Long userId, Long orderInfoId);
+    OrderDetailsResponse getUserOrderDetailsById(Long userId, Long id);
+    List<OrderInfoResponse> getUserOrderHistory(Long userId);
+    List<OrderInfoResponse> getOrderHistoryForUserById(Long userId);
+    OrderInfo saveUserShoppingCartAsOrder(Long userId, String shippingAddress);
     OrderInfo setOrderToBeDelivered(Long id);
-    OrderInfo cancelOrder(String userEmail, Long id);
+    OrderInfo cancelOrder(Long userId, Long id);
 }
@@ -1,10 +1,12 @@
 package com.georgeradu.bookstore.service;
 
+import com.georgeradu.bookstore.dto.OrderDetailsResponse;
+import com.georgeradu.bookstore.dto.OrderInfoResponse;
+import com.georgeradu.bookstore.dto.OrderItemResponse;
 import com.georgeradu.bookstore.exception.EntityNotFoundException;
 import com.georgeradu.bookstore.exception.IllegalEntityStateException;
 import com.georgeradu.bookstore.exception.InvalidUserAccessException;
 import com.georgeradu.bookstore.model.OrderInfo;
-import com.georgeradu.bookstore.model.OrderItem;
 import com.georgeradu.bookstore.model.OrderStatus;
 import com.georgeradu.bookstore.repository.OrderInfoRepository;
 import com.georgeradu.bookstore.repository.OrderItemRepository;
@@ -13,7 +15,10 @@ import org.springframework.stereotype.Service;
 
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 @Service
 public class OrderServiceImpl implements OrderService {
@@ -41,57 +46,68 @@ public class OrderServiceImpl implements OrderService {
         return orderInfoRespository.findById(id).orElseThrow(() -> new EntityNotFoundException("Order with id " + id));
     }
 
-    public OrderInfo getUserOrderInfoById(String userEmail, Long id) {
-        var user = userService.getUserByEmail(userEmail);
-        var orderInfo = orderInfoRespository.findById(id).orElseThrow();
-        if (!orderInfo.getUser().getId().equals(user.getId())) {
+    // the read methods below return projections, each one runs a fixed number of queries whatever the number of
+    // orders or items
+    public OrderInfoResponse getUserOrderInfoById(Long userId, Long id) {
+        var orderInfo = orderInfoRespository
+                .findResponseById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Order with id " + id));
+        if (!orderInfo.getUserId().equals(userId)) {
             throw new InvalidUserAccessException(
-                    "User " + user.getId() + " cannot access order info " + orderInfo.getId());
+                    "User " + userId + " cannot access order info " + orderInfo.getId());
         }
 
-        return getOrderInfoById(id);
+        return orderInfo;
     }
 
-    public List<OrderItem> getOrderItemsByOrderInfoId(Long orderInfoId) {
-        return orderItemRepository.findAllByOrderInfoId(orderInfoId);
+    public List<OrderItemResponse> getOrderItemsByOrderInfoId(Long orderInfoId) {
+        return orderItemRepository.findResponsesByOrderInfoId(orderInfoId);
     }
 
-    public List<OrderItem> getUserOrderItemsByOrderInfoId(String userEmail, Long orderInfoId) {
-        var user = userService.getUserByEmail(userEmail);
-        var orderInfo = orderInfoRespository.findById(orderInfoId).orElseThrow();
-        if (!orderInfo.getUser().getId().equals(user.getId())) {
-            throw new InvalidUserAccessException(
-                    "User " + user.getId() + " cannot access order info " + orderInfo.getId());
-        }
+    public List<OrderItemResponse> getUserOrderItemsByOrderInfoId(Long userId, Long orderInfoId) {
+        getUserOrderInfoById(userId, orderInfoId); // check if user is the owner of the order
 
         return getOrderItemsByOrderInfoId(orderInfoId);
     }
 
-    public List<OrderInfo> getUserOrderHistory(String userEmail) {
-        var user = userService.getUserByEmail(userEmail);
-        return orderInfoRespository.findAllByUserId(user.getId());
+    public OrderDetailsResponse getUserOrderDetailsById(Long userId, Long id) {
+        var orderInfo = getUserOrderInfoById(userId, id);
+        return new OrderDetailsResponse(orderInfo, getOrderItemsByOrderInfoId(id));
+    }
+
+    public List<OrderInfoResponse> getUserOrderHistory(Long userId) {
+        return orderInfoRespository.findResponsesByUserId(userId);
     }
 
-    public List<OrderInfo> getOrderHistoryForUserById(Long userId) {
+    public List<OrderInfoResponse> getOrderHistoryForUserById(Long userId) {
         var user = userService.getUser(userId);
-        return orderInfoRespository.findAllByUserId(user.getId());
+        return orderInfoRespository.findResponsesByUserId(user.getId());
     }
 
     @Transactional
-    public OrderInfo saveUserShoppingCartAsOrder(String userEmail, String shippingAddress) {
-        var user = userService.getUserByEmail(userEmail);
-        var shoppingCartItems = shoppingCartItemService.getUserShoppingCartByEmail(userEmail);
+    public OrderInfo saveUserShoppingCartAsOrder(Long userId, String shippingAddress) {
+        // the items are locked and every later statement works on their ids, an item added to the cart meanwhile is
+        // neither reserved nor ordered and stays in the cart
+        var shoppingCartItems = shoppingCartItemService.getLockedUserShoppingCart(userId);
         if (shoppingCartItems.isEmpty()) {
             throw new EntityNotFoundException("Shopping cart is empty");
         }
 
-        var totalPrice = shoppingCartItems
-                .stream()
-                .mapToDouble(item -> item.getBook().getPrice() * item.getQuantity())
-                .sum();
+        var shoppingCartItemIds = new ArrayList<Long>(shoppingCartItems.size());
+        var quantitiesByBookId = new TreeMap<Long, Integer>();
+        for (var shoppingCartItem : shoppingCartItems) {
+            shoppingCartItemIds.add(shoppingCartItem.getId());
+            quantitiesByBookId.merge(shoppingCartItem.getBook().getId(), shoppingCartItem.getQuantity(),
+                    Integer::sum);
+        }
+        bookService.reserveStock(quantitiesByBookId);
+
+        // the book rows stay locked by the stock reservation until commit, the prices summed here are the ones
+        // copied into the order items below
+        var totalPrice = shoppingCartItemService.getShoppingCartItemsTotalPrice(shoppingCartItemIds);
 
         var orderInfo = new OrderInfo();
-        orderInfo.setUser(user);
+        orderInfo.setUser(userService.getUserReference(userId));
         orderInfo.setTotalPrice(totalPrice);
         orderInfo.setShippingAddress(shippingAddress);
         orderInfo.setStatus(OrderStatus.PENDING);
@@ -100,25 +116,19 @@ public class OrderServiceImpl implements OrderService {
         orderInfo.setUpdatedAt(timestamp);
 
         orderInfo = orderInfoRespository.save(orderInfo);
+        orderItemRepository.insertFromShoppingCart(orderInfo.getId(), shoppingCartItemIds, timestamp);
 
-        for (var shoppingCartItem : shoppingCartItems) {
-            var orderItem = new OrderItem();
-            orderItem.setOrderInfo(orderInfo);
-            orderItem.setBook(shoppingCartItem.getBook());
-            orderItem.setQuantity(shoppingCartItem.getQuantity());
-            orderItem.setPrice(shoppingCartItem.getBook().getPrice());
-            orderItem.setCreatedAt(timestamp);
-            orderItem.setUpdatedAt(timestamp);
-            orderItemRepository.save(orderItem);
-        }
-
-        shoppingCartItemService.deleteAllUserShoppingCartItems(userEmail);
+        shoppingCartItemService.deleteShoppingCartItems(shoppingCartItemIds);
 
         return orderInfo;
     }
 
+    // locks the order like cancelOrder, so a parallel cancel that already returned the stock is seen here
+    @Transactional
     public OrderInfo setOrderToBeDelivered(Long id) {
-        var orderInfo = getOrderInfoById(id);
+        var orderInfo = orderInfoRespository
+                .findLockedById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Order with id " + id));
         if (orderInfo.getStatus() == OrderStatus.CANCELLED) {
             throw new IllegalEntityStateException(
                     "Cannot deliver order " + id + " because it has already been cancelled");
@@ -132,12 +142,14 @@ public class OrderServiceImpl implements OrderService {
         return orderInfoRespository.save(orderInfo);
     }
 
-    public OrderInfo cancelOrder(String userEmail, Long id) {
-        var orderInfo = getOrderInfoById(id);
-        var user = userService.getUserByEmail(userEmail);
-        if (!orderInfo.getUser().getId().equals(user.getId())) {
+    @Transactional
+    public OrderInfo cancelOrder(Long userId, Long id) {
+        var orderInfo = orderInfoRespository
+                .findLockedById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Order with id " + id));
+        if (!orderInfo.getUser().getId().equals(userId)) {
             throw new InvalidUserAccessException(
-                    "User " + user.getId() + " cannot cancel order " + orderInfo.getId());
+                    "User " + userId + " cannot cancel order " + orderInfo.getId());
         }
         if (orderInfo.getStatus() == OrderStatus.DELIVERED) {
             throw new IllegalEntityStateException(
@@ -147,8 +159,17 @@ public class OrderServiceImpl implements OrderService {
             throw new IllegalEntityStateException("Order " + id + " has already been cancelled");
         }
 
+        bookService.releaseStock(getOrderedQuantitiesByBookId(id));
         orderInfo.setDeletedAt(LocalDateTime.now(clock));
         orderInfo.setStatus(OrderStatus.CANCELLED);
         return orderInfoRespository.save(orderInfo);
     }
+
+    private SortedMap<Long, Integer> getOrderedQuantitiesByBookId(Long orderInfoId) {
+        var quantitiesByBookId = new TreeMap<Long, Integer>();
+        for (var orderItem : orderItemRepository.findResponsesByOrderInfoId(orderInfoId)) {
+            quantitiesByBookId.merge(orderItem.getBookId(), orderItem.getQuantity(), Integer::sum);
+        }
+        return quantitiesByBookId;
+    }
 }
@@ -0,0 +1,8 @@
+package com.georgeradu.bookstore.service;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface PasswordHashingService {
+    CompletableFuture<String> encode(String rawPassword);
+    CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword);
+}
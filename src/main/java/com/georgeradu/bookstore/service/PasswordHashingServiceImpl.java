@@ -0,0 +1,61 @@
+package com.georgeradu.bookstore.service;
+
+import com.georgeradu.bookstore.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+// runs the bcrypt hashes on the bounded password hashing pool instead of the request threads, a full queue rejects
+// the request instead of letting the hashes take the cpu of every other request. The pool is owned by the service
+// and not a bean, an Executor bean would replace the applicationTaskExecutor spring boot creates for @Async and mvc
+@Service
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService passwordHashingExecutor;
+
+    public PasswordHashingServiceImpl(
+            PasswordEncoder passwordEncoder,
+            @Value("${app.auth.hashing.threads}") int threads,
+            @Value("${app.auth.hashing.queue-capacity}") int queueCapacity
+    ) {
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingExecutor = newPasswordHashingExecutor(threads, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) throws TooManyRequestsException {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) throws
+            TooManyRequestsException {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> hash) {
+        try {
+            return CompletableFuture.supplyAsync(hash, passwordHashingExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new TooManyRequestsException("the server is busy hashing passwords, try again later");
+        }
+    }
+
+    // threads 0 uses half of the cores. A queue capacity of 0 hands the hash straight to an idle thread or rejects it
+    private static ExecutorService newPasswordHashingExecutor(int threads, int queueCapacity) {
+        var poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        BlockingQueue<Runnable> queue = queueCapacity > 0
+                ? new LinkedBlockingQueue<>(queueCapacity)
+                : new SynchronousQueue<>();
+        return new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, queue,
+                new CustomizableThreadFactory("password-hashing-"));
+    }
+}
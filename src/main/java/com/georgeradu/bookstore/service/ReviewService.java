@@ -1,15 +1,16 @@
 package com.georgeradu.bookstore.service;
 
+import com.georgeradu.bookstore.dto.ReviewPageResponse;
 import com.georgeradu.bookstore.dto.ReviewRequest;
 import com.georgeradu.bookstore.model.Review;
 
-import java.util.List;
+import java.util.Optional;
 
 public interface ReviewService {
     Review getReview(Long id);
-    List<Review> getReviewsForBook(Long bookId);
-    List<Review> getReviewsForUser(Long userId);
-    Review createReview(ReviewRequest request, String userEmail);
-    Review updateReview(Long id, ReviewRequest request, String userEmail);
-    void deleteReview(Long id, String userEmail);
+    ReviewPageResponse getReviewsForBook(Long bookId, Optional<String> cursor, Optional<Integer> size);
+    ReviewPageResponse getReviewsForUser(Long userId, Optional<String> cursor, Optional<Integer> size);
+    Review createReview(ReviewRequest request, Long userId);
+    Review updateReview(Long id, ReviewRequest request, Long userId);
+    void deleteReview(Long id, Long userId);
 }
@@ -1,16 +1,24 @@
 package com.georgeradu.bookstore.service;
 
+import com.georgeradu.bookstore.dto.ReviewPageResponse;
 import com.georgeradu.bookstore.dto.ReviewRequest;
+import com.georgeradu.bookstore.dto.ReviewResponse;
 import com.georgeradu.bookstore.exception.DuplicateObjectException;
 import com.georgeradu.bookstore.exception.EntityNotFoundException;
+import com.georgeradu.bookstore.exception.InvalidRequestException;
 import com.georgeradu.bookstore.exception.InvalidUserAccessException;
 import com.georgeradu.bookstore.model.Review;
 import com.georgeradu.bookstore.repository.ReviewRepository;
+import com.georgeradu.bookstore.utils.KeysetCursor;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ReviewServiceImpl implements ReviewService {
@@ -18,14 +26,24 @@ public class ReviewServiceImpl implements ReviewService {
     private final ReviewRepository reviewRepository;
     private final UserService userService;
     private final BookService bookService;
+    private final BookRatingService bookRatingService;
+
+    // page size of the review pages when the client does not choose one, and the largest one it can choose
+    @Value("${app.review.page-size.default:20}")
+    int defaultPageSize;
+
+    @Value("${app.review.page-size.max:100}")
+    int maxPageSize;
 
     public ReviewServiceImpl(
-            Clock clock, ReviewRepository reviewRepository, UserService userService, BookService bookService
+            Clock clock, ReviewRepository reviewRepository, UserService userService, BookService bookService,
+            BookRatingService bookRatingService
     ) {
         this.clock = clock;
         this.reviewRepository = reviewRepository;
         this.userService = userService;
         this.bookService = bookService;
+        this.bookRatingService = bookRatingService;
     }
 
 
@@ -34,61 +52,98 @@ public class ReviewServiceImpl implements ReviewService {
                                .orElseThrow(() -> new EntityNotFoundException("Review not found"));
     }
 
-    public List<Review> getReviewsForBook(Long bookId) {
+    public ReviewPageResponse getReviewsForBook(Long bookId, Optional<String> cursor, Optional<Integer> size) {
         bookService.getBook(bookId); // check if book exists
-        return reviewRepository.findAllByBookId(bookId);
+        var pageRequest = toPageRequest(size);
+        var reviews = cursor
+                .map(KeysetCursor::decode)
+                .map(after -> reviewRepository.findPageByBookIdAfter(bookId, after.getCreatedAt(), after.getId(),
+                        pageRequest))
+                .orElseGet(() -> reviewRepository.findFirstPageByBookId(bookId, pageRequest));
+        return toReviewPage(reviews, pageRequest.getPageSize() - 1);
     }
 
-    public List<Review> getReviewsForUser(Long userId) {
+    public ReviewPageResponse getReviewsForUser(Long userId, Optional<String> cursor, Optional<Integer> size) {
         userService.getUser(userId); // check if user exists
-        return reviewRepository.findAllByUserId(userId);
+        var pageRequest = toPageRequest(size);
+        var reviews = cursor
+                .map(KeysetCursor::decode)
+                .map(after -> reviewRepository.findPageByUserIdAfter(userId, after.getCreatedAt(), after.getId(),
+                        pageRequest))
+                .orElseGet(() -> reviewRepository.findFirstPageByUserId(userId, pageRequest));
+        return toReviewPage(reviews, pageRequest.getPageSize() - 1);
     }
 
 
-    public Review createReview(ReviewRequest request, String userEmail) throws EntityNotFoundException,
+    // the review and the rating aggregate of its book are written in the same transaction
+    @Transactional
+    public Review createReview(ReviewRequest request, Long userId) throws EntityNotFoundException,
             DuplicateObjectException {
-        var user = userService.getUserByEmail(userEmail);
         var book = bookService.getBook(request.getBookId());
 
-        var existentReview = reviewRepository.findByBookIdAndUserId(book.getId(), user.getId());
+        var existentReview = reviewRepository.findByBookIdAndUserId(book.getId(), userId);
         if (existentReview.isPresent()) {
-            throw new DuplicateObjectException("Review for book " + book.getId() + " and user " + user.getId());
+            throw new DuplicateObjectException("Review for book " + book.getId() + " and user " + userId);
         }
 
         var review = new Review();
         review.setBook(book);
-        review.setUser(user);
+        review.setUser(userService.getUserReference(userId));
         review.setRating(request.getRating());
         review.setComment(request.getComment());
         var timestamp = LocalDateTime.now(clock);
         review.setCreatedAt(timestamp);
         review.setUpdatedAt(timestamp);
 
-        return reviewRepository.save(review);
+        var savedReview = reviewRepository.save(review);
+        bookRatingService.addRating(book.getId(), review.getRating());
+        return savedReview;
     }
 
-    public Review updateReview(Long id, ReviewRequest request, String userEmail) throws EntityNotFoundException,
+    @Transactional
+    public Review updateReview(Long id, ReviewRequest request, Long userId) throws EntityNotFoundException,
             InvalidUserAccessException {
         var review = getReview(id);
-        var user = userService.getUserByEmail(userEmail);
-        if (!review.getUser().getId().equals(user.getId())) {
-            throw new InvalidUserAccessException("User " + user.getEmail() + " cannot update review " + review.getId());
+        if (!review.getUser().getId().equals(userId)) {
+            throw new InvalidUserAccessException("User " + userId + " cannot update review " + review.getId());
         }
 
+        var oldRating = review.getRating();
         review.setRating(request.getRating());
         review.setComment(request.getComment());
         review.setUpdatedAt(LocalDateTime.now(clock));
 
-        return reviewRepository.save(review);
+        var savedReview = reviewRepository.save(review);
+        bookRatingService.replaceRating(review.getBook().getId(), oldRating, review.getRating());
+        return savedReview;
     }
 
-    public void deleteReview(Long id, String userEmail) throws EntityNotFoundException, InvalidUserAccessException {
+    @Transactional
+    public void deleteReview(Long id, Long userId) throws EntityNotFoundException, InvalidUserAccessException {
         var review = getReview(id);
-        var user = userService.getUserByEmail(userEmail);
-        if (!review.getUser().getId().equals(user.getId())) {
-            throw new InvalidUserAccessException("User " + user.getEmail() + " cannot delete review " + review.getId());
+        if (!review.getUser().getId().equals(userId)) {
+            throw new InvalidUserAccessException("User " + userId + " cannot delete review " + review.getId());
         }
 
         reviewRepository.delete(review);
+        bookRatingService.removeRating(review.getBook().getId(), review.getRating());
+    }
+
+    // one more review than the page size is fetched to know if there is a next page without a count query
+    private PageRequest toPageRequest(Optional<Integer> size) throws InvalidRequestException {
+        var pageSize = size.orElse(defaultPageSize);
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new InvalidRequestException("Page size must be between 1 and " + maxPageSize);
+        }
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    private ReviewPageResponse toReviewPage(List<ReviewResponse> reviews, int pageSize) {
+        if (reviews.size() <= pageSize) {
+            return new ReviewPageResponse(reviews, null);
+        }
+        var content = reviews.subList(0, pageSize);
+        var last = content.get(pageSize - 1);
+        return new ReviewPageResponse(content, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
     }
 }
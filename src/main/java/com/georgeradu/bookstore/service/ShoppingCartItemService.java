@@ -3,13 +3,17 @@ package com.georgeradu.bookstore.service;
 import com.georgeradu.bookstore.dto.ShoppingCartItemRequest;
 import com.georgeradu.bookstore.model.ShoppingCartItem;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 public interface ShoppingCartItemService {
     List<ShoppingCartItem> getUserShoppingCart(Long userId);
-    List<ShoppingCartItem> getUserShoppingCartByEmail(String userEmail);
-    ShoppingCartItem addBookToShoppingCart(String userEmail, ShoppingCartItemRequest request);
-    ShoppingCartItem updateShoppingCartItem(String userEmail, Long shoppingCartItemId, ShoppingCartItemRequest request);
-    void deleteShoppingCartItem(String userEmail, Long shoppingCartItemId);
-    void deleteAllUserShoppingCartItems(String userEmail);
+    List<ShoppingCartItem> getResolvedUserShoppingCart(Long userId);
+    List<ShoppingCartItem> getLockedUserShoppingCart(Long userId);
+    BigDecimal getShoppingCartItemsTotalPrice(Collection<Long> shoppingCartItemIds);
+    ShoppingCartItem addBookToShoppingCart(Long userId, ShoppingCartItemRequest request);
+    ShoppingCartItem updateShoppingCartItem(Long userId, Long shoppingCartItemId, ShoppingCartItemRequest request);
+    void deleteShoppingCartItem(Long userId, Long shoppingCartItemId);
+    void deleteShoppingCartItems(Collection<Long> shoppingCartItemIds);
 }
@@ -7,8 +7,10 @@ import com.georgeradu.bookstore.model.ShoppingCartItem;
 import com.georgeradu.bookstore.repository.ShoppingCartItemRepository;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Service
@@ -33,23 +35,31 @@ public class ShoppingCartItemServiceImpl implements ShoppingCartItemService {
         return shoppingCartItemRepository.findAllByUserId(userId);
     }
 
-    public List<ShoppingCartItem> getUserShoppingCartByEmail(String userEmail) {
-        var user = userService.getUserByEmail(userEmail); // check if user exists
-        return shoppingCartItemRepository.findAllByUserId(user.getId());
+    // the methods below receive the id of the resolved request user, which is known to exist
+    public List<ShoppingCartItem> getResolvedUserShoppingCart(Long userId) {
+        return shoppingCartItemRepository.findAllByUserId(userId);
+    }
+
+    // must run in the caller transaction, the items stay locked until it ends
+    public List<ShoppingCartItem> getLockedUserShoppingCart(Long userId) {
+        return shoppingCartItemRepository.findLockedByUserId(userId);
+    }
+
+    public BigDecimal getShoppingCartItemsTotalPrice(Collection<Long> shoppingCartItemIds) {
+        return shoppingCartItemRepository.getTotalPriceByIds(shoppingCartItemIds);
     }
 
-    public ShoppingCartItem addBookToShoppingCart(String userEmail, ShoppingCartItemRequest request) {
-        var user = userService.getUserByEmail(userEmail);
+    public ShoppingCartItem addBookToShoppingCart(Long userId, ShoppingCartItemRequest request) {
         var book = bookService.getBook(request.getBookId());
 
-        var existentShoppingCartItem = shoppingCartItemRepository.findByUserIdAndBookId(user.getId(), book.getId());
+        var existentShoppingCartItem = shoppingCartItemRepository.findByUserIdAndBookId(userId, book.getId());
         if (existentShoppingCartItem.isPresent()) {
             throw new DuplicateObjectException(
-                    "User " + user.getId() + " already has book " + book.getId() + " in their shopping cart");
+                    "User " + userId + " already has book " + book.getId() + " in their shopping cart");
         }
 
         var shoppingCartItem = new ShoppingCartItem();
-        shoppingCartItem.setUser(user);
+        shoppingCartItem.setUser(userService.getUserReference(userId));
         shoppingCartItem.setBook(book);
         shoppingCartItem.setQuantity(request.getQuantity());
         var timestamp = LocalDateTime.now(clock);
@@ -60,13 +70,12 @@ public class ShoppingCartItemServiceImpl implements ShoppingCartItemService {
     }
 
     public ShoppingCartItem updateShoppingCartItem(
-            String userEmail, Long shoppingCartItemId, ShoppingCartItemRequest request
+            Long userId, Long shoppingCartItemId, ShoppingCartItemRequest request
     ) {
-        var user = userService.getUserByEmail(userEmail);
         var shoppingCartItem = shoppingCartItemRepository.findById(shoppingCartItemId).orElseThrow();
-        if (!shoppingCartItem.getUser().getId().equals(user.getId())) {
+        if (!shoppingCartItem.getUser().getId().equals(userId)) {
             throw new InvalidUserAccessException(
-                    "User " + user.getId() + " cannot update shopping cart item " + shoppingCartItem.getId());
+                    "User " + userId + " cannot update shopping cart item " + shoppingCartItem.getId());
         }
 
         shoppingCartItem.setQuantity(request.getQuantity());
@@ -74,19 +83,17 @@ public class ShoppingCartItemServiceImpl implements ShoppingCartItemService {
         return shoppingCartItemRepository.save(shoppingCartItem);
     }
 
-    public void deleteShoppingCartItem(String userEmail, Long shoppingCartItemId) {
-        var user = userService.getUserByEmail(userEmail);
+    public void deleteShoppingCartItem(Long userId, Long shoppingCartItemId) {
         var shoppingCartItem = shoppingCartItemRepository.findById(shoppingCartItemId).orElseThrow();
-        if (!shoppingCartItem.getUser().getId().equals(user.getId())) {
+        if (!shoppingCartItem.getUser().getId().equals(userId)) {
             throw new InvalidUserAccessException(
-                    "User " + user.getId() + " cannot delete shopping cart item " + shoppingCartItem.getId());
+                    "User " + userId + " cannot delete shopping cart item " + shoppingCartItem.getId());
         }
 
         shoppingCartItemRepository.delete(shoppingCartItem);
     }
 
-    public void deleteAllUserShoppingCartItems(String userEmail) {
-        var user = userService.getUserByEmail(userEmail);
-        shoppingCartItemRepository.deleteAllByUserId(user.getId());
+    public void deleteShoppingCartItems(Collection<Long> shoppingCartItemIds) {
+        shoppingCartItemRepository.deleteAllByIdInBatch(shoppingCartItemIds);
     }
 }
@@ -1,6 +1,8 @@
 package com.georgeradu.bookstore.service;
 
+import com.georgeradu.bookstore.config.CacheConfig;
 import com.georgeradu.bookstore.repository.UserRepository;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -15,6 +17,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRINCIPALS, key = "#username")
     public UserDetails loadUserByUsername(String username) {
         return userRepository
                 .findByEmail(username)
@@ -5,5 +5,6 @@ import com.georgeradu.bookstore.model.User;
 public interface UserService {
     User getUser(Long id);
     User getUserByEmail(String userEmail);
+    User getUserReference(Long id);
     User addUser(User user);
 }
@@ -1,9 +1,11 @@
 package com.georgeradu.bookstore.service;
 
+import com.georgeradu.bookstore.config.CacheConfig;
 import com.georgeradu.bookstore.exception.EntityNotFoundException;
 import com.georgeradu.bookstore.exception.UserAlreadyExistsException;
 import com.georgeradu.bookstore.model.User;
 import com.georgeradu.bookstore.repository.UserRepository;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
 import java.time.Clock;
@@ -31,6 +33,13 @@ public class UserServiceImpl implements  UserService {
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
     }
 
+    // the user id is trusted (it comes from the resolved request user), so no query is made until a field other than
+    // the id is read
+    public User getUserReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PRINCIPALS, key = "#user.email")
     public User addUser(User user) throws UserAlreadyExistsException {
         var timestamp = LocalDateTime.now(clock);
         user.setCreatedAt(timestamp);
@@ -0,0 +1,58 @@
+package com.georgeradu.bookstore.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+
+// validators for conditional GETs. The etag is a strong hash of the values the response is built from, so the
+// controllers can answer 304 before mapping and serializing the entities
+public class ConditionalRequests {
+    private ConditionalRequests() {
+    }
+
+    public static String etag(Object... parts) {
+        var digest = sha256();
+        for (var part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return toEtag(digest.digest());
+    }
+
+    // etag of a body that is already serialized
+    public static String etag(byte[] body) {
+        return toEtag(sha256().digest(body));
+    }
+
+    // the whole SHA-256 digest of the value in hex, for the values that are kept by their digest
+    public static String sha256Hex(String value) {
+        return HexFormat.of().formatHex(sha256().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // the latest of the timestamps in epoch millis, -1 when there is none. The timestamps are written by the
+    // application clock, pass its zone
+    public static long lastModified(ZoneId zone, LocalDateTime... timestamps) {
+        long lastModified = -1;
+        for (var timestamp : timestamps) {
+            if (timestamp != null) {
+                lastModified = Math.max(lastModified, timestamp.atZone(zone).toInstant().toEpochMilli());
+            }
+        }
+        return lastModified;
+    }
+
+    private static String toEtag(byte[] digest) {
+        return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
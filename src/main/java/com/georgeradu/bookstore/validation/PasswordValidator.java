@@ -4,6 +4,7 @@ import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
 public class PasswordValidator implements ConstraintValidator<Password, String> {
+    private static final String SPECIAL_CHARACTERS = "!@#$%^&*(),.?\":{}|<>";
 
     private int minLength;
     private int maxLength;
@@ -11,6 +12,8 @@ public class PasswordValidator implements ConstraintValidator<Password, String>
     private boolean requireLowercase;
     private boolean requireDigit;
     private boolean requireSpecialCharacter;
+    // lookup table of the special characters indexed by the character
+    private boolean[] specialCharacters;
 
     @Override
     public void initialize(Password constraintAnnotation) {
@@ -20,55 +23,36 @@ public class PasswordValidator implements ConstraintValidator<Password, String>
         this.requireLowercase = constraintAnnotation.requireLowercase();
         this.requireDigit = constraintAnnotation.requireDigit();
         this.requireSpecialCharacter = constraintAnnotation.requireSpecialCharacter();
+        this.specialCharacters = new boolean[128];
+        for (char c : SPECIAL_CHARACTERS.toCharArray()) {
+            this.specialCharacters[c] = true;
+        }
     }
 
     @Override
     public boolean isValid(String value, ConstraintValidatorContext context) {
-        if (value == null || value.trim().isEmpty()) {
-            return false;
-        }
-
-        if (value.length() < minLength) {
-            return false;
-        }
-
-        if (value.length() > maxLength) {
-            return false;
-        }
-
-        if (requireUppercase && !containsUppercase(value)) {
-            return false;
-        }
-
-        if (requireLowercase && !containsLowercase(value)) {
+        if (value == null || value.length() < minLength || value.length() > maxLength) {
             return false;
         }
 
-        if (requireDigit && !containsDigit(value)) {
-            return false;
-        }
-
-        if (requireSpecialCharacter && !containsSpecialCharacter(value)) {
-            return false;
+        // one pass over the characters without copies of the value or regexes, stops once every rule is met
+        boolean blank = true;
+        boolean uppercase = !requireUppercase;
+        boolean lowercase = !requireLowercase;
+        boolean digit = !requireDigit;
+        boolean specialCharacter = !requireSpecialCharacter;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            // same as trim, characters up to the space are blank
+            blank &= c <= ' ';
+            uppercase |= Character.toLowerCase(c) != c;
+            lowercase |= Character.toUpperCase(c) != c;
+            digit |= c >= '0' && c <= '9';
+            specialCharacter |= c < specialCharacters.length && specialCharacters[c];
+            if (!blank && uppercase && lowercase && digit && specialCharacter) {
+                return true;
+            }
         }
-
-        return true;
-    }
-
-    private boolean containsUppercase(String value) {
-        return !value.equals(value.toLowerCase());
-    }
-
-    private boolean containsLowercase(String value) {
-        return !value.equals(value.toUpperCase());
-    }
-
-    private boolean containsDigit(String value) {
-        return value.matches(".*\\d.*");
-    }
-
-    private boolean containsSpecialCharacter(String value) {
-        String specialCharacters = "[!@#$%^&*(),.?\":{}|<>]";
-        return value.matches(".*" + specialCharacters + ".*");
+        return false;
     }
-}
\ No newline at end of file
+}
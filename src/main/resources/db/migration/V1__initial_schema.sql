@@ -1,13 +1,4 @@
--- create database if not exists, special syntax for postgresql
--- since postgresql does not support IF NOT EXISTS for CREATE DATABASE
-DO
-$$
-    BEGIN
-        IF NOT EXISTS (SELECT 1 FROM pg_database WHERE datname = 'bookstore') THEN
-            CREATE DATABASE bookstore;
-        END IF;
-    END
-$$;
+-- the database itself is created by compose.yaml (POSTGRES_DB), flyway runs inside it
 
 -- create app tables
 
@@ -130,4 +121,4 @@ CREATE TABLE IF NOT EXISTS order_item
     PRIMARY KEY (id),
     CONSTRAINT fk_order_id FOREIGN KEY (order_id) REFERENCES order_info (id),
     CONSTRAINT fk_book_id FOREIGN KEY (book_id) REFERENCES book (id)
-);
\ No newline at end of file
+);
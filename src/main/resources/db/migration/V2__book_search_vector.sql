@@ -0,0 +1,9 @@
+-- full text search over books, the column is kept up to date by postgres on every insert and update
+ALTER TABLE book
+    ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', title), 'A') ||
+        setweight(to_tsvector('english', author), 'B') ||
+        setweight(to_tsvector('english', description), 'C')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_book_search_vector ON book USING GIN (search_vector);
@@ -0,0 +1,31 @@
+-- indexes for the foreign key columns used by the repository finders
+
+CREATE INDEX IF NOT EXISTS idx_book_category_id ON book (category_id);
+
+CREATE INDEX IF NOT EXISTS idx_book_review_book_id ON book_review (book_id);
+
+CREATE INDEX IF NOT EXISTS idx_order_info_user_id ON order_info (user_id);
+
+CREATE INDEX IF NOT EXISTS idx_order_item_order_id ON order_item (order_id);
+
+-- a user has at most one cart item and one review per book, the services check this before inserting but two
+-- parallel requests could both pass the check. Keep the oldest row of any duplicate before adding the constraint.
+-- The indexes also serve the user_id lookups, user_id is their leading column
+
+DELETE
+FROM shopping_cart_item s
+    USING shopping_cart_item d
+WHERE s.user_id = d.user_id
+  AND s.book_id = d.book_id
+  AND s.id > d.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_shopping_cart_item_user_id_book_id ON shopping_cart_item (user_id, book_id);
+
+DELETE
+FROM book_review r
+    USING book_review d
+WHERE r.user_id = d.user_id
+  AND r.book_id = d.book_id
+  AND r.id > d.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_book_review_user_id_book_id ON book_review (user_id, book_id);
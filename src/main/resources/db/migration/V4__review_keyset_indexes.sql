@@ -0,0 +1,8 @@
+-- review pages are read newest first by book or by user and continue from a (created_at, id) cursor, see
+-- ReviewRepository. The book index replaces the single column one from V3
+
+DROP INDEX IF EXISTS idx_book_review_book_id;
+
+CREATE INDEX IF NOT EXISTS idx_book_review_book_id_created_at_id ON book_review (book_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_book_review_user_id_created_at_id ON book_review (user_id, created_at DESC, id DESC);
@@ -0,0 +1,31 @@
+-- rating aggregate of every reviewed book, updated with the deltas of each review write so the average rating and
+-- the review count are read without scanning book_review, see BookRatingRepository
+
+CREATE TABLE IF NOT EXISTS book_rating
+(
+    book_id        bigint NOT NULL,
+    review_count   bigint NOT NULL DEFAULT 0,
+    rating_sum     bigint NOT NULL DEFAULT 0,
+    rating_1_count bigint NOT NULL DEFAULT 0,
+    rating_2_count bigint NOT NULL DEFAULT 0,
+    rating_3_count bigint NOT NULL DEFAULT 0,
+    rating_4_count bigint NOT NULL DEFAULT 0,
+    rating_5_count bigint NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (book_id),
+    CONSTRAINT fk_book_id FOREIGN KEY (book_id) REFERENCES book (id) ON DELETE CASCADE
+);
+
+INSERT INTO book_rating (book_id, review_count, rating_sum, rating_1_count, rating_2_count, rating_3_count,
+                         rating_4_count, rating_5_count)
+SELECT book_id,
+       count(*),
+       sum(rating),
+       count(*) FILTER (WHERE rating = 1),
+       count(*) FILTER (WHERE rating = 2),
+       count(*) FILTER (WHERE rating = 3),
+       count(*) FILTER (WHERE rating = 4),
+       count(*) FILTER (WHERE rating = 5)
+FROM book_review
+GROUP BY book_id
+ON CONFLICT (book_id) DO NOTHING;
@@ -0,0 +1,7 @@
+-- the last modification of a book response is the latest of the book row and of its rating aggregate, used by the
+-- conditional GETs of BookController. Stock changes move book.updated_at too, see BookStockRepositoryImpl. Like every
+-- updated_at it is written by the application clock, the default only fills the existing rows
+
+ALTER TABLE book_rating ADD COLUMN IF NOT EXISTS updated_at timestamp NOT NULL DEFAULT LOCALTIMESTAMP;
+
+ALTER TABLE book_rating ALTER COLUMN updated_at DROP DEFAULT;
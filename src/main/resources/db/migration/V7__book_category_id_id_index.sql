@@ -0,0 +1,6 @@
+-- the books of a category are read in id order, by page, by slice or after an id, see BookRepository. The index
+-- returns them already sorted and lets a keyset page start at the given id. It replaces the single column one from V3
+
+DROP INDEX IF EXISTS idx_book_category_id;
+
+CREATE INDEX IF NOT EXISTS idx_book_category_id_id ON book (category_id, id);
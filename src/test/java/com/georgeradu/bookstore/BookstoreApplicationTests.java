@@ -1,13 +1,24 @@
 package com.georgeradu.bookstore;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
 
 @SpringBootTest
 class BookstoreApplicationTests {
+    @Autowired
+    private ApplicationContext applicationContext;
 
     @Test
     void contextLoads() {
     }
 
+    // spring boot only creates its task executor when the application declares no Executor bean
+    @Test
+    void applicationTaskExecutorIsCreated() {
+        Assertions.assertTrue(applicationContext.containsBean("applicationTaskExecutor"));
+    }
+
 }
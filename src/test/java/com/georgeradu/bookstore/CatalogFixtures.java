@@ -0,0 +1,68 @@
+package com.georgeradu.bookstore;
+
+import com.georgeradu.bookstore.model.Book;
+import com.georgeradu.bookstore.model.BookCategory;
+import com.georgeradu.bookstore.model.User;
+import com.georgeradu.bookstore.model.UserRole;
+import com.georgeradu.bookstore.repository.BookCategoryRepository;
+import com.georgeradu.bookstore.repository.BookRepository;
+import com.georgeradu.bookstore.repository.UserRepository;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// saves the users, categories and books the integration tests and benchmarks run against the real database, add it
+// to the test context with @Import(CatalogFixtures.class). Emails and category names are unique, so tests that
+// commit their data do not collide with earlier runs
+@TestComponent
+public class CatalogFixtures {
+    private final UserRepository userRepository;
+    private final BookCategoryRepository bookCategoryRepository;
+    private final BookRepository bookRepository;
+
+    public CatalogFixtures(
+            UserRepository userRepository, BookCategoryRepository bookCategoryRepository, BookRepository bookRepository
+    ) {
+        this.userRepository = userRepository;
+        this.bookCategoryRepository = bookCategoryRepository;
+        this.bookRepository = bookRepository;
+    }
+
+    public User createUser(LocalDateTime timestamp) {
+        return userRepository.save(User
+                .builder()
+                .firstName("firstNameValue")
+                .lastName("lastNameValue")
+                .email(UUID.randomUUID() + "@fixtures.com")
+                .password("passwordValue")
+                .role(UserRole.ROLE_USER)
+                .createdAt(timestamp)
+                .updatedAt(timestamp)
+                .build());
+    }
+
+    public BookCategory createCategory(LocalDateTime timestamp) {
+        return bookCategoryRepository.save(
+                new BookCategory(null, "nameValue" + UUID.randomUUID(), "descriptionValue", timestamp, timestamp,
+                        null));
+    }
+
+    // count books priced 10 with quantity copies in stock each
+    public List<Book> createBooks(BookCategory category, int count, int quantity, LocalDateTime timestamp) {
+        var books = new ArrayList<Book>(count);
+        for (int i = 0; i < count; i++) {
+            books.add(new Book(null, "titleValue" + i, "authorValue", "descriptionValue", BigDecimal.valueOf(10),
+                    "imageUrl", quantity, "language", "publisher", timestamp, "isbn10", "isbn13", "dimensions", 0,
+                    category, timestamp, timestamp, null));
+        }
+        return bookRepository.saveAll(books);
+    }
+
+    public Book createBook(BookCategory category, int quantity, LocalDateTime timestamp) {
+        return createBooks(category, 1, quantity, timestamp).get(0);
+    }
+}
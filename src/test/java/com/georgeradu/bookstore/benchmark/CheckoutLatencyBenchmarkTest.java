@@ -0,0 +1,95 @@
+package com.georgeradu.bookstore.benchmark;
+
+import com.georgeradu.bookstore.CatalogFixtures;
+import com.georgeradu.bookstore.model.*;
+import com.georgeradu.bookstore.repository.ShoppingCartItemRepository;
+import com.georgeradu.bookstore.service.OrderService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// measures checkout latency against the cart size on the real database, every run is rolled back.
+// run with: mvn test -Dtest=CheckoutLatencyBenchmarkTest -Dbenchmark=true
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Import(CatalogFixtures.class)
+public class CheckoutLatencyBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(CheckoutLatencyBenchmarkTest.class);
+    private static final int[] CART_SIZES = {1, 10, 50, 100};
+    private static final int WARMUP_RUNS = 5;
+    private static final int MEASURED_RUNS = 20;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CatalogFixtures catalogFixtures;
+    @Autowired
+    private ShoppingCartItemRepository shoppingCartItemRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Checkout latency by cart size")
+    void benchmark_saveUserShoppingCartAsOrder() {
+        log.info(String.format("%10s %12s %12s", "cart size", "median ms", "p95 ms"));
+        for (var cartSize : CART_SIZES) {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                runCheckout(cartSize);
+            }
+            var timings = new long[MEASURED_RUNS];
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                timings[i] = runCheckout(cartSize);
+            }
+            Arrays.sort(timings);
+            log.info(String.format("%10d %12.3f %12.3f", cartSize, timings[MEASURED_RUNS / 2] / 1e6,
+                    timings[(int) Math.ceil(MEASURED_RUNS * 0.95) - 1] / 1e6));
+        }
+    }
+
+    // fills a cart with the given number of books and returns the checkout time in nanoseconds, including the flush
+    // of the order items and the cart delete
+    private long runCheckout(int cartSize) {
+        var elapsed = transactionTemplate.execute(status -> {
+            var user = createUserWithCart(cartSize);
+            entityManager.flush();
+            entityManager.clear();
+
+            var start = System.nanoTime();
+            var orderInfo = orderService.saveUserShoppingCartAsOrder(user.getId(), "shippingAddressValue");
+            entityManager.flush();
+            var time = System.nanoTime() - start;
+
+            Assertions.assertNotNull(orderInfo.getId());
+            status.setRollbackOnly();
+            return time;
+        });
+        return elapsed == null ? 0 : elapsed;
+    }
+
+    private User createUserWithCart(int cartSize) {
+        var timestamp = LocalDateTime.now();
+        var user = catalogFixtures.createUser(timestamp);
+        var category = catalogFixtures.createCategory(timestamp);
+
+        var cart = new ArrayList<ShoppingCartItem>(cartSize);
+        for (var book : catalogFixtures.createBooks(category, cartSize, 1000, timestamp)) {
+            cart.add(new ShoppingCartItem(null, user, book, 1, timestamp, timestamp, null));
+        }
+        shoppingCartItemRepository.saveAll(cart);
+        return user;
+    }
+}
@@ -0,0 +1,106 @@
+package com.georgeradu.bookstore.benchmark;
+
+import com.georgeradu.bookstore.CatalogFixtures;
+import com.georgeradu.bookstore.exception.IllegalEntityStateException;
+import com.georgeradu.bookstore.model.*;
+import com.georgeradu.bookstore.repository.BookCategoryRepository;
+import com.georgeradu.bookstore.repository.BookRepository;
+import com.georgeradu.bookstore.repository.ShoppingCartItemRepository;
+import com.georgeradu.bookstore.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// hundreds of users check out the same hot title in parallel, exactly the available stock must be sold.
+// the data is committed and removed after the run.
+// run with: mvn test -Dtest=ParallelCheckoutBenchmarkTest -Dbenchmark=true
+@SpringBootTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Import(CatalogFixtures.class)
+public class ParallelCheckoutBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(ParallelCheckoutBenchmarkTest.class);
+    private static final int USERS = 300;
+    private static final int THREADS = 32;
+    private static final int STOCK = 100;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CatalogFixtures catalogFixtures;
+    @Autowired
+    private BookCategoryRepository bookCategoryRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ShoppingCartItemRepository shoppingCartItemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BookCategory category;
+    private Book book;
+    private final List<User> users = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        var userIds = users.stream().map(User::getId).toArray();
+        var placeholders = String.join(",", Collections.nCopies(userIds.length, "?"));
+        jdbcTemplate.update("DELETE FROM order_item WHERE order_id IN (SELECT id FROM order_info WHERE user_id IN (" +
+                            placeholders + "))", userIds);
+        jdbcTemplate.update("DELETE FROM order_info WHERE user_id IN (" + placeholders + ")", userIds);
+        jdbcTemplate.update("DELETE FROM shopping_cart_item WHERE user_id IN (" + placeholders + ")", userIds);
+        jdbcTemplate.update("DELETE FROM app_user WHERE id IN (" + placeholders + ")", userIds);
+        bookRepository.deleteById(book.getId());
+        bookCategoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    @DisplayName("Parallel checkouts on a hot title never oversell")
+    void benchmark_parallelCheckoutOnHotTitle() throws Exception {
+        var timestamp = LocalDateTime.now();
+        category = catalogFixtures.createCategory(timestamp);
+        book = catalogFixtures.createBook(category, STOCK, timestamp);
+        for (int i = 0; i < USERS; i++) {
+            var user = catalogFixtures.createUser(timestamp);
+            shoppingCartItemRepository.save(new ShoppingCartItem(null, user, book, 1, timestamp, timestamp, null));
+            users.add(user);
+        }
+
+        var placed = new AtomicInteger();
+        var outOfStock = new AtomicInteger();
+        var start = System.nanoTime();
+        try (var executor = Executors.newFixedThreadPool(THREADS)) {
+            for (var user : users) {
+                executor.submit(() -> {
+                    try {
+                        orderService.saveUserShoppingCartAsOrder(user.getId(), "shippingAddressValue");
+                        placed.incrementAndGet();
+                    } catch (IllegalEntityStateException e) {
+                        outOfStock.incrementAndGet();
+                    }
+                });
+            }
+        }
+        var elapsedMs = (System.nanoTime() - start) / 1e6;
+
+        log.info(String.format("%d checkouts on %d threads in %.1f ms, %d placed, %d out of stock", USERS, THREADS,
+                elapsedMs, placed.get(), outOfStock.get()));
+        Assertions.assertEquals(STOCK, placed.get());
+        Assertions.assertEquals(USERS - STOCK, outOfStock.get());
+        Assertions.assertEquals(0, bookRepository.findById(book.getId()).orElseThrow().getQuantity());
+    }
+}
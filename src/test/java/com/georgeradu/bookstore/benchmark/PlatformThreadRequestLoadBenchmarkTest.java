@@ -0,0 +1,17 @@
+package com.georgeradu.bookstore.benchmark;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+
+// run with: mvn test -Dtest='*ThreadRequestLoadBenchmarkTest' -Dbenchmark=true
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=false",
+        "app.cache.books.enabled=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PlatformThreadRequestLoadBenchmarkTest extends RequestLoadBenchmark {
+    @Override
+    String mode() {
+        return "platform threads";
+    }
+}
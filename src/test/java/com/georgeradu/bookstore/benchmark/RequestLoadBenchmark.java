@@ -0,0 +1,111 @@
+package com.georgeradu.bookstore.benchmark;
+
+import com.georgeradu.bookstore.CatalogFixtures;
+import com.georgeradu.bookstore.model.*;
+import com.georgeradu.bookstore.repository.BookCategoryRepository;
+import com.georgeradu.bookstore.repository.BookRepository;
+import com.georgeradu.bookstore.repository.UserRepository;
+import com.georgeradu.bookstore.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// thousands of clients read a book at once, every request goes to postgres (the book cache is off). The subclasses
+// run the same load with the server on platform threads and on virtual threads, compare the logged results.
+// the data is committed and removed after the run
+@Import(CatalogFixtures.class)
+abstract class RequestLoadBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(RequestLoadBenchmark.class);
+    private static final int REQUESTS = 20_000;
+    private static final int CLIENTS = 2_000;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BookCategoryRepository bookCategoryRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CatalogFixtures catalogFixtures;
+
+    private BookCategory category;
+    private Book book;
+    private User user;
+
+    abstract String mode();
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteById(book.getId());
+        bookCategoryRepository.deleteById(category.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("Concurrent book reads")
+    void benchmark_concurrentBookReads() throws Exception {
+        var timestamp = LocalDateTime.now();
+        category = catalogFixtures.createCategory(timestamp);
+        book = catalogFixtures.createBook(category, 100, timestamp);
+        user = catalogFixtures.createUser(timestamp);
+        var request = HttpRequest
+                .newBuilder(URI.create("http://localhost:" + port + "/book/" + book.getId()))
+                .header("Authorization", "Bearer " + jwtService.generateToken(user))
+                .timeout(Duration.ofMinutes(1))
+                .build();
+
+        var latenciesNs = new long[REQUESTS];
+        var failed = new AtomicInteger();
+        var clients = new Semaphore(CLIENTS);
+        var start = System.nanoTime();
+        try (var httpClient = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+             var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < REQUESTS; i++) {
+                var index = i;
+                clients.acquire();
+                executor.submit(() -> {
+                    var requestStart = System.nanoTime();
+                    try {
+                        if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                            failed.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    } finally {
+                        latenciesNs[index] = System.nanoTime() - requestStart;
+                        clients.release();
+                    }
+                });
+            }
+        }
+        var elapsedMs = (System.nanoTime() - start) / 1e6;
+
+        Arrays.sort(latenciesNs);
+        log.info(String.format("%s: %d requests from %d clients in %.1f ms (%.0f req/s), p50 %.1f ms, p99 %.1f ms, " +
+                               "max %.1f ms, %d failed", mode(), REQUESTS, CLIENTS, elapsedMs,
+                REQUESTS / elapsedMs * 1000, latenciesNs[REQUESTS / 2] / 1e6, latenciesNs[REQUESTS * 99 / 100] / 1e6,
+                latenciesNs[REQUESTS - 1] / 1e6, failed.get()));
+        Assertions.assertEquals(0, failed.get());
+    }
+}
@@ -0,0 +1,90 @@
+package com.georgeradu.bookstore.config;
+
+import org.junit.jupiter.api.*;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.mockito.Mockito.*;
+
+public class BoundedDataSourceTest {
+    private DataSource targetDataSource;
+    private Connection connection;
+    private BoundedDataSource boundedDataSource;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        targetDataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        boundedDataSource = new BoundedDataSource(targetDataSource, 2, 50);
+    }
+
+    @AfterEach
+    void tearDown() {}
+
+    @Nested
+    @DisplayName("Test getConnection method")
+    class TestGetConnection {
+        @Test
+        @DisplayName("Should time out when every permit is held")
+        void test_getConnection_shouldTimeOutWhenEveryPermitIsHeld() throws SQLException {
+            // Arrange
+            boundedDataSource.getConnection();
+            boundedDataSource.getConnection();
+
+            // Act
+
+            // Assert
+            Assertions.assertEquals(0, boundedDataSource.getAvailablePermits());
+            Assertions.assertThrows(SQLTransientConnectionException.class, () -> boundedDataSource.getConnection());
+        }
+
+        @Test
+        @DisplayName("Should release the permit once when the connection is closed")
+        void test_getConnection_shouldReleasePermitOnceOnClose() throws SQLException {
+            // Arrange
+            var first = boundedDataSource.getConnection();
+            boundedDataSource.getConnection();
+
+            // Act
+            first.close();
+            first.close();
+
+            // Assert
+            verify(connection, times(2)).close();
+            Assertions.assertEquals(1, boundedDataSource.getAvailablePermits());
+            Assertions.assertDoesNotThrow(() -> boundedDataSource.getConnection());
+            Assertions.assertThrows(SQLTransientConnectionException.class, () -> boundedDataSource.getConnection());
+        }
+
+        @Test
+        @DisplayName("Should release the permit when the pool throws")
+        void test_getConnection_shouldReleasePermitWhenPoolThrows() throws SQLException {
+            // Arrange
+            when(targetDataSource.getConnection()).thenThrow(new SQLException("pool is closed"));
+
+            // Act
+
+            // Assert
+            Assertions.assertThrows(SQLException.class, () -> boundedDataSource.getConnection());
+            Assertions.assertEquals(2, boundedDataSource.getAvailablePermits());
+        }
+
+        @Test
+        @DisplayName("Should delegate the other calls to the pooled connection")
+        void test_getConnection_shouldDelegateOtherCalls() throws SQLException {
+            // Arrange
+            when(connection.getAutoCommit()).thenReturn(false);
+
+            // Act
+            var pooled = boundedDataSource.getConnection();
+
+            // Assert
+            Assertions.assertFalse(pooled.getAutoCommit());
+            Assertions.assertSame(pooled, pooled.unwrap(Connection.class));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.georgeradu.bookstore.config;
+
+import org.junit.jupiter.api.*;
+
+public class PasswordConfigTest {
+    @Nested
+    @DisplayName("Test strengthFor method")
+    class TestStrengthFor {
+        @Test
+        @DisplayName("Should pick the highest strength within the target latency")
+        void test_strengthFor_shouldPickHighestStrengthWithinTarget() {
+            Assertions.assertEquals(12, PasswordConfig.strengthFor(60, 250));
+            Assertions.assertEquals(12, PasswordConfig.strengthFor(60, 240));
+            Assertions.assertEquals(11, PasswordConfig.strengthFor(60, 239));
+        }
+
+        @Test
+        @DisplayName("Should keep the strength between the minimum and the maximum")
+        void test_strengthFor_shouldClampStrength() {
+            Assertions.assertEquals(PasswordConfig.MIN_STRENGTH, PasswordConfig.strengthFor(500, 250));
+            Assertions.assertEquals(PasswordConfig.MAX_STRENGTH, PasswordConfig.strengthFor(1, 100_000));
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.georgeradu.bookstore.dto.LoginRequest;
 import com.georgeradu.bookstore.dto.RegisterRequest;
 import com.georgeradu.bookstore.exception.UserAlreadyExistsException;
 import com.georgeradu.bookstore.exception.InvalidLoginException;
+import com.georgeradu.bookstore.exception.TooManyRequestsException;
 import com.georgeradu.bookstore.service.AuthenticationService;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +16,8 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -51,14 +54,18 @@ public class AuthControllerTest {
             registerRequest.setPassword("passwordValue123!@#");
 
             // Act
-            when(authenticationService.register(registerRequest)).thenReturn(
-                    new JwtAuthenticationResponse("tokenValue"));
+            when(authenticationService.register(registerRequest))
+                    .thenReturn(CompletableFuture.completedFuture(new JwtAuthenticationResponse("tokenValue")));
 
             // Assert
-            mockMvc
+            var asyncResult = mockMvc
                     .perform(post("/auth/register")
                             .contentType("application/json")
                             .content(objectMapper.writeValueAsString(registerRequest)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc
+                    .perform(asyncDispatch(asyncResult))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType("application/json"))
                     .andExpect(jsonPath("$.token").exists())
@@ -76,14 +83,18 @@ public class AuthControllerTest {
             registerRequest.setPassword("passwordValue123!@#");
 
             // Act - assume the user already exists
-            when(authenticationService.register(registerRequest)).thenThrow(
-                    new UserAlreadyExistsException("User with email " + registerRequest.getEmail()));
+            when(authenticationService.register(registerRequest)).thenReturn(CompletableFuture.failedFuture(
+                    new UserAlreadyExistsException("User with email " + registerRequest.getEmail())));
 
             // Assert
-            mockMvc
+            var asyncResult = mockMvc
                     .perform(post("/auth/register")
                             .contentType("application/json")
                             .content(objectMapper.writeValueAsString(registerRequest)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc
+                    .perform(asyncDispatch(asyncResult))
                     .andExpect(status().isConflict())
                     .andExpect(result -> Assertions.assertTrue(
                             result.getResolvedException() instanceof UserAlreadyExistsException))
@@ -105,13 +116,18 @@ public class AuthControllerTest {
             loginRequest.setPassword("passwordValue123!@#");
 
             // Act
-            when(authenticationService.login(loginRequest)).thenReturn(new JwtAuthenticationResponse("tokenValue"));
+            when(authenticationService.login(loginRequest, "127.0.0.1"))
+                    .thenReturn(CompletableFuture.completedFuture(new JwtAuthenticationResponse("tokenValue")));
 
             // Assert
-            mockMvc
+            var asyncResult = mockMvc
                     .perform(post("/auth/login")
                             .contentType("application/json")
                             .content(objectMapper.writeValueAsString(loginRequest)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc
+                    .perform(asyncDispatch(asyncResult))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType("application/json"))
                     .andExpect(jsonPath("$.token").exists())
@@ -127,18 +143,45 @@ public class AuthControllerTest {
             loginRequest.setPassword("passwordValue123!@#");
 
             // Act
-            when(authenticationService.login(loginRequest)).thenThrow(new InvalidLoginException());
+            when(authenticationService.login(loginRequest, "127.0.0.1"))
+                    .thenReturn(CompletableFuture.failedFuture(new InvalidLoginException()));
 
             // Assert
-            mockMvc
+            var asyncResult = mockMvc
                     .perform(post("/auth/login")
                             .contentType("application/json")
                             .content(objectMapper.writeValueAsString(loginRequest)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc
+                    .perform(asyncDispatch(asyncResult))
                     .andExpect(status().isBadRequest())
                     .andExpect(result -> Assertions.assertTrue(
                             result.getResolvedException() instanceof InvalidLoginException))
                     .andExpect(result -> Assertions.assertEquals("Invalid user credentials",
                             result.getResolvedException().getMessage()));
         }
+
+        @Test
+        @DisplayName("Should fail to login when rate limited")
+        void test_login_shouldFailWhenRateLimited() throws Exception {
+            // Arrange
+            LoginRequest loginRequest = new LoginRequest();
+            loginRequest.setEmail("valid@email.com");
+            loginRequest.setPassword("passwordValue123!@#");
+
+            // Act
+            when(authenticationService.login(loginRequest, "127.0.0.1"))
+                    .thenThrow(new TooManyRequestsException("too many login attempts for this account"));
+
+            // Assert
+            mockMvc
+                    .perform(post("/auth/login")
+                            .contentType("application/json")
+                            .content(objectMapper.writeValueAsString(loginRequest)))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(result -> Assertions.assertTrue(
+                            result.getResolvedException() instanceof TooManyRequestsException));
+        }
     }
 }
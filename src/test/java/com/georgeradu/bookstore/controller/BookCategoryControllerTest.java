@@ -1,6 +1,7 @@
 package com.georgeradu.bookstore.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.georgeradu.bookstore.dto.BookCategoriesSnapshot;
 import com.georgeradu.bookstore.dto.BookCategoryRequest;
 import com.georgeradu.bookstore.dto.BookCategoryResponse;
 import com.georgeradu.bookstore.model.BookCategory;
@@ -9,7 +10,6 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -28,7 +28,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 public class BookCategoryControllerTest {
     private final static LocalDateTime NOW = LocalDateTime.now();
 
-    @MockBean
+    @Mock
     private Clock clock;
     private Clock fixedClock;
     @Mock
@@ -78,32 +78,55 @@ public class BookCategoryControllerTest {
                     .andExpect(jsonPath("$.name").value(bookCategoryResponse.getName()))
                     .andExpect(jsonPath("$.description").value(bookCategoryResponse.getDescription()));
         }
+
+        @Test
+        @DisplayName("Should return not modified when the book category did not change since the given date")
+        @WithMockUser(username = "emailValue", roles = {"USER"})
+        void test_getBookCategory_shouldReturnNotModifiedWhenNotChanged() throws Exception {
+            // Arrange
+            var bookCategory = new BookCategory(1L, "nameValue", "descriptionValue", LocalDateTime.now(clock),
+                    LocalDateTime.now(clock), null);
+
+            // Act
+            when(bookCategoryService.getBookCategory(1L)).thenReturn(bookCategory);
+            var lastModified = mockMvc
+                    .perform(get("/book-category/1"))
+                    .andExpect(header().exists("ETag"))
+                    .andReturn()
+                    .getResponse()
+                    .getHeader("Last-Modified");
+
+            // Assert
+            mockMvc
+                    .perform(get("/book-category/1").header("If-Modified-Since", lastModified))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().bytes(new byte[0]));
+        }
     }
 
     @Nested
     @DisplayName("Test getBookCategories endpoint")
     class TestGetBookCategoriesEndpoint {
         @Test
-        @DisplayName("Should return all book categories")
+        @DisplayName("Should return all book categories with their etag")
         @WithMockUser(username = "emailValue", roles = {"USER"})
         void test_getBookCategories_shouldReturnBookCategories() throws Exception {
             // Arrange
-            var bookCategory1 = new BookCategory(1L, "nameValue1", "descriptionValue1", LocalDateTime.now(clock),
-                    LocalDateTime.now(clock), null);
-            var bookCategory2 = new BookCategory(2L, "nameValue2", "descriptionValue2", LocalDateTime.now(clock),
-                    LocalDateTime.now(clock), null);
             var bookCategoryResponse1 = new BookCategoryResponse(1L, "nameValue1", "descriptionValue1");
             var bookCategoryResponse2 = new BookCategoryResponse(2L, "nameValue2", "descriptionValue2");
+            var responses = List.of(bookCategoryResponse1, bookCategoryResponse2);
+            var snapshot = new BookCategoriesSnapshot(responses, objectMapper.writeValueAsBytes(responses),
+                    "\"etagValue\"");
 
             // Act
-            when(bookCategoryService.getBookCategories()).thenReturn(
-                    List.of(new BookCategory[]{bookCategory1, bookCategory2}));
+            when(bookCategoryService.getBookCategories()).thenReturn(snapshot);
 
             // Assert
             mockMvc
                     .perform(get("/book-category"))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType("application/json"))
+                    .andExpect(header().string("ETag", "\"etagValue\""))
                     .andExpect(jsonPath("$[0].id").value(bookCategoryResponse1.getId()))
                     .andExpect(jsonPath("$[0].name").value(bookCategoryResponse1.getName()))
                     .andExpect(jsonPath("$[0].description").value(bookCategoryResponse1.getDescription()))
@@ -111,6 +134,26 @@ public class BookCategoryControllerTest {
                     .andExpect(jsonPath("$[1].name").value(bookCategoryResponse2.getName()))
                     .andExpect(jsonPath("$[1].description").value(bookCategoryResponse2.getDescription()));
         }
+
+        @Test
+        @DisplayName("Should return not modified when the etag matches")
+        @WithMockUser(username = "emailValue", roles = {"USER"})
+        void test_getBookCategories_shouldReturnNotModifiedWhenEtagMatches() throws Exception {
+            // Arrange
+            var responses = List.of(new BookCategoryResponse(1L, "nameValue1", "descriptionValue1"));
+            var snapshot = new BookCategoriesSnapshot(responses, objectMapper.writeValueAsBytes(responses),
+                    "\"etagValue\"");
+
+            // Act
+            when(bookCategoryService.getBookCategories()).thenReturn(snapshot);
+
+            // Assert
+            mockMvc
+                    .perform(get("/book-category").header("If-None-Match", "\"etagValue\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", "\"etagValue\""))
+                    .andExpect(content().bytes(new byte[0]));
+        }
     }
 
     @Nested
@@ -2,24 +2,35 @@ package com.georgeradu.bookstore.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.georgeradu.bookstore.dto.BookImportFormat;
+import com.georgeradu.bookstore.dto.BookImportProgress;
 import com.georgeradu.bookstore.dto.BookRequest;
 import com.georgeradu.bookstore.dto.BookResponse;
 import com.georgeradu.bookstore.model.Book;
 import com.georgeradu.bookstore.model.BookCategory;
+import com.georgeradu.bookstore.model.BookRating;
+import com.georgeradu.bookstore.service.BookImportService;
+import com.georgeradu.bookstore.service.BookRatingService;
 import com.georgeradu.bookstore.service.BookService;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.Mockito.*;
@@ -33,11 +44,15 @@ public class BookControllerTest {
     private Book BOOK1, BOOK2;
     private BookResponse BOOK_RESPONSE1, BOOK_RESPONSE2;
 
-    @MockBean
+    @Mock
     private Clock clock;
     private Clock fixedClock;
     @Mock
     private BookService bookService;
+    @Mock
+    private BookRatingService bookRatingService;
+    @Mock
+    private BookImportService bookImportService;
     @InjectMocks
     private BookController bookController;
     private MockMvc mockMvc;
@@ -60,18 +75,18 @@ public class BookControllerTest {
                 LocalDateTime.now(clock), LocalDateTime.now(clock), null);
         BOOK_CATEGORY2 = new BookCategory(2L, "nameValue2", "descriptionValue2",
                 LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        BOOK1 = new Book(1L, "titleValue1", "authorValue1", "descriptionValue1", 1, "imageUrl1",
+        BOOK1 = new Book(1L, "titleValue1", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1), "imageUrl1",
                 1, "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131", "dimensions1", 0,
                 BOOK_CATEGORY1, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        BOOK2 = new Book(2L, "titleValue2", "authorValue2", "descriptionValue2", 2, "imageUrl2",
+        BOOK2 = new Book(2L, "titleValue2", "authorValue2", "descriptionValue2", BigDecimal.valueOf(2), "imageUrl2",
                 2, "language2", "publisher2", LocalDateTime.now(clock), "isbn102", "isbn132", "dimensions2", 0,
                 BOOK_CATEGORY1, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        BOOK_RESPONSE1 = new BookResponse(1L, "titleValue1", "authorValue1",
-                "descriptionValue1", 1, "imageUrl1", 1, "language1", "publisher1", LocalDateTime.now(clock), "isbn101",
-                "isbn131", "dimensions1", 1L);
-        BOOK_RESPONSE2 = new BookResponse(2L, "titleValue2", "authorValue2",
-                "descriptionValue2", 2, "imageUrl2", 2, "language2", "publisher2", LocalDateTime.now(clock), "isbn102",
-                "isbn132", "dimensions2", 1L);
+        BOOK_RESPONSE1 = new BookResponse(1L, "titleValue1", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1),
+                "imageUrl1", 1, "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131",
+                "dimensions1", 1L, 0, 0L);
+        BOOK_RESPONSE2 = new BookResponse(2L, "titleValue2", "authorValue2", "descriptionValue2", BigDecimal.valueOf(2),
+                "imageUrl2", 2, "language2", "publisher2", LocalDateTime.now(clock), "isbn102", "isbn132",
+                "dimensions2", 1L, 0, 0L);
     }
 
     @AfterEach
@@ -89,6 +104,80 @@ public class BookControllerTest {
 
             // Act
             when(bookService.getBook(book.getId())).thenReturn(book);
+            when(bookRatingService.getBookRating(book.getId())).thenReturn(new BookRating(book.getId()));
+
+            // Assert
+            MvcResult actualResult = mockMvc
+                    .perform(get("/book/{id}", bookResponse.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("ETag"))
+                    .andExpect(header().exists("Last-Modified"))
+                    .andReturn();
+
+            Assertions.assertEquals(objectMapper.writeValueAsString(bookResponse),
+                    actualResult.getResponse().getContentAsString());
+        }
+
+        @Test
+        @DisplayName("Should return not modified when the etag matches")
+        void test_getBook_shouldReturnNotModifiedWhenEtagMatches() throws Exception {
+            // Arrange
+            var book = BOOK1;
+
+            // Act
+            when(bookService.getBook(book.getId())).thenReturn(book);
+            when(bookRatingService.getBookRating(book.getId())).thenReturn(new BookRating(book.getId()));
+            var etag = mockMvc
+                    .perform(get("/book/{id}", book.getId()))
+                    .andReturn()
+                    .getResponse()
+                    .getHeader("ETag");
+
+            // Assert
+            mockMvc
+                    .perform(get("/book/{id}", book.getId()).header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag))
+                    .andExpect(content().bytes(new byte[0]));
+        }
+
+        @Test
+        @DisplayName("Should change the etag when a review changes the rating")
+        void test_getBook_shouldChangeEtagWhenRatingChanges() throws Exception {
+            // Arrange
+            var book = BOOK1;
+
+            // Act
+            when(bookService.getBook(book.getId())).thenReturn(book);
+            when(bookRatingService.getBookRating(book.getId())).thenReturn(new BookRating(book.getId()));
+            var etag = mockMvc
+                    .perform(get("/book/{id}", book.getId()))
+                    .andReturn()
+                    .getResponse()
+                    .getHeader("ETag");
+            when(bookRatingService.getBookRating(book.getId()))
+                    .thenReturn(new BookRating(book.getId(), 1, 5, 0, 0, 0, 0, 1));
+
+            // Assert
+            mockMvc
+                    .perform(get("/book/{id}", book.getId()).header("If-None-Match", etag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.reviewCount").value(1));
+        }
+
+        @Test
+        @DisplayName("Should return book with its average rating and review count")
+        void test_getBook_shouldReturnBookWithRating() throws Exception {
+            // Arrange
+            var book = BOOK1;
+            var bookResponse = BOOK_RESPONSE1;
+            bookResponse.setAverageRating(3.5);
+            bookResponse.setReviewCount(2);
+
+            // Act
+            when(bookService.getBook(book.getId())).thenReturn(book);
+            when(bookRatingService.getBookRating(book.getId()))
+                    .thenReturn(new BookRating(book.getId(), 2, 7, 0, 0, 1, 1, 0));
 
             // Assert
             MvcResult actualResult = mockMvc
@@ -104,6 +193,52 @@ public class BookControllerTest {
     @Nested
     @DisplayName("Test getBooksByCategoryId endpoint")
     class TestGetBooksByCategoryIdEndpoint {
+        @Test
+        @DisplayName("Should return the page of books with its etag")
+        void test_getBooksByCategoryId_shouldReturnBooks() throws Exception {
+            // Arrange
+            var page = new PageImpl<>(List.of(BOOK1, BOOK2), PageRequest.of(0, 20), 2);
+
+            // Act
+            when(bookService.getBooksByCategoryId(BOOK_CATEGORY1.getId(), Optional.empty(), Optional.empty()))
+                    .thenReturn(page);
+            when(bookRatingService.getBookRatings(List.of(BOOK1.getId(), BOOK2.getId())))
+                    .thenReturn(Map.of(BOOK1.getId(), new BookRating(BOOK1.getId()), BOOK2.getId(),
+                            new BookRating(BOOK2.getId())));
+
+            // Assert
+            mockMvc
+                    .perform(get("/book/category/{id}", BOOK_CATEGORY1.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("ETag"))
+                    .andExpect(jsonPath("$.content[0].id").value(BOOK_RESPONSE1.getId()))
+                    .andExpect(jsonPath("$.content[1].id").value(BOOK_RESPONSE2.getId()));
+        }
+
+        @Test
+        @DisplayName("Should return not modified when the etag matches")
+        void test_getBooksByCategoryId_shouldReturnNotModifiedWhenEtagMatches() throws Exception {
+            // Arrange
+            var page = new PageImpl<>(List.of(BOOK1, BOOK2), PageRequest.of(0, 20), 2);
+
+            // Act
+            when(bookService.getBooksByCategoryId(BOOK_CATEGORY1.getId(), Optional.empty(), Optional.empty()))
+                    .thenReturn(page);
+            when(bookRatingService.getBookRatings(List.of(BOOK1.getId(), BOOK2.getId())))
+                    .thenReturn(Map.of(BOOK1.getId(), new BookRating(BOOK1.getId()), BOOK2.getId(),
+                            new BookRating(BOOK2.getId())));
+            var etag = mockMvc
+                    .perform(get("/book/category/{id}", BOOK_CATEGORY1.getId()))
+                    .andReturn()
+                    .getResponse()
+                    .getHeader("ETag");
+
+            // Assert
+            mockMvc
+                    .perform(get("/book/category/{id}", BOOK_CATEGORY1.getId()).header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().bytes(new byte[0]));
+        }
     }
 
     @Nested
@@ -136,6 +271,29 @@ public class BookControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Test searchBooksRanked endpoint")
+    class TestSearchBooksRankedEndpoint {
+        @Test
+        @DisplayName("Should return page of books in ranked order")
+        void test_searchBooksRanked_shouldReturnPageOfBooksInRankedOrder() throws Exception {
+            // Arrange
+            var searchString = "titleValue";
+            var page = new PageImpl<>(List.of(BOOK2, BOOK1), PageRequest.of(0, 20), 2);
+
+            // Act
+            when(bookService.searchBooksRanked(Optional.of(searchString), Optional.of(0))).thenReturn(page);
+
+            // Assert
+            mockMvc
+                    .perform(get("/book/search/ranked?searchQuery=" + searchString + "&page=0"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(BOOK2.getId()))
+                    .andExpect(jsonPath("$.content[1].id").value(BOOK1.getId()))
+                    .andExpect(jsonPath("$.totalElements").value(2));
+        }
+    }
+
     @Nested
     @DisplayName("Test createBook endpoint")
     class TestCreateBookEndpoint {
@@ -214,4 +372,121 @@ public class BookControllerTest {
                     .andExpect(status().isOk());
         }
     }
+
+    @Nested
+    @DisplayName("Test getBookSliceByCategoryId endpoint")
+    class TestGetBookSliceByCategoryIdEndpoint {
+        @Test
+        @DisplayName("Should return the slice of books with the id to continue after")
+        void test_getBookSliceByCategoryId_shouldReturnBooksAndNextAfterId() throws Exception {
+            // Arrange
+            var slice = new SliceImpl<>(List.of(BOOK1, BOOK2), PageRequest.of(0, 2), true);
+
+            // Act
+            when(bookService.getBookSliceByCategoryId(BOOK_CATEGORY1.getId(), Optional.empty(), Optional.of(2),
+                    Optional.of(0L))).thenReturn(slice);
+            when(bookRatingService.getBookRatings(List.of(BOOK1.getId(), BOOK2.getId())))
+                    .thenReturn(Map.of(BOOK1.getId(), new BookRating(BOOK1.getId()), BOOK2.getId(),
+                            new BookRating(BOOK2.getId())));
+
+            // Assert
+            mockMvc
+                    .perform(get("/book/category/{id}/slice", BOOK_CATEGORY1.getId())
+                            .param("size", "2")
+                            .param("afterId", "0"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].id").value(BOOK_RESPONSE1.getId()))
+                    .andExpect(jsonPath("$.content[1].id").value(BOOK_RESPONSE2.getId()))
+                    .andExpect(jsonPath("$.hasNext").value(true))
+                    .andExpect(jsonPath("$.nextAfterId").value(BOOK2.getId()));
+        }
+
+        @Test
+        @DisplayName("Should return no next id on the last slice")
+        void test_getBookSliceByCategoryId_shouldReturnNoNextAfterIdOnLastSlice() throws Exception {
+            // Arrange
+            var slice = new SliceImpl<>(List.of(BOOK1), PageRequest.of(0, 20), false);
+
+            // Act
+            when(bookService.getBookSliceByCategoryId(BOOK_CATEGORY1.getId(), Optional.empty(), Optional.empty(),
+                    Optional.empty())).thenReturn(slice);
+            when(bookRatingService.getBookRatings(List.of(BOOK1.getId())))
+                    .thenReturn(Map.of(BOOK1.getId(), new BookRating(BOOK1.getId())));
+
+            // Assert
+            mockMvc
+                    .perform(get("/book/category/{id}/slice", BOOK_CATEGORY1.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.hasNext").value(false))
+                    .andExpect(jsonPath("$.nextAfterId").doesNotExist());
+        }
+    }
+
+    @Nested
+    @DisplayName("Test exportBooks endpoint")
+    class TestExportBooksEndpoint {
+        @Test
+        @DisplayName("Should stream the books written by the service as ndjson")
+        void test_exportBooks_shouldStreamBooksAsNdjson() throws Exception {
+            // Arrange
+            var line = objectMapper.writeValueAsString(BOOK_RESPONSE1) + "\n";
+
+            // Act
+            doAnswer(invocation -> {
+                OutputStream outputStream = invocation.getArgument(0);
+                outputStream.write(line.getBytes(StandardCharsets.UTF_8));
+                return null;
+            }).when(bookService).exportBooks(any());
+
+            // Assert
+            MvcResult actualResult = mockMvc
+                    .perform(get("/book/export"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                    .andReturn();
+
+            Assertions.assertEquals(line, actualResult.getResponse().getContentAsString());
+        }
+    }
+
+    @Nested
+    @DisplayName("Test importBooks endpoint")
+    class TestImportBooksEndpoint {
+        @Test
+        @DisplayName("Should import a csv body and stream the progress written by the service")
+        void test_importBooks_shouldImportCsvBody() throws Exception {
+            // Arrange
+            var line = objectMapper.writeValueAsString(new BookImportProgress(1, 1, 0, List.of(), true)) + "\n";
+
+            // Act
+            doAnswer(invocation -> {
+                OutputStream outputStream = invocation.getArgument(2);
+                outputStream.write(line.getBytes(StandardCharsets.UTF_8));
+                return null;
+            }).when(bookImportService).importBooks(any(), eq(BookImportFormat.CSV), any());
+
+            // Assert
+            MvcResult actualResult = mockMvc
+                    .perform(post("/book/import").contentType("text/csv").content("title\ntitleValue1\n"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                    .andReturn();
+
+            Assertions.assertEquals(line, actualResult.getResponse().getContentAsString());
+        }
+
+        @Test
+        @DisplayName("Should import an ndjson body")
+        void test_importBooks_shouldImportNdjsonBody() throws Exception {
+            // Arrange
+
+            // Act
+
+            // Assert
+            mockMvc
+                    .perform(post("/book/import").contentType("application/x-ndjson").content("{}\n"))
+                    .andExpect(status().isOk());
+            verify(bookImportService).importBooks(any(), eq(BookImportFormat.NDJSON), any());
+        }
+    }
 }
@@ -2,6 +2,8 @@ package com.georgeradu.bookstore.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.georgeradu.bookstore.context.ResolvedUserContext;
+import com.georgeradu.bookstore.dto.OrderDetailsResponse;
 import com.georgeradu.bookstore.dto.OrderInfoResponse;
 import com.georgeradu.bookstore.dto.OrderItemResponse;
 import com.georgeradu.bookstore.model.*;
@@ -17,6 +19,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -41,6 +44,8 @@ public class OrderControllerTest {
     private Clock fixedClock;
     @Mock
     private OrderService orderService;
+    @Mock
+    private ResolvedUserContext resolvedUserContext;
     @InjectMocks
     private OrderController orderController;
     private MockMvc mockMvc;
@@ -55,6 +60,7 @@ public class OrderControllerTest {
                 Clock.systemDefaultZone().getZone());
         doReturn(fixedClock.instant()).when(clock).instant();
         doReturn(fixedClock.getZone()).when(clock).getZone();
+        doReturn(1L).when(resolvedUserContext).getUserId();
         mockMvc = MockMvcBuilders.standaloneSetup(orderController).build();
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
@@ -63,26 +69,28 @@ public class OrderControllerTest {
                 LocalDateTime.now(clock), LocalDateTime.now(clock), null);
         var bookCategory = new BookCategory(1L, "nameValue1", "descriptionValue1", LocalDateTime.now(clock),
                 LocalDateTime.now(clock), null);
-        book1 = new Book(1L, "titleValue1", "authorValue1", "descriptionValue1", 1, "imageUrl1", 1, "language1",
-                "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131", "dimensions1", 0, bookCategory,
-                LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        book2 = new Book(2L, "titleValue2", "authorValue2", "descriptionValue2", 2, "imageUrl2", 2, "language2",
-                "publisher2", LocalDateTime.now(clock), "isbn102", "isbn132", "dimensions2", 0, bookCategory,
-                LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        orderInfo = new OrderInfo(1L, user, 100.0, "shippingAddressValue", OrderStatus.PENDING, null,
-                LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        orderInfo2 = new OrderInfo(2L, user, 10.0, "shippingAddressValue", OrderStatus.DELIVERED,
+        book1 = new Book(1L, "titleValue1", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1), "imageUrl1", 1,
+                "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131", "dimensions1", 0,
+                bookCategory, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
+        book2 = new Book(2L, "titleValue2", "authorValue2", "descriptionValue2", BigDecimal.valueOf(2), "imageUrl2", 2,
+                "language2", "publisher2", LocalDateTime.now(clock), "isbn102", "isbn132", "dimensions2", 0,
+                bookCategory, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
+        orderInfo = new OrderInfo(1L, user, new BigDecimal("100.0"), "shippingAddressValue", OrderStatus.PENDING,
+                null, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
+        orderInfo2 = new OrderInfo(2L, user, new BigDecimal("10.0"), "shippingAddressValue", OrderStatus.DELIVERED,
                 LocalDateTime.now(clock), LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        orderItem1 = new OrderItem(1L, orderInfo, book1, 1, 100.0, LocalDateTime.now(clock), LocalDateTime.now(clock),
-                null);
-        orderItem2 = new OrderItem(2L, orderInfo, book2, 2, 200.0, LocalDateTime.now(clock), LocalDateTime.now(clock),
-                null);
-        orderInfoResponse = new OrderInfoResponse(1L, 1L, 100.0, "shippingAddressValue", OrderStatus.PENDING, null,
+        orderItem1 = new OrderItem(1L, orderInfo, book1, 1, new BigDecimal("100.0"), LocalDateTime.now(clock),
+                LocalDateTime.now(clock), null);
+        orderItem2 = new OrderItem(2L, orderInfo, book2, 2, new BigDecimal("200.0"), LocalDateTime.now(clock),
+                LocalDateTime.now(clock), null);
+        orderInfoResponse = new OrderInfoResponse(1L, 1L, new BigDecimal("100.0"), "shippingAddressValue",
+                OrderStatus.PENDING, null,
                 LocalDateTime.now(clock), LocalDateTime.now(clock));
-        orderInfoResponse2 = new OrderInfoResponse(2L, 1L, 10.0, "shippingAddressValue", OrderStatus.DELIVERED,
-                LocalDateTime.now(clock), LocalDateTime.now(clock), LocalDateTime.now(clock));
-        orderItemResponse1 = new OrderItemResponse(1L, 1L, 1L, 1, 100.0);
-        orderItemResponse2 = new OrderItemResponse(2L, 1L, 2L, 2, 200.0);
+        orderInfoResponse2 = new OrderInfoResponse(2L, 1L, new BigDecimal("10.0"), "shippingAddressValue",
+                OrderStatus.DELIVERED, LocalDateTime.now(clock), LocalDateTime.now(clock),
+                LocalDateTime.now(clock));
+        orderItemResponse1 = new OrderItemResponse(1L, 1L, 1L, 1, new BigDecimal("100.0"));
+        orderItemResponse2 = new OrderItemResponse(2L, 1L, 2L, 2, new BigDecimal("200.0"));
     }
 
     @AfterEach
@@ -99,7 +107,7 @@ public class OrderControllerTest {
             var shippingAddress = "shippingAddressValue";
 
             // Act
-            when(orderService.saveUserShoppingCartAsOrder("emailValue", shippingAddress)).thenReturn(orderInfo);
+            when(orderService.saveUserShoppingCartAsOrder(1L, shippingAddress)).thenReturn(orderInfo);
 
             // Assert
             MvcResult actualResult = mockMvc
@@ -126,7 +134,7 @@ public class OrderControllerTest {
             orderInfoResponse.setStatus(OrderStatus.CANCELLED);
 
             // Act
-            when(orderService.cancelOrder("emailValue", orderId)).thenReturn(orderInfo);
+            when(orderService.cancelOrder(1L, orderId)).thenReturn(orderInfo);
 
             // Assert
             MvcResult actualResult = mockMvc
@@ -178,7 +186,7 @@ public class OrderControllerTest {
             var orderId = 1L;
 
             // Act
-            when(orderService.getUserOrderInfoById("emailValue", orderId)).thenReturn(orderInfo);
+            when(orderService.getUserOrderInfoById(1L, orderId)).thenReturn(orderInfoResponse);
 
             // Assert
             MvcResult actualResult = mockMvc
@@ -202,8 +210,8 @@ public class OrderControllerTest {
             var orderId = 1L;
 
             // Act
-            when(orderService.getUserOrderItemsByOrderInfoId("emailValue", orderId)).thenReturn(
-                    List.of(orderItem1, orderItem2));
+            when(orderService.getUserOrderItemsByOrderInfoId(1L, orderId)).thenReturn(
+                    List.of(orderItemResponse1, orderItemResponse2));
 
             // Assert
             MvcResult actualResult = mockMvc
@@ -216,6 +224,32 @@ public class OrderControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Test get current user order details endpoint")
+    class TestGetCurrentUserOrderDetailsEndpoint {
+        @Test
+        @DisplayName("Should return current user order info with its items")
+        @WithMockUser(username = "emailValue", roles = {"USER"})
+        void test_getCurrentUserOrderDetails_shouldReturnOrderInfoWithItems() throws Exception {
+            // Arrange
+            var orderId = 1L;
+            var orderDetailsResponse = new OrderDetailsResponse(orderInfoResponse,
+                    List.of(orderItemResponse1, orderItemResponse2));
+
+            // Act
+            when(orderService.getUserOrderDetailsById(1L, orderId)).thenReturn(orderDetailsResponse);
+
+            // Assert
+            MvcResult actualResult = mockMvc
+                    .perform(get("/order/my-order/{orderId}", orderId))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            Assertions.assertEquals(objectMapper.writeValueAsString(orderDetailsResponse),
+                    actualResult.getResponse().getContentAsString());
+        }
+    }
+
     @Nested
     @DisplayName("Test get current user order history endpoint")
     class TestGetCurrentUserOrderHistoryEndpoint {
@@ -226,7 +260,7 @@ public class OrderControllerTest {
             // Arrange
 
             // Act
-            when(orderService.getUserOrderHistory("emailValue")).thenReturn(List.of(orderInfo, orderInfo2));
+            when(orderService.getUserOrderHistory(1L)).thenReturn(List.of(orderInfoResponse, orderInfoResponse2));
 
             // Assert
             MvcResult actualResult = mockMvc
@@ -274,7 +308,8 @@ public class OrderControllerTest {
             var orderId = 1L;
 
             // Act
-            when(orderService.getOrderItemsByOrderInfoId(orderId)).thenReturn(List.of(orderItem1, orderItem2));
+            when(orderService.getOrderItemsByOrderInfoId(orderId))
+                    .thenReturn(List.of(orderItemResponse1, orderItemResponse2));
 
             // Assert
             MvcResult actualResult = mockMvc
@@ -298,7 +333,8 @@ public class OrderControllerTest {
             var userId = 1L;
 
             // Act
-            when(orderService.getOrderHistoryForUserById(userId)).thenReturn(List.of(orderInfo, orderInfo2));
+            when(orderService.getOrderHistoryForUserById(userId))
+                    .thenReturn(List.of(orderInfoResponse, orderInfoResponse2));
 
             // Assert
             MvcResult actualResult = mockMvc
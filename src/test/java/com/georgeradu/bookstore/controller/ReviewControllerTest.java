@@ -1,6 +1,8 @@
 package com.georgeradu.bookstore.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.georgeradu.bookstore.context.ResolvedUserContext;
+import com.georgeradu.bookstore.dto.ReviewPageResponse;
 import com.georgeradu.bookstore.dto.ReviewRequest;
 import com.georgeradu.bookstore.dto.ReviewResponse;
 import com.georgeradu.bookstore.model.Book;
@@ -20,6 +22,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
@@ -37,6 +40,8 @@ public class ReviewControllerTest {
     private Clock fixedClock;
     @Mock
     private ReviewService reviewService;
+    @Mock
+    private ResolvedUserContext resolvedUserContext;
     @InjectMocks
     private ReviewController reviewController;
     private MockMvc mockMvc;
@@ -51,6 +56,7 @@ public class ReviewControllerTest {
                 Clock.systemDefaultZone().getZone());
         doReturn(fixedClock.instant()).when(clock).instant();
         doReturn(fixedClock.getZone()).when(clock).getZone();
+        doReturn(1L).when(resolvedUserContext).getUserId();
         mockMvc = MockMvcBuilders.standaloneSetup(reviewController).build();
         objectMapper = new ObjectMapper();
         var book = new Book();
@@ -93,16 +99,18 @@ public class ReviewControllerTest {
         void test_getReviewsForBook_shouldReturnReviewsForBook() throws Exception {
             // Arrange
             // Act
-            doReturn(List.of(review)).when(reviewService).getReviewsForBook(1L);
+            doReturn(new ReviewPageResponse(List.of(reviewResponse), "cursorValue2"))
+                    .when(reviewService).getReviewsForBook(1L, Optional.of("cursorValue1"), Optional.of(10));
             // Assert
-            mockMvc.perform(get("/review/for-book/1"))
+            mockMvc.perform(get("/review/for-book/1").param("cursor", "cursorValue1").param("size", "10"))
                    .andExpect(status().isOk())
                    .andExpect(content().contentType("application/json"))
-                   .andExpect(jsonPath("$[0].id").value(reviewResponse.getId()))
-                   .andExpect(jsonPath("$[0].bookId").value(reviewResponse.getBookId()))
-                   .andExpect(jsonPath("$[0].userId").value(reviewResponse.getUserId()))
-                   .andExpect(jsonPath("$[0].rating").value(reviewResponse.getRating()))
-                   .andExpect(jsonPath("$[0].comment").value(reviewResponse.getComment()));
+                   .andExpect(jsonPath("$.content[0].id").value(reviewResponse.getId()))
+                   .andExpect(jsonPath("$.content[0].bookId").value(reviewResponse.getBookId()))
+                   .andExpect(jsonPath("$.content[0].userId").value(reviewResponse.getUserId()))
+                   .andExpect(jsonPath("$.content[0].rating").value(reviewResponse.getRating()))
+                   .andExpect(jsonPath("$.content[0].comment").value(reviewResponse.getComment()))
+                   .andExpect(jsonPath("$.nextCursor").value("cursorValue2"));
         }
     }
 
@@ -114,16 +122,18 @@ public class ReviewControllerTest {
         void test_getReviewsForUser_shouldReturnReviewsForUser() throws Exception {
             // Arrange
             // Act
-            doReturn(List.of(review)).when(reviewService).getReviewsForUser(1L);
+            doReturn(new ReviewPageResponse(List.of(reviewResponse), "cursorValue2"))
+                    .when(reviewService).getReviewsForUser(1L, Optional.of("cursorValue1"), Optional.of(10));
             // Assert
-            mockMvc.perform(get("/review/for-user/1"))
+            mockMvc.perform(get("/review/for-user/1").param("cursor", "cursorValue1").param("size", "10"))
                    .andExpect(status().isOk())
                    .andExpect(content().contentType("application/json"))
-                   .andExpect(jsonPath("$[0].id").value(reviewResponse.getId()))
-                   .andExpect(jsonPath("$[0].bookId").value(reviewResponse.getBookId()))
-                   .andExpect(jsonPath("$[0].userId").value(reviewResponse.getUserId()))
-                   .andExpect(jsonPath("$[0].rating").value(reviewResponse.getRating()))
-                   .andExpect(jsonPath("$[0].comment").value(reviewResponse.getComment()));
+                   .andExpect(jsonPath("$.content[0].id").value(reviewResponse.getId()))
+                   .andExpect(jsonPath("$.content[0].bookId").value(reviewResponse.getBookId()))
+                   .andExpect(jsonPath("$.content[0].userId").value(reviewResponse.getUserId()))
+                   .andExpect(jsonPath("$.content[0].rating").value(reviewResponse.getRating()))
+                   .andExpect(jsonPath("$.content[0].comment").value(reviewResponse.getComment()))
+                   .andExpect(jsonPath("$.nextCursor").value("cursorValue2"));
         }
     }
 
@@ -138,7 +148,7 @@ public class ReviewControllerTest {
             var reviewRequest = new ReviewRequest(1L, 5, "reviewValue");
             var reviewResponse = new ReviewResponse(1L, 1L, 1L, 5, "reviewValue");
             // Act
-            doReturn(review).when(reviewService).createReview(reviewRequest, "emailValue");
+            doReturn(review).when(reviewService).createReview(reviewRequest, 1L);
             // Assert
             mockMvc.perform(post("/review")
                            .contentType("application/json")
@@ -164,7 +174,7 @@ public class ReviewControllerTest {
             var reviewRequest = new ReviewRequest(1L, 5, "reviewValue");
             var reviewResponse = new ReviewResponse(1L, 1L, 1L, 5, "reviewValue");
             // Act
-            doReturn(review).when(reviewService).updateReview(1L, reviewRequest, "emailValue");
+            doReturn(review).when(reviewService).updateReview(1L, reviewRequest, 1L);
             // Assert
             mockMvc.perform(put("/review/{id}", 1L)
                            .contentType("application/json")
@@ -188,7 +198,7 @@ public class ReviewControllerTest {
         void test_deleteReview_shouldDeleteReview() throws Exception {
             // Arrange
             // Act
-            doNothing().when(reviewService).deleteReview(1L, "emailValue");
+            doNothing().when(reviewService).deleteReview(1L, 1L);
             // Assert
             mockMvc.perform(delete("/review/1"))
                    .andExpect(status().isOk());
@@ -2,6 +2,7 @@ package com.georgeradu.bookstore.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.georgeradu.bookstore.context.ResolvedUserContext;
 import com.georgeradu.bookstore.dto.ShoppingCartItemRequest;
 import com.georgeradu.bookstore.dto.ShoppingCartItemResponse;
 import com.georgeradu.bookstore.model.*;
@@ -16,6 +17,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -37,6 +39,8 @@ public class ShoppingCartControllerTest {
     private Clock fixedClock;
     @Mock
     private ShoppingCartItemService shoppingCartItemService;
+    @Mock
+    private ResolvedUserContext resolvedUserContext;
     @InjectMocks
     private ShoppingCartController shoppingCartController;
     private MockMvc mockMvc;
@@ -51,6 +55,7 @@ public class ShoppingCartControllerTest {
                 Clock.systemDefaultZone().getZone());
         doReturn(fixedClock.instant()).when(clock).instant();
         doReturn(fixedClock.getZone()).when(clock).getZone();
+        doReturn(1L).when(resolvedUserContext).getUserId();
         mockMvc = MockMvcBuilders.standaloneSetup(shoppingCartController).build();
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
@@ -59,12 +64,12 @@ public class ShoppingCartControllerTest {
                 LocalDateTime.now(clock), LocalDateTime.now(clock), null);
         var bookCategory = new BookCategory(1L, "nameValue1", "descriptionValue1", LocalDateTime.now(clock),
                 LocalDateTime.now(clock), null);
-        book1 = new Book(1L, "titleValue1", "authorValue1", "descriptionValue1", 1, "imageUrl1", 1, "language1",
-                "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131", "dimensions1", 0, bookCategory,
-                LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        book2 = new Book(2L, "titleValue2", "authorValue2", "descriptionValue2", 2, "imageUrl2", 2, "language2",
-                "publisher2", LocalDateTime.now(clock), "isbn102", "isbn132", "dimensions2", 0, bookCategory,
-                LocalDateTime.now(clock), LocalDateTime.now(clock), null);
+        book1 = new Book(1L, "titleValue1", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1), "imageUrl1", 1,
+                "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131", "dimensions1", 0,
+                bookCategory, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
+        book2 = new Book(2L, "titleValue2", "authorValue2", "descriptionValue2", BigDecimal.valueOf(2), "imageUrl2", 2,
+                "language2", "publisher2", LocalDateTime.now(clock), "isbn102", "isbn132", "dimensions2", 0,
+                bookCategory, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
         shoppingCartItem1 = new ShoppingCartItem(1L, user, book1, 1, LocalDateTime.now(clock), LocalDateTime.now(clock),
                 null);
         shoppingCartItem2 = new ShoppingCartItem(2L, user, book2, 2, LocalDateTime.now(clock), LocalDateTime.now(clock),
@@ -86,7 +91,7 @@ public class ShoppingCartControllerTest {
             // Arrange
 
             // Act
-            when(shoppingCartItemService.getUserShoppingCartByEmail("emailValue")).thenReturn(
+            when(shoppingCartItemService.getResolvedUserShoppingCart(1L)).thenReturn(
                     List.of(shoppingCartItem1, shoppingCartItem2));
 
             // Assert
@@ -134,7 +139,7 @@ public class ShoppingCartControllerTest {
             var shoppingCartItemRequest = new ShoppingCartItemRequest(1L, 1);
 
             // Act
-            when(shoppingCartItemService.addBookToShoppingCart("emailValue", shoppingCartItemRequest)).thenReturn(
+            when(shoppingCartItemService.addBookToShoppingCart(1L, shoppingCartItemRequest)).thenReturn(
                     shoppingCartItem1);
 
             // Assert
@@ -161,7 +166,7 @@ public class ShoppingCartControllerTest {
             var shoppingCartItemRequest = new ShoppingCartItemRequest(1L, 1);
 
             // Act
-            when(shoppingCartItemService.updateShoppingCartItem("emailValue", 1L, shoppingCartItemRequest)).thenReturn(
+            when(shoppingCartItemService.updateShoppingCartItem(1L, 1L, shoppingCartItemRequest)).thenReturn(
                     shoppingCartItem1);
 
             // Assert
@@ -187,7 +192,7 @@ public class ShoppingCartControllerTest {
             // Arrange
 
             // Act
-            doNothing().when(shoppingCartItemService).deleteShoppingCartItem("emailValue", 1L);
+            doNothing().when(shoppingCartItemService).deleteShoppingCartItem(1L, 1L);
 
             // Assert
             mockMvc.perform(delete("/shopping-cart/{shoppingCartItemId}", 1L)).andExpect(status().isOk()).andReturn();
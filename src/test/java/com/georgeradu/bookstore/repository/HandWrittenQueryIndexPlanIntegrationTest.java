@@ -0,0 +1,60 @@
+package com.georgeradu.bookstore.repository;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// checks against the real database that hand written queries with the same filters and ordering as the repository
+// finders can use an index. It explains this SQL, not the SQL hibernate generates for the finders, so it shows the
+// indexes match the access paths and not that every generated query picks them. Sequential scans are disabled for
+// the transaction, so the plan still shows a Seq Scan only when no index matches the query.
+// run with: mvn test -Dtest=HandWrittenQueryIndexPlanIntegrationTest -Dintegration=true
+@SpringBootTest(properties = "spring.flyway.enabled=true")
+@EnabledIfSystemProperty(named = "integration", matches = "true")
+public class HandWrittenQueryIndexPlanIntegrationTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Hand written queries of the repository finders should use an index")
+    @CsvSource(delimiter = '|', value = {
+            "BookRepository.findSliceByCategory              | SELECT * FROM book WHERE category_id = 1 " +
+            "ORDER BY id LIMIT 21 OFFSET 20",
+            "BookRepository.countByCategoryId                | SELECT count(*) FROM book WHERE category_id = 1",
+            "BookRepository.findSliceByCategoryAndIdGreaterThan | SELECT * FROM book WHERE category_id = 1 " +
+            "AND id > 1000 ORDER BY id LIMIT 21",
+            "ReviewRepository.findFirstPageByBookId          | SELECT * FROM book_review WHERE book_id = 1 " +
+            "ORDER BY created_at DESC, id DESC LIMIT 21",
+            "ReviewRepository.findPageByBookIdAfter          | SELECT * FROM book_review WHERE book_id = 1 AND " +
+            "(created_at < now() OR (created_at = now() AND id < 1)) ORDER BY created_at DESC, id DESC LIMIT 21",
+            "ReviewRepository.findFirstPageByUserId          | SELECT * FROM book_review WHERE user_id = 1 " +
+            "ORDER BY created_at DESC, id DESC LIMIT 21",
+            "ReviewRepository.findByBookIdAndUserId          | SELECT * FROM book_review WHERE book_id = 1 AND user_id = 1",
+            "ShoppingCartItemRepository.findAllByUserId      | SELECT * FROM shopping_cart_item WHERE user_id = 1",
+            "ShoppingCartItemRepository.findByUserIdAndBookId | SELECT * FROM shopping_cart_item WHERE user_id = 1 AND book_id = 1",
+            "ShoppingCartItemRepository.findLockedByUserId   | SELECT * FROM shopping_cart_item WHERE user_id = 1 " +
+            "ORDER BY id FOR UPDATE",
+            "OrderInfoRepository.findResponsesByUserId       | SELECT * FROM order_info WHERE user_id = 1 ORDER BY id",
+            "OrderItemRepository.findResponsesByOrderInfoId  | SELECT * FROM order_item WHERE order_id = 1 ORDER BY id",
+    })
+    void test_finderQuery_shouldUseAnIndex(String finder, String query) {
+        var plan = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+        });
+
+        Assertions.assertNotNull(plan);
+        Assertions.assertFalse(plan.contains("Seq Scan"),
+                "The query of " + finder + " does a sequential scan:\n" + plan);
+        Assertions.assertTrue(plan.contains("Index"),
+                "The query of " + finder + " does not use an index:\n" + plan);
+    }
+}
@@ -4,22 +4,26 @@ import com.georgeradu.bookstore.dto.LoginRequest;
 import com.georgeradu.bookstore.dto.RegisterRequest;
 import com.georgeradu.bookstore.exception.UserAlreadyExistsException;
 import com.georgeradu.bookstore.exception.InvalidLoginException;
+import com.georgeradu.bookstore.exception.TooManyRequestsException;
 import com.georgeradu.bookstore.model.User;
 import com.georgeradu.bookstore.repository.UserRepository;
 import com.georgeradu.bookstore.service.AuthenticationService;
 import com.georgeradu.bookstore.service.JwtService;
+import com.georgeradu.bookstore.service.LoginRateLimiter;
+import com.georgeradu.bookstore.service.PasswordHashingService;
 import com.georgeradu.bookstore.service.UserService;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 @SpringBootTest
 public class AuthenticationServiceTest {
@@ -28,11 +32,11 @@ public class AuthenticationServiceTest {
     @MockBean
     private UserService userService;
     @MockBean
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
     @MockBean
-    private JwtService jwtService;
+    private LoginRateLimiter loginRateLimiter;
     @MockBean
-    private AuthenticationManager authenticationManager;
+    private JwtService jwtService;
     @Autowired
     private AuthenticationService authenticationService;
 
@@ -58,12 +62,13 @@ public class AuthenticationServiceTest {
             registerRequest.setPassword("passwordValue");
 
             // Act
-            when(passwordEncoder.encode(registerRequest.getPassword())).thenReturn("encodedPasswordValue");
+            when(passwordHashingService.encode(registerRequest.getPassword()))
+                    .thenReturn(CompletableFuture.completedFuture("encodedPasswordValue"));
             when(userService.addUser(any())).thenReturn(new User());
             when(jwtService.generateToken(any())).thenReturn("tokenValue");
 
             // Assert
-            var response = authenticationService.register(registerRequest);
+            var response = authenticationService.register(registerRequest).join();
             Assertions.assertEquals("tokenValue", response.getToken());
         }
 
@@ -78,14 +83,17 @@ public class AuthenticationServiceTest {
             registerRequest.setPassword("passwordValue");
 
             // Act
+            when(passwordHashingService.encode(registerRequest.getPassword()))
+                    .thenReturn(CompletableFuture.completedFuture("encodedPasswordValue"));
             when(userService.addUser(any())).thenThrow(
                     new UserAlreadyExistsException("User with email " + registerRequest.getEmail()));
 
             // Assert
-            UserAlreadyExistsException actualException = Assertions.assertThrows(UserAlreadyExistsException.class,
-                    () -> authenticationService.register(registerRequest));
+            var exception = Assertions.assertThrows(CompletionException.class,
+                    () -> authenticationService.register(registerRequest).join());
+            Assertions.assertInstanceOf(UserAlreadyExistsException.class, exception.getCause());
             Assertions.assertEquals("Object: User with email " + registerRequest.getEmail() + " already exists",
-                    actualException.getMessage());
+                    exception.getCause().getMessage());
         }
     }
 
@@ -99,19 +107,45 @@ public class AuthenticationServiceTest {
             LoginRequest loginRequest = new LoginRequest();
             loginRequest.setEmail("emailValue");
             loginRequest.setPassword("passwordValue");
+            var user = new User();
+            user.setPassword("encodedPasswordValue");
 
             // Act
-            when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.of(new User()));
+            when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.of(user));
+            when(passwordHashingService.matches(loginRequest.getPassword(), "encodedPasswordValue"))
+                    .thenReturn(CompletableFuture.completedFuture(true));
             when(jwtService.generateToken(any())).thenReturn("tokenValue");
-            when(authenticationManager.authenticate(any())).thenReturn(null);
 
             // Assert
-            var response = authenticationService.login(loginRequest);
+            var response = authenticationService.login(loginRequest, "127.0.0.1").join();
             Assertions.assertEquals("tokenValue", response.getToken());
+            verify(loginRateLimiter, times(1)).acquire(loginRequest.getEmail(), "127.0.0.1");
+            verify(userRepository, times(1)).findByEmail(loginRequest.getEmail());
+        }
+
+        @Test
+        @DisplayName("Should throw exception when the password does not match")
+        void test_login_shouldThrowExceptionWhenPasswordDoesNotMatch() {
+            // Arrange
+            LoginRequest loginRequest = new LoginRequest();
+            loginRequest.setEmail("emailValue");
+            loginRequest.setPassword("passwordValue");
+            var user = new User();
+            user.setPassword("encodedPasswordValue");
+
+            // Act
+            when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.of(user));
+            when(passwordHashingService.matches(loginRequest.getPassword(), "encodedPasswordValue"))
+                    .thenReturn(CompletableFuture.completedFuture(false));
+
+            // Assert
+            var exception = Assertions.assertThrows(CompletionException.class,
+                    () -> authenticationService.login(loginRequest, "127.0.0.1").join());
+            Assertions.assertInstanceOf(InvalidLoginException.class, exception.getCause());
         }
 
         @Test
-        @DisplayName("Should throw exception when user does not exist")
+        @DisplayName("Should still hash the password and throw exception when user does not exist")
         void test_login_shouldThrowExceptionWhenUserDoesNotExist() {
             // Arrange
             LoginRequest loginRequest = new LoginRequest();
@@ -120,9 +154,33 @@ public class AuthenticationServiceTest {
 
             // Act
             when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(Optional.empty());
+            when(passwordHashingService.matches(anyString(), any()))
+                    .thenReturn(CompletableFuture.completedFuture(true));
+
+            // Assert
+            var exception = Assertions.assertThrows(CompletionException.class,
+                    () -> authenticationService.login(loginRequest, "127.0.0.1").join());
+            Assertions.assertInstanceOf(InvalidLoginException.class, exception.getCause());
+            verify(passwordHashingService, times(1)).matches(eq(loginRequest.getPassword()), any());
+        }
+
+        @Test
+        @DisplayName("Should throw exception without reading the user when the login is rate limited")
+        void test_login_shouldThrowExceptionWhenRateLimited() {
+            // Arrange
+            LoginRequest loginRequest = new LoginRequest();
+            loginRequest.setEmail("emailValue");
+            loginRequest.setPassword("passwordValue");
+
+            // Act
+            doThrow(new TooManyRequestsException("too many login attempts"))
+                    .when(loginRateLimiter).acquire(loginRequest.getEmail(), "127.0.0.1");
 
             // Assert
-            Assertions.assertThrows(InvalidLoginException.class, () -> authenticationService.login(loginRequest));
+            Assertions.assertThrows(TooManyRequestsException.class,
+                    () -> authenticationService.login(loginRequest, "127.0.0.1"));
+            verify(userRepository, never()).findByEmail(anyString());
+            verify(passwordHashingService, never()).matches(anyString(), anyString());
         }
     }
 }
@@ -0,0 +1,122 @@
+package com.georgeradu.bookstore.services;
+
+import com.georgeradu.bookstore.dto.BookCategoryCount;
+import com.georgeradu.bookstore.repository.BookRepository;
+import com.georgeradu.bookstore.service.BookCategoryCountsImpl;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class BookCategoryCountsTest {
+    private BookRepository bookRepository;
+    private BookCategoryCountsImpl bookCategoryCounts;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository = mock(BookRepository.class);
+        bookCategoryCounts = new BookCategoryCountsImpl(bookRepository);
+    }
+
+    @AfterEach
+    void tearDown() {}
+
+    @Nested
+    @DisplayName("Test getCount and add methods")
+    class TestGetCountAndAdd {
+        @Test
+        @DisplayName("Should count a category once and then apply the added books")
+        void test_getCount_shouldCountOnceThenApplyAddedBooks() {
+            // Arrange
+
+            // Act
+            when(bookRepository.countByCategoryId(1L)).thenReturn(10L);
+            var first = bookCategoryCounts.getCount(1L);
+            bookCategoryCounts.add(1L, 2);
+            bookCategoryCounts.add(1L, -1);
+
+            // Assert
+            Assertions.assertEquals(10, first);
+            Assertions.assertEquals(11, bookCategoryCounts.getCount(1L));
+            verify(bookRepository, times(1)).countByCategoryId(1L);
+        }
+
+        @Test
+        @DisplayName("Should ignore the books added to a category that was not counted yet")
+        void test_add_shouldIgnoreCategoryNotCountedYet() {
+            // Arrange
+
+            // Act
+            bookCategoryCounts.add(1L, 5);
+            when(bookRepository.countByCategoryId(1L)).thenReturn(5L);
+
+            // Assert
+            Assertions.assertEquals(5, bookCategoryCounts.getCount(1L));
+        }
+
+        @Test
+        @DisplayName("Should keep the books added while the category is counted")
+        void test_getCount_shouldKeepBooksAddedWhileCounting() {
+            // Arrange
+
+            // Act
+            when(bookRepository.countByCategoryId(1L)).thenAnswer(invocation -> {
+                bookCategoryCounts.add(1L, 1);
+                return 10L;
+            });
+
+            // Assert
+            Assertions.assertEquals(11, bookCategoryCounts.getCount(1L));
+            Assertions.assertEquals(11, bookCategoryCounts.getCount(1L));
+            verify(bookRepository, times(1)).countByCategoryId(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Test reconcile method")
+    class TestReconcile {
+        @Test
+        @DisplayName("Should replace the counts with the database counts, 0 for categories without books")
+        void test_reconcile_shouldReplaceCountsWithDatabaseCounts() {
+            // Arrange
+
+            // Act
+            when(bookRepository.countByCategoryId(1L)).thenReturn(3L);
+            when(bookRepository.countByCategoryId(2L)).thenReturn(4L);
+            bookCategoryCounts.getCount(1L);
+            bookCategoryCounts.getCount(2L);
+            bookCategoryCounts.add(1L, 100);
+            when(bookRepository.countBooksByCategory()).thenReturn(
+                    List.of(new BookCategoryCount(1L, 7L), new BookCategoryCount(3L, 1L)));
+            bookCategoryCounts.reconcile();
+
+            // Assert
+            Assertions.assertEquals(7, bookCategoryCounts.getCount(1L));
+            Assertions.assertEquals(0, bookCategoryCounts.getCount(2L));
+            Assertions.assertEquals(1, bookCategoryCounts.getCount(3L));
+            verify(bookRepository, never()).countByCategoryId(3L);
+        }
+
+        @Test
+        @DisplayName("Should keep the books added while the categories are reconciled")
+        void test_reconcile_shouldKeepBooksAddedWhileReconciling() {
+            // Arrange
+
+            // Act
+            when(bookRepository.countByCategoryId(1L)).thenReturn(3L);
+            bookCategoryCounts.getCount(1L);
+            when(bookRepository.countBooksByCategory()).thenAnswer(invocation -> {
+                bookCategoryCounts.add(1L, 2);
+                bookCategoryCounts.add(2L, 1);
+                return List.of(new BookCategoryCount(1L, 7L), new BookCategoryCount(2L, 4L));
+            });
+            bookCategoryCounts.reconcile();
+
+            // Assert
+            Assertions.assertEquals(9, bookCategoryCounts.getCount(1L));
+            Assertions.assertEquals(5, bookCategoryCounts.getCount(2L));
+            verify(bookRepository, never()).countByCategoryId(2L);
+        }
+    }
+}
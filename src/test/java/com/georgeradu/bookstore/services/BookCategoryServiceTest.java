@@ -1,7 +1,10 @@
 package com.georgeradu.bookstore.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import com.georgeradu.bookstore.config.CacheConfig;
 import com.georgeradu.bookstore.dto.BookCategoryRequest;
+import com.georgeradu.bookstore.dto.BookCategoryResponse;
 import com.georgeradu.bookstore.exception.DuplicateObjectException;
 import com.georgeradu.bookstore.exception.EntityNotFoundException;
 import com.georgeradu.bookstore.model.BookCategory;
@@ -11,6 +14,9 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Clock;
 import java.time.LocalDateTime;
@@ -18,8 +24,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doReturn;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @SpringBootTest
 public class BookCategoryServiceTest {
@@ -32,12 +37,16 @@ public class BookCategoryServiceTest {
     private BookCategoryRepository bookCategoryRepository;
     @Autowired
     private BookCategoryService bookCategoryService;
+    @Autowired
+    private CacheManager cacheManager;
 
     @BeforeEach
     public void setUp() {
         fixedClock = Clock.fixed(NOW.toLocalDate().atStartOfDay().toInstant(Clock.systemDefaultZone().getZone().getRules().getOffset(NOW)), Clock.systemDefaultZone().getZone());
         doReturn(fixedClock.instant()).when(clock).instant();
         doReturn(fixedClock.getZone()).when(clock).getZone();
+        // the snapshot outlives the test, start every test without one
+        ReflectionTestUtils.setField(bookCategoryService, "snapshot", null);
     }
 
     @AfterEach
@@ -77,21 +86,60 @@ public class BookCategoryServiceTest {
     @Nested
     @DisplayName("Test getBookCategories method")
     class TestGetBookCategories {
+        private final Sort byId = Sort.by(Sort.Direction.ASC, "id");
+
         @Test
-        @DisplayName("Should return book categories")
-        void test_getBookCategories_shouldReturnBookCategories() {
+        @DisplayName("Should return book categories with their json and etag")
+        void test_getBookCategories_shouldReturnBookCategories() throws Exception {
             // Arrange
             var bookCategory1 = new BookCategory(1L, "nameValue1", "descriptionValue1", LocalDateTime.now(clock),
                     LocalDateTime.now(clock), null);
             var bookCategory2 = new BookCategory(2L, "nameValue2", "descriptionValue2", LocalDateTime.now(clock),
                     LocalDateTime.now(clock), null);
+            var responses = List.of(new BookCategoryResponse(bookCategory1), new BookCategoryResponse(bookCategory2));
+
+            // Act
+            when(bookCategoryRepository.findAll(byId)).thenReturn(List.of(bookCategory1, bookCategory2));
+
+            // Assert
+            var response = bookCategoryService.getBookCategories();
+            Assertions.assertEquals(responses, response.getCategories());
+            Assertions.assertEquals(new ObjectMapper().writeValueAsString(responses), new String(response.getJson()));
+            Assertions.assertTrue(response.getEtag().matches("\"[0-9a-f]{32}\""));
+        }
+
+        @Test
+        @DisplayName("Should read the book categories once")
+        void test_getBookCategories_shouldReadBookCategoriesOnce() {
+            // Arrange
 
             // Act
-            when(bookCategoryRepository.findAll()).thenReturn(List.of(bookCategory1, bookCategory2));
+            when(bookCategoryRepository.findAll(byId)).thenReturn(List.of());
 
             // Assert
-            List<BookCategory> response = bookCategoryService.getBookCategories();
-            Assertions.assertEquals(List.of(bookCategory1, bookCategory2), response);
+            Assertions.assertSame(bookCategoryService.getBookCategories(), bookCategoryService.getBookCategories());
+            verify(bookCategoryRepository, times(1)).findAll(byId);
+        }
+
+        @Test
+        @DisplayName("Should replace the snapshot and its etag after a write")
+        void test_getBookCategories_shouldReplaceSnapshotAfterWrite() {
+            // Arrange
+            var request = new BookCategoryRequest("nameValue", "descriptionValue");
+            var bookCategory = new BookCategory(1L, "nameValue", "descriptionValue", LocalDateTime.now(clock),
+                    LocalDateTime.now(clock), null);
+
+            // Act
+            when(bookCategoryRepository.findAll(byId)).thenReturn(List.of(), List.of(bookCategory));
+            when(bookCategoryRepository.findByName(request.getName())).thenReturn(Optional.empty());
+            when(bookCategoryRepository.save(any())).thenReturn(bookCategory);
+            var before = bookCategoryService.getBookCategories();
+            bookCategoryService.createBookCategory(request);
+
+            // Assert
+            var after = bookCategoryService.getBookCategories();
+            Assertions.assertEquals(List.of(new BookCategoryResponse(bookCategory)), after.getCategories());
+            Assertions.assertNotEquals(before.getEtag(), after.getEtag());
         }
     }
 
@@ -154,6 +202,26 @@ public class BookCategoryServiceTest {
             Assertions.assertEquals(updatedBookCategory, response);
         }
 
+        @Test
+        @DisplayName("Should evict the cached books, their snapshots hold the old category")
+        void test_updateBookCategory_shouldEvictTheCachedBooks() {
+            // Arrange
+            var books = cacheManager.getCache(CacheConfig.BOOKS);
+            books.put(1L, "cachedBook");
+            var bookCategoryRequest = new BookCategoryRequest("newNameValue", "newDescriptionValue");
+            var bookCategory = new BookCategory(1L, "nameValue", "descriptionValue", LocalDateTime.now(clock),
+                    LocalDateTime.now(clock), null);
+
+            // Act
+            when(bookCategoryRepository.findById(1L)).thenReturn(Optional.of(bookCategory));
+            when(bookCategoryRepository.findByName(bookCategoryRequest.getName())).thenReturn(Optional.empty());
+            when(bookCategoryRepository.save(any())).thenReturn(bookCategory);
+            bookCategoryService.updateBookCategory(1L, bookCategoryRequest);
+
+            // Assert
+            Assertions.assertNull(books.get(1L));
+        }
+
         @Test
         @DisplayName("Should update even if name wasn't changed")
         void test_updateBookCategory_shouldUpdateEvenIfNameWasntChanged() {
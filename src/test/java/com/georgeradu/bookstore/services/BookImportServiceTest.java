@@ -0,0 +1,169 @@
+package com.georgeradu.bookstore.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.georgeradu.bookstore.dto.*;
+import com.georgeradu.bookstore.exception.InvalidRequestException;
+import com.georgeradu.bookstore.repository.BookRepository;
+import com.georgeradu.bookstore.service.BookCategoryService;
+import com.georgeradu.bookstore.service.BookImportService;
+import com.georgeradu.bookstore.service.BookSearchIndex;
+import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class BookImportServiceTest {
+    private final static LocalDateTime NOW = LocalDateTime.now();
+    private static final String CSV_HEADER = "title,author,description,price,imageUrl,quantity,language,publisher," +
+                                             "publicationDate,isbn10,isbn13,dimensions,bookCategoryId\n";
+
+    @MockBean
+    private Clock clock;
+    private Clock fixedClock;
+    @MockBean
+    private BookRepository bookRepository;
+    @MockBean
+    private BookCategoryService bookCategoryService;
+    @MockBean
+    private BookSearchIndex bookSearchIndex;
+    @Autowired
+    private BookImportService bookImportService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        fixedClock = Clock.fixed(NOW
+                        .toLocalDate()
+                        .atStartOfDay()
+                        .toInstant(Clock.systemDefaultZone().getZone().getRules().getOffset(NOW)),
+                Clock.systemDefaultZone().getZone());
+        doReturn(fixedClock.instant()).when(clock).instant();
+        doReturn(fixedClock.getZone()).when(clock).getZone();
+        ReflectionTestUtils.setField(bookImportService, "chunkSize", 2);
+
+        when(bookCategoryService.getBookCategories()).thenReturn(new BookCategoriesSnapshot(
+                List.of(new BookCategoryResponse(1L, "nameValue1", "descriptionValue1")), new byte[0], "etag"));
+        // the copied books get the ids 1, 2, 3... in the order they are copied
+        var nextBookId = new AtomicLong(1);
+        when(bookRepository.copyBooks(any(), any())).thenAnswer(invocation -> invocation
+                .<List<BookRequest>>getArgument(0)
+                .stream()
+                .map(book -> nextBookId.getAndIncrement())
+                .toList());
+    }
+
+    @AfterEach
+    void tearDown() {}
+
+    private static String csvRow(String title, long bookCategoryId) {
+        return title + ",authorValue,\"description, with a comma\",10.5,imageUrl,3,language,publisher," +
+               "2020-01-01T00:00:00,isbn10,isbn13,dimensions," + bookCategoryId + "\n";
+    }
+
+    private List<BookImportProgress> readProgress(ByteArrayOutputStream outputStream) throws Exception {
+        var lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        var progress = new ArrayList<BookImportProgress>();
+        for (var line : lines) {
+            progress.add(objectMapper.readValue(line, BookImportProgress.class));
+        }
+        return progress;
+    }
+
+    @Nested
+    @DisplayName("Test importBooks method")
+    class TestImportBooks {
+        @Test
+        @DisplayName("Should copy the valid csv rows in chunks and report the rejected rows")
+        void test_importBooks_shouldCopyValidCsvRowsInChunks() throws Exception {
+            // Arrange
+            var body = CSV_HEADER + csvRow("titleValue1", 1) + csvRow("t", 1) + csvRow("titleValue3", 2) +
+                       csvRow("titleValue4", 1) + "\n" + csvRow("titleValue5", 1);
+            var outputStream = new ByteArrayOutputStream();
+            var timestamp = LocalDateTime.now(clock);
+
+            // Act
+            var result = bookImportService.importBooks(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                    BookImportFormat.CSV, outputStream);
+
+            // Assert
+            Assertions.assertEquals(new BookImportProgress(5, 3, 2, List.of(), true), result);
+            var progress = readProgress(outputStream);
+            Assertions.assertEquals(3, progress.size());
+            Assertions.assertEquals(List.of(new BookImportError(2,
+                    "Invalid request: Title must be between 3 and 255 characters long")), progress.get(0).getErrors());
+            Assertions.assertEquals(1, progress.get(0).getRowsImported());
+            Assertions.assertEquals(List.of(new BookImportError(3,
+                    "Invalid request: Book category with id 2 not found")), progress.get(1).getErrors());
+            Assertions.assertEquals(2, progress.get(1).getRowsImported());
+            Assertions.assertEquals(result, progress.get(2));
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<BookRequest>> chunkCaptor = ArgumentCaptor.forClass(List.class);
+            verify(bookRepository, times(3)).copyBooks(chunkCaptor.capture(), eq(timestamp));
+            var firstBook = chunkCaptor.getAllValues().get(0).get(0);
+            Assertions.assertEquals("description, with a comma", firstBook.getDescription());
+            Assertions.assertEquals(new BigDecimal("10.5"), firstBook.getPrice());
+            Assertions.assertEquals(LocalDateTime.of(2020, 1, 1, 0, 0), firstBook.getPublicationDate());
+            verify(bookSearchIndex, times(1)).indexBook(1L, "titleValue1", "authorValue", "description, with a comma");
+            verify(bookSearchIndex, times(1)).indexBook(2L, "titleValue4", "authorValue", "description, with a comma");
+            verify(bookSearchIndex, times(1)).indexBook(3L, "titleValue5", "authorValue", "description, with a comma");
+            verify(bookSearchIndex, never()).rebuild();
+        }
+
+        @Test
+        @DisplayName("Should reject the ndjson lines that are not a valid book")
+        void test_importBooks_shouldRejectInvalidNdjsonLines() throws Exception {
+            // Arrange
+            var book = new BookRequest("titleValue1", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1),
+                    "imageUrl1", 1, "language1", "publisher1", LocalDateTime.of(2020, 1, 1, 0, 0), "isbn101", "isbn131",
+                    "dimensions1", 1L);
+            var body = objectMapper.writeValueAsString(book) + "\n{\"title\": \n" + "{\"price\": \"abc\"}\n";
+            var outputStream = new ByteArrayOutputStream();
+            ReflectionTestUtils.setField(bookImportService, "chunkSize", 10);
+
+            // Act
+            var result = bookImportService.importBooks(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                    BookImportFormat.NDJSON, outputStream);
+
+            // Assert
+            Assertions.assertEquals(3, result.getRowsRead());
+            Assertions.assertEquals(1, result.getRowsImported());
+            Assertions.assertEquals(2, result.getRowsRejected());
+            Assertions.assertEquals(List.of(2L, 3L), result.getErrors().stream().map(BookImportError::getRow).toList());
+            verify(bookRepository, times(1)).copyBooks(List.of(book), LocalDateTime.now(clock));
+        }
+
+        @Test
+        @DisplayName("Should throw InvalidRequestException and import nothing when a csv column is missing")
+        void test_importBooks_shouldThrowWhenCsvColumnIsMissing() {
+            // Arrange
+            var body = "title,author\ntitleValue1,authorValue1\n";
+
+            // Act
+
+            // Assert
+            Assertions.assertThrows(InvalidRequestException.class, () -> bookImportService.importBooks(
+                    new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), BookImportFormat.CSV,
+                    new ByteArrayOutputStream()));
+            verify(bookRepository, never()).copyBooks(any(), any());
+            verifyNoInteractions(bookSearchIndex);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.georgeradu.bookstore.services;
+
+import com.georgeradu.bookstore.config.CacheConfig;
+import com.georgeradu.bookstore.model.BookRating;
+import com.georgeradu.bookstore.repository.BookRatingRepository;
+import com.georgeradu.bookstore.service.BookRatingService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+public class BookRatingServiceTest {
+    private final static LocalDateTime NOW = LocalDateTime.now();
+    private BookRating bookRating1;
+
+    @MockBean
+    private Clock clock;
+    private Clock fixedClock;
+    @MockBean
+    private BookRatingRepository bookRatingRepository;
+    @Autowired
+    private BookRatingService bookRatingService;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setUp() {
+        fixedClock = Clock.fixed(NOW
+                        .toLocalDate()
+                        .atStartOfDay()
+                        .toInstant(Clock.systemDefaultZone().getZone().getRules().getOffset(NOW)),
+                Clock.systemDefaultZone().getZone());
+        doReturn(fixedClock.instant()).when(clock).instant();
+        doReturn(fixedClock.getZone()).when(clock).getZone();
+
+        bookRating1 = new BookRating(1L, 2, 7, 0, 0, 1, 1, 0);
+        cacheManager.getCache(CacheConfig.BOOK_RATINGS).clear();
+    }
+
+    @AfterEach
+    void tearDown() {}
+
+    @Nested
+    @DisplayName("Test getBookRating method")
+    class TestGetBookRating {
+        @Test
+        @DisplayName("Should read the aggregate once and then serve it from the cache")
+        void test_getBookRating_shouldCacheTheAggregate() {
+            // Arrange
+
+            // Act
+            when(bookRatingRepository.findById(1L)).thenReturn(Optional.of(bookRating1));
+
+            // Assert
+            Assertions.assertEquals(bookRating1, bookRatingService.getBookRating(1L));
+            Assertions.assertEquals(3.5, bookRatingService.getBookRating(1L).getAverageRating());
+            verify(bookRatingRepository, times(1)).findById(1L);
+        }
+
+        @Test
+        @DisplayName("Should record the hits and misses of the aggregate cache")
+        void test_getBookRating_shouldRecordCacheStats() {
+            // Arrange
+            var cache = ((CaffeineCache) cacheManager.getCache(CacheConfig.BOOK_RATINGS)).getNativeCache();
+            var before = cache.stats();
+
+            // Act
+            when(bookRatingRepository.findById(1L)).thenReturn(Optional.of(bookRating1));
+            bookRatingService.getBookRating(1L);
+            bookRatingService.getBookRating(1L);
+
+            // Assert
+            var recorded = cache.stats().minus(before);
+            Assertions.assertEquals(1, recorded.missCount());
+            Assertions.assertEquals(1, recorded.hitCount());
+        }
+
+        @Test
+        @DisplayName("Should return an empty aggregate for a book without reviews")
+        void test_getBookRating_shouldReturnEmptyAggregateForBookWithoutReviews() {
+            // Arrange
+
+            // Act
+            when(bookRatingRepository.findById(2L)).thenReturn(Optional.empty());
+
+            // Assert
+            var bookRating = bookRatingService.getBookRating(2L);
+            Assertions.assertEquals(new BookRating(2L), bookRating);
+            Assertions.assertEquals(0, bookRating.getAverageRating());
+        }
+    }
+
+    @Nested
+    @DisplayName("Test getBookRatings method")
+    class TestGetBookRatings {
+        @Test
+        @DisplayName("Should read the aggregates of all books with one query")
+        void test_getBookRatings_shouldReadAllAggregatesWithOneQuery() {
+            // Arrange
+
+            // Act
+            when(bookRatingRepository.findAllById(any())).thenReturn(List.of(bookRating1));
+
+            // Assert
+            Assertions.assertEquals(Map.of(1L, bookRating1, 2L, new BookRating(2L)),
+                    bookRatingService.getBookRatings(List.of(1L, 2L)));
+            verify(bookRatingRepository, times(1)).findAllById(any());
+            verify(bookRatingRepository, never()).findById(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Test rating delta methods")
+    class TestRatingDeltas {
+        @Test
+        @DisplayName("Should add one review to the count, the sum and the histogram")
+        void test_addRating_shouldApplyDelta() {
+            bookRatingService.addRating(1L, 4);
+
+            verify(bookRatingRepository, times(1)).applyDelta(1L, 1, 4, 0, 0, 0, 1, 0, LocalDateTime.now(clock));
+        }
+
+        @Test
+        @DisplayName("Should move a changed rating between histogram buckets")
+        void test_replaceRating_shouldApplyDelta() {
+            bookRatingService.replaceRating(1L, 2, 5);
+            bookRatingService.replaceRating(1L, 3, 3);
+
+            verify(bookRatingRepository, times(1)).applyDelta(1L, 0, 3, 0, -1, 0, 0, 1, LocalDateTime.now(clock));
+            verifyNoMoreInteractions(bookRatingRepository);
+        }
+
+        @Test
+        @DisplayName("Should remove one review from the count, the sum and the histogram")
+        void test_removeRating_shouldApplyDelta() {
+            bookRatingService.removeRating(1L, 3);
+
+            verify(bookRatingRepository, times(1)).applyDelta(1L, -1, -3, 0, 0, -1, 0, 0, LocalDateTime.now(clock));
+        }
+
+        @Test
+        @DisplayName("Should read the aggregate again after a review write")
+        void test_addRating_shouldEvictTheCachedAggregate() {
+            // Arrange
+            var updated = new BookRating(1L, 3, 12, 0, 0, 1, 1, 1);
+
+            // Act
+            when(bookRatingRepository.findById(1L)).thenReturn(Optional.of(bookRating1), Optional.of(updated));
+            bookRatingService.getBookRating(1L);
+            bookRatingService.addRating(1L, 5);
+
+            // Assert
+            Assertions.assertEquals(updated, bookRatingService.getBookRating(1L));
+            verify(bookRatingRepository, times(2)).findById(1L);
+        }
+    }
+}
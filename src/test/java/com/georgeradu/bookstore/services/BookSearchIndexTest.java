@@ -0,0 +1,145 @@
+package com.georgeradu.bookstore.services;
+
+import com.georgeradu.bookstore.dto.BookSearchText;
+import com.georgeradu.bookstore.model.Book;
+import com.georgeradu.bookstore.model.BookCategory;
+import com.georgeradu.bookstore.repository.BookRepository;
+import com.georgeradu.bookstore.service.BookSearchIndex;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+public class BookSearchIndexTest {
+    private final static LocalDateTime NOW = LocalDateTime.now();
+    private Book book1, book2, book3;
+
+    @MockBean
+    private BookRepository bookRepository;
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        var bookCategory = new BookCategory(1L, "nameValue1", "descriptionValue1", NOW, NOW, null);
+        book1 = new Book(1L, "The Hobbit", "J.R.R. Tolkien", "A hobbit goes on an adventure", BigDecimal.valueOf(1),
+                "imageUrl1", 1, "language1", "publisher1", NOW, "isbn101", "isbn131", "dimensions1", 0, bookCategory,
+                NOW, NOW, null);
+        book2 = new Book(2L, "The Lord of the Rings", "J.R.R. Tolkien", "The war of the ring", BigDecimal.valueOf(2),
+                "imageUrl2", 2, "language2", "publisher2", NOW, "isbn102", "isbn132", "dimensions2", 0, bookCategory,
+                NOW, NOW, null);
+        book3 = new Book(3L, "Dune", "Frank Herbert", "Spice and sand worms", BigDecimal.valueOf(3), "imageUrl3",
+                3, "language3", "publisher3", NOW, "isbn103", "isbn133", "dimensions3", 0, bookCategory, NOW, NOW,
+                null);
+
+        when(bookRepository.findAllSearchTexts()).thenReturn(searchTexts(book1, book2, book3));
+        bookSearchIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {}
+
+    private static List<BookSearchText> searchTexts(Book... books) {
+        return Arrays.stream(books)
+                .map(book -> new BookSearchText(book.getId(), book.getTitle(), book.getAuthor(), book.getDescription()))
+                .toList();
+    }
+
+    @Nested
+    @DisplayName("Test search method")
+    class TestSearch {
+        @Test
+        @DisplayName("Should match title, author and description case insensitive")
+        void test_search_shouldMatchTitleAuthorAndDescription() {
+            Assertions.assertArrayEquals(new long[]{1L}, bookSearchIndex.search("HOBBIT", 100));
+            Assertions.assertArrayEquals(new long[]{3L}, bookSearchIndex.search("herbert", 100));
+            Assertions.assertArrayEquals(new long[]{3L}, bookSearchIndex.search("worms", 100));
+        }
+
+        @Test
+        @DisplayName("Should rank books matching more terms first")
+        void test_search_shouldRankBooksMatchingMoreTermsFirst() {
+            Assertions.assertArrayEquals(new long[]{2L, 1L, 3L}, bookSearchIndex.search("tolkien rings dune", 100));
+        }
+
+        @Test
+        @DisplayName("Should return no results for an empty or unknown query")
+        void test_search_shouldReturnNoResultsForEmptyOrUnknownQuery() {
+            Assertions.assertEquals(0, bookSearchIndex.search("", 100).length);
+            Assertions.assertEquals(0, bookSearchIndex.search("  ,. ", 100).length);
+            Assertions.assertEquals(0, bookSearchIndex.search("missing", 100).length);
+        }
+
+        @Test
+        @DisplayName("Should return only the best ranked books up to the limit")
+        void test_search_shouldReturnOnlyTheBestRankedBooksUpToTheLimit() {
+            Assertions.assertArrayEquals(new long[]{2L, 1L}, bookSearchIndex.search("tolkien rings dune", 2));
+            Assertions.assertEquals(0, bookSearchIndex.search("tolkien", 0).length);
+        }
+
+        @Test
+        @DisplayName("Should ignore stopwords and one letter words")
+        void test_search_shouldIgnoreStopwordsAndOneLetterWords() {
+            Assertions.assertEquals(0, bookSearchIndex.search("the of a", 100).length);
+            Assertions.assertArrayEquals(new long[]{3L}, bookSearchIndex.search("the dune", 100));
+        }
+
+        @Test
+        @DisplayName("Should handle long queries")
+        void test_search_shouldHandleLongQueries() {
+            var query = "word ".repeat(1000) + "dune";
+            Assertions.assertArrayEquals(new long[]{3L}, bookSearchIndex.search(query, 100));
+        }
+    }
+
+    @Nested
+    @DisplayName("Test rebuild method")
+    class TestRebuild {
+        @Test
+        @DisplayName("Should keep the writes made while the books are loaded")
+        void test_rebuild_shouldKeepTheWritesMadeWhileTheBooksAreLoaded() {
+            when(bookRepository.findAllSearchTexts()).thenAnswer(invocation -> {
+                bookSearchIndex.removeBook(1L);
+                return searchTexts(book1, book2, book3);
+            });
+
+            bookSearchIndex.rebuild();
+
+            Assertions.assertEquals(0, bookSearchIndex.search("hobbit", 100).length);
+            Assertions.assertArrayEquals(new long[]{2L}, bookSearchIndex.search("tolkien", 100));
+        }
+    }
+
+    @Nested
+    @DisplayName("Test indexBook and removeBook methods")
+    class TestIndexBookAndRemoveBook {
+        @Test
+        @DisplayName("Should replace the terms of an updated book")
+        void test_indexBook_shouldReplaceTheTermsOfAnUpdatedBook() {
+            book3.setTitle("Children of Dune");
+            book3.setAuthor("Frank Herbert");
+            book3.setDescription("The sequel");
+            bookSearchIndex.indexBook(book3);
+
+            Assertions.assertArrayEquals(new long[]{3L}, bookSearchIndex.search("children", 100));
+            Assertions.assertEquals(0, bookSearchIndex.search("worms", 100).length);
+        }
+
+        @Test
+        @DisplayName("Should not return removed books")
+        void test_removeBook_shouldNotReturnRemovedBooks() {
+            bookSearchIndex.removeBook(1L);
+
+            Assertions.assertEquals(0, bookSearchIndex.search("hobbit", 100).length);
+            Assertions.assertArrayEquals(new long[]{2L}, bookSearchIndex.search("tolkien", 100));
+        }
+    }
+}
@@ -1,25 +1,48 @@
 package com.georgeradu.bookstore.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.georgeradu.bookstore.config.CacheConfig;
 import com.georgeradu.bookstore.dto.BookRequest;
+import com.georgeradu.bookstore.dto.BookResponse;
 import com.georgeradu.bookstore.exception.EntityNotFoundException;
+import com.georgeradu.bookstore.exception.IllegalEntityStateException;
+import com.georgeradu.bookstore.exception.InvalidRequestException;
 import com.georgeradu.bookstore.model.Book;
 import com.georgeradu.bookstore.model.BookCategory;
 import com.georgeradu.bookstore.repository.BookRepository;
+import com.georgeradu.bookstore.service.BookCategoryCounts;
 import com.georgeradu.bookstore.service.BookCategoryService;
+import com.georgeradu.bookstore.service.BookSearchIndex;
 import com.georgeradu.bookstore.service.BookService;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doReturn;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @SpringBootTest
 public class BookServiceTest {
@@ -34,11 +57,23 @@ public class BookServiceTest {
     private BookRepository bookRepository;
     @MockBean
     private BookCategoryService bookCategoryService;
+    @MockBean
+    private BookSearchIndex bookSearchIndex;
+    @MockBean
+    private BookCategoryCounts bookCategoryCounts;
+    // the stock methods require a transaction, run them without a database
+    @MockBean
+    private PlatformTransactionManager transactionManager;
     @Autowired
     private BookService bookService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @BeforeEach
     public void setUp() {
+        cacheManager.getCache(CacheConfig.BOOKS).clear();
         fixedClock = Clock.fixed(NOW
                         .toLocalDate()
                         .atStartOfDay()
@@ -49,10 +84,10 @@ public class BookServiceTest {
 
         bookCategory = new BookCategory(1L, "nameValue1", "descriptionValue1",
                 LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        book1 = new Book(1L, "titleValue1", "authorValue1", "descriptionValue1", 1, "imageUrl1",
+        book1 = new Book(1L, "titleValue1", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1), "imageUrl1",
                 1, "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131", "dimensions1", 0,
                 bookCategory, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        book2 = new Book(2L, "titleValue2", "authorValue2", "descriptionValue2", 2, "imageUrl2",
+        book2 = new Book(2L, "titleValue2", "authorValue2", "descriptionValue2", BigDecimal.valueOf(2), "imageUrl2",
                 2, "language2", "publisher2", LocalDateTime.now(clock), "isbn102", "isbn132", "dimensions2", 0,
                 bookCategory, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
     }
@@ -70,7 +105,7 @@ public class BookServiceTest {
             var bookId = 1L;
 
             // Act
-            when(bookRepository.findById(bookId)).thenReturn(Optional.of(book1));
+            when(bookRepository.findWithCategoryById(bookId)).thenReturn(Optional.of(book1));
 
             // Assert
             Book response = bookService.getBook(bookId);
@@ -84,10 +119,66 @@ public class BookServiceTest {
             var bookId = 1L;
 
             // Act
-            when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
+            when(bookRepository.findWithCategoryById(bookId)).thenReturn(Optional.empty());
+
+            // Assert
+            Assertions.assertThrows(EntityNotFoundException.class, () -> bookService.getBook(bookId));
+        }
+
+        @Test
+        @DisplayName("Should read the book once and then serve copies from the cache")
+        void test_getBook_shouldServeCopiesFromTheCache() {
+            // Arrange
+            var bookId = 1L;
+
+            // Act
+            when(bookRepository.findWithCategoryById(bookId)).thenReturn(Optional.of(book1));
+            var response = bookService.getBook(bookId);
+            response.setTitle("changedTitle");
+
+            // Assert
+            Assertions.assertEquals(book1, bookService.getBook(bookId));
+            Assertions.assertNotSame(book1, bookService.getBook(bookId));
+            verify(bookRepository, times(1)).findWithCategoryById(bookId);
+        }
+
+        @Test
+        @DisplayName("Should not cache a missing book")
+        void test_getBook_shouldNotCacheMissingBook() {
+            // Arrange
+            var bookId = 1L;
+
+            // Act
+            when(bookRepository.findWithCategoryById(bookId)).thenReturn(Optional.empty(), Optional.of(book1));
 
             // Assert
             Assertions.assertThrows(EntityNotFoundException.class, () -> bookService.getBook(bookId));
+            Assertions.assertEquals(book1, bookService.getBook(bookId));
+        }
+    }
+
+    @Nested
+    @DisplayName("Test getBook method with the book cache turned off")
+    class TestGetBookWithoutCache {
+        @AfterEach
+        void tearDown() {
+            ReflectionTestUtils.setField(bookService, "bookCacheEnabled", true);
+        }
+
+        @Test
+        @DisplayName("Should read the book from the repository on every call")
+        void test_getBook_shouldReadFromRepositoryOnEveryCall() {
+            // Arrange
+            var bookId = 1L;
+            ReflectionTestUtils.setField(bookService, "bookCacheEnabled", false);
+
+            // Act
+            when(bookRepository.findWithCategoryById(bookId)).thenReturn(Optional.of(book1));
+            bookService.getBook(bookId);
+            bookService.getBook(bookId);
+
+            // Assert
+            verify(bookRepository, times(2)).findWithCategoryById(bookId);
         }
     }
 
@@ -98,8 +189,9 @@ public class BookServiceTest {
         @DisplayName("Should create book")
         void test_createBook_shouldCreateBook() throws EntityNotFoundException {
             // Arrange
-            var bookRequest = new BookRequest("titleValue1", "authorValue1", "descriptionValue1", 1, "imageUrl1",
-                    1, "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131", "dimensions1", 1L);
+            var bookRequest = new BookRequest("titleValue1", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1),
+                    "imageUrl1", 1, "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131",
+                    "dimensions1", 1L);
 
             // Act
             when(bookRepository.save(any())).thenReturn(book1);
@@ -108,6 +200,7 @@ public class BookServiceTest {
             // Assert
             Book response = bookService.createBook(bookRequest);
             Assertions.assertEquals(book1, response);
+            verify(bookCategoryCounts).add(bookCategory.getId(), 1);
         }
     }
 
@@ -119,8 +212,9 @@ public class BookServiceTest {
         void test_updateBook_shouldUpdateBook() throws EntityNotFoundException {
             // Arrange
             var bookId = 1L;
-            var bookRequest = new BookRequest("titleValue1", "authorValue1", "descriptionValue1", 1, "imageUrl1",
-                    1, "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131", "dimensions1", 1L);
+            var bookRequest = new BookRequest("titleValue1", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1),
+                    "imageUrl1", 1, "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131",
+                    "dimensions1", 1L);
 
             // Act
             when(bookRepository.findById(bookId)).thenReturn(Optional.of(book1));
@@ -130,6 +224,81 @@ public class BookServiceTest {
             // Assert
             Book response = bookService.updateBook(bookId, bookRequest);
             Assertions.assertEquals(book1, response);
+            verify(bookCategoryCounts, never()).add(any(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should move the book between the category counts when its category changes")
+        void test_updateBook_shouldMoveTheBookBetweenCategoryCounts() {
+            // Arrange
+            var bookId = 1L;
+            var otherCategory = new BookCategory(2L, "nameValue2", "descriptionValue2",
+                    LocalDateTime.now(clock), LocalDateTime.now(clock), null);
+            var bookRequest = new BookRequest("titleValue1", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1),
+                    "imageUrl1", 1, "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131",
+                    "dimensions1", 2L);
+
+            // Act
+            when(bookRepository.findById(bookId)).thenReturn(Optional.of(book1));
+            when(bookRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+            when(bookCategoryService.getBookCategory(otherCategory.getId())).thenReturn(otherCategory);
+            bookService.updateBook(bookId, bookRequest);
+
+            // Assert
+            verify(bookCategoryCounts).add(bookCategory.getId(), -1);
+            verify(bookCategoryCounts).add(otherCategory.getId(), 1);
+        }
+
+        @Test
+        @DisplayName("Should evict the cached book")
+        void test_updateBook_shouldEvictCachedBook() {
+            // Arrange
+            var bookId = 1L;
+            var bookRequest = new BookRequest("titleValue2", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1),
+                    "imageUrl1", 1, "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131",
+                    "dimensions1", 1L);
+
+            // Act
+            when(bookRepository.findById(bookId)).thenReturn(Optional.of(book1));
+            when(bookRepository.findWithCategoryById(bookId)).thenReturn(Optional.of(book1));
+            when(bookRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+            when(bookCategoryService.getBookCategory(bookRequest.getBookCategoryId())).thenReturn(bookCategory);
+            bookService.getBook(bookId);
+            bookService.updateBook(bookId, bookRequest);
+
+            // Assert
+            Assertions.assertEquals("titleValue2", bookService.getBook(bookId).getTitle());
+        }
+
+        @Test
+        @DisplayName("Should evict the cached book only once the transaction completes")
+        void test_updateBook_shouldEvictCachedBookAfterCompletion() {
+            // Arrange
+            var bookId = 1L;
+            var bookRequest = new BookRequest("titleValue2", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1),
+                    "imageUrl1", 1, "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131",
+                    "dimensions1", 1L);
+
+            // Act
+            when(bookRepository.findById(bookId)).thenReturn(Optional.of(book1));
+            when(bookRepository.findWithCategoryById(bookId)).thenReturn(Optional.of(book1));
+            when(bookRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+            when(bookCategoryService.getBookCategory(bookRequest.getBookCategoryId())).thenReturn(bookCategory);
+            bookService.getBook(bookId);
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                bookService.updateBook(bookId, bookRequest);
+                bookService.getBook(bookId);
+                verify(bookRepository, times(1)).findWithCategoryById(bookId);
+                TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                        synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+            bookService.getBook(bookId);
+
+            // Assert
+            verify(bookRepository, times(2)).findWithCategoryById(bookId);
         }
 
         @Test
@@ -137,8 +306,9 @@ public class BookServiceTest {
         void test_updateBook_shouldThrowEntityNotFoundExceptionWhenBookIsNotFound() {
             // Arrange
             var bookId = 1L;
-            var bookRequest = new BookRequest("titleValue1", "authorValue1", "descriptionValue1", 1, "imageUrl1",
-                    1, "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131", "dimensions1", 1L);
+            var bookRequest = new BookRequest("titleValue1", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1),
+                    "imageUrl1", 1, "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131",
+                    "dimensions1", 1L);
 
             // Act
             when(bookRepository.findById(bookId)).thenReturn(Optional.empty());
@@ -162,6 +332,7 @@ public class BookServiceTest {
 
             // Assert
             bookService.deleteBook(bookId);
+            verify(bookCategoryCounts).add(bookCategory.getId(), -1);
         }
 
         @Test
@@ -187,12 +358,313 @@ public class BookServiceTest {
             // Arrange
             var searchString = book1.getTitle() + " " + book2.getAuthor();
 
+            // Act
+            when(bookSearchIndex.search(searchString, 100)).thenReturn(new long[]{1L, 2L});
+            when(bookRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(book1, book2));
+
+            // Assert
+            List<Book> response = bookService.searchBooks(Optional.of(searchString));
+            Assertions.assertEquals(List.of(book1, book2), response);
+        }
+
+        @Test
+        @DisplayName("Should keep the ranking of the search index")
+        void test_searchBooks_shouldKeepTheRankingOfTheSearchIndex() {
+            // Arrange
+            var searchString = book2.getTitle();
+
+            // Act
+            when(bookSearchIndex.search(searchString, 100)).thenReturn(new long[]{2L, 1L});
+            when(bookRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(book1, book2));
+
+            // Assert
+            List<Book> response = bookService.searchBooks(Optional.of(searchString));
+            Assertions.assertEquals(List.of(book2, book1), response);
+        }
+
+        @Test
+        @DisplayName("Should return empty list without querying the database when nothing matches")
+        void test_searchBooks_shouldReturnEmptyListWhenNothingMatches() {
+            // Arrange
+            var searchString = "missing";
+
+            // Act
+            when(bookSearchIndex.search(searchString, 100)).thenReturn(new long[0]);
+
+            // Assert
+            List<Book> response = bookService.searchBooks(Optional.of(searchString));
+            Assertions.assertEquals(List.of(), response);
+            verify(bookRepository, never()).findAllById(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Test searchBooks method with a lower result limit")
+    class TestSearchBookResultLimit {
+        @AfterEach
+        void tearDown() {
+            ReflectionTestUtils.setField(bookService, "maxSearchResults", 100);
+        }
+
+        @Test
+        @DisplayName("Should ask the search index for at most max results books")
+        void test_searchBooks_shouldAskTheSearchIndexForAtMostMaxResultsBooks() {
+            // Arrange
+            var searchString = book1.getTitle();
+            ReflectionTestUtils.setField(bookService, "maxSearchResults", 1);
+
+            // Act
+            when(bookSearchIndex.search(searchString, 1)).thenReturn(new long[]{1L});
+            when(bookRepository.findAllById(List.of(1L))).thenReturn(List.of(book1));
+
+            // Assert
+            List<Book> response = bookService.searchBooks(Optional.of(searchString));
+            Assertions.assertEquals(List.of(book1), response);
+        }
+    }
+
+    @Nested
+    @DisplayName("Test searchBooks method with the legacy word combinations query")
+    class TestSearchBookLegacyCombinations {
+        @AfterEach
+        void tearDown() {
+            ReflectionTestUtils.setField(bookService, "legacyCombinationsSearch", false);
+        }
+
+        @Test
+        @DisplayName("Should query by word combinations when the legacy flag is set")
+        void test_searchBooks_shouldQueryByWordCombinationsWhenLegacyFlagIsSet() {
+            // Arrange
+            var searchString = book1.getTitle() + " " + book2.getAuthor();
+            ReflectionTestUtils.setField(bookService, "legacyCombinationsSearch", true);
+
             // Act
             when(bookRepository.findAllByTitleIsInOrAuthorIsIn(any(), any())).thenReturn(List.of(book1, book2));
 
             // Assert
             List<Book> response = bookService.searchBooks(Optional.of(searchString));
             Assertions.assertEquals(List.of(book1, book2), response);
+            verify(bookSearchIndex, never()).search(any(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("Test searchBooksRanked method")
+    class TestSearchBooksRanked {
+        @Test
+        @DisplayName("Should return the ranked page of books")
+        void test_searchBooksRanked_shouldReturnRankedPage() {
+            // Arrange
+            var searchString = "titleValue";
+            var pageRequest = PageRequest.of(1, 20);
+            var page = new PageImpl<>(List.of(book2, book1), pageRequest, 22);
+
+            // Act
+            when(bookRepository.searchRanked(searchString, pageRequest)).thenReturn(page);
+
+            // Assert
+            Assertions.assertEquals(page, bookService.searchBooksRanked(Optional.of(searchString), Optional.of(1)));
+        }
+
+        @Test
+        @DisplayName("Should return an empty page without querying the database for a blank query")
+        void test_searchBooksRanked_shouldReturnEmptyPageForBlankQuery() {
+            // Assert
+            Assertions.assertTrue(bookService.searchBooksRanked(Optional.of("  "), Optional.empty()).isEmpty());
+            Assertions.assertTrue(bookService.searchBooksRanked(Optional.empty(), Optional.empty()).isEmpty());
+            verify(bookRepository, never()).searchRanked(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should throw InvalidRequestException for a negative page")
+        void test_searchBooksRanked_shouldThrowInvalidRequestExceptionForNegativePage() {
+            // Assert
+            Assertions.assertThrows(InvalidRequestException.class,
+                    () -> bookService.searchBooksRanked(Optional.of("titleValue"), Optional.of(-1)));
+            verify(bookRepository, never()).searchRanked(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Test reserveStock method")
+    class TestReserveStock {
+        @Test
+        @DisplayName("Should reserve the stock when every book has enough")
+        void test_reserveStock_shouldReserveStock() {
+            // Arrange
+            var quantities = new TreeMap<Long, Integer>();
+            quantities.put(book1.getId(), 1);
+            quantities.put(book2.getId(), 2);
+
+            // Act
+            when(bookRepository.reserveStock(quantities, LocalDateTime.now(clock))).thenReturn(List.of());
+
+            // Assert
+            Assertions.assertDoesNotThrow(() -> bookService.reserveStock(quantities));
+            verify(bookRepository, times(1)).reserveStock(quantities, LocalDateTime.now(clock));
+        }
+
+        @Test
+        @DisplayName("Should evict the cached books with a new quantity")
+        void test_reserveStock_shouldEvictCachedBooks() {
+            // Arrange
+            var quantities = new TreeMap<Long, Integer>();
+            quantities.put(book1.getId(), 1);
+
+            // Act
+            when(bookRepository.findWithCategoryById(book1.getId())).thenReturn(Optional.of(book1));
+            when(bookRepository.reserveStock(quantities, LocalDateTime.now(clock))).thenReturn(List.of());
+            bookService.getBook(book1.getId());
+            bookService.reserveStock(quantities);
+            bookService.getBook(book1.getId());
+
+            // Assert
+            verify(bookRepository, times(2)).findWithCategoryById(book1.getId());
+        }
+
+        @Test
+        @DisplayName("Should throw IllegalEntityStateException when a book does not have enough stock")
+        void test_reserveStock_shouldThrowIllegalEntityStateExceptionWhenOutOfStock() {
+            // Arrange
+            var quantities = new TreeMap<Long, Integer>();
+            quantities.put(book1.getId(), 1);
+            quantities.put(book2.getId(), 100);
+
+            // Act
+            when(bookRepository.reserveStock(quantities, LocalDateTime.now(clock)))
+                    .thenReturn(List.of(book2.getId()));
+
+            // Assert
+            Assertions.assertThrows(IllegalEntityStateException.class, () -> bookService.reserveStock(quantities));
+        }
+    }
+
+    @Nested
+    @DisplayName("Test getBooksByCategoryId and getBookSliceByCategoryId methods")
+    class TestGetBooksByCategoryId {
+        @Test
+        @DisplayName("Should read the page of the requested size with the cached count of the category as total")
+        void test_getBooksByCategoryId_shouldReadThePageOfTheRequestedSize() {
+            // Arrange
+            var pageRequest = PageRequest.of(2, 50, Sort.Direction.ASC, "id");
+            var slice = new SliceImpl<>(List.of(book1, book2), pageRequest, true);
+
+            // Act
+            when(bookCategoryService.getBookCategory(bookCategory.getId())).thenReturn(bookCategory);
+            when(bookRepository.findSliceByCategory(bookCategory, pageRequest)).thenReturn(slice);
+            when(bookCategoryCounts.getCount(bookCategory.getId())).thenReturn(180L);
+            var page = bookService.getBooksByCategoryId(bookCategory.getId(), Optional.of(2), Optional.of(50));
+
+            // Assert
+            Assertions.assertEquals(new PageImpl<>(List.of(book1, book2), pageRequest, 180), page);
+            Assertions.assertEquals(4, page.getTotalPages());
+        }
+
+        @Test
+        @DisplayName("Should throw InvalidRequestException for a negative page or a page size out of range")
+        void test_getBooksByCategoryId_whenPageOrSizeIsInvalid() {
+            // Arrange
+
+            // Act
+            when(bookCategoryService.getBookCategory(bookCategory.getId())).thenReturn(bookCategory);
+
+            // Assert
+            Assertions.assertThrows(InvalidRequestException.class,
+                    () -> bookService.getBooksByCategoryId(bookCategory.getId(), Optional.of(-1), Optional.empty()));
+            Assertions.assertThrows(InvalidRequestException.class,
+                    () -> bookService.getBooksByCategoryId(bookCategory.getId(), Optional.empty(), Optional.of(0)));
+            Assertions.assertThrows(InvalidRequestException.class,
+                    () -> bookService.getBooksByCategoryId(bookCategory.getId(), Optional.empty(), Optional.of(101)));
+            verify(bookRepository, never()).findSliceByCategory(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should read a slice by offset without counting the books")
+        void test_getBookSliceByCategoryId_shouldReadSliceByOffset() {
+            // Arrange
+            var pageRequest = PageRequest.of(1, 20, Sort.Direction.ASC, "id");
+            var slice = new SliceImpl<>(List.of(book1, book2), pageRequest, false);
+
+            // Act
+            when(bookCategoryService.getBookCategory(bookCategory.getId())).thenReturn(bookCategory);
+            when(bookRepository.findSliceByCategory(bookCategory, pageRequest)).thenReturn(slice);
+
+            // Assert
+            Assertions.assertEquals(slice, bookService.getBookSliceByCategoryId(bookCategory.getId(), Optional.of(1),
+                    Optional.empty(), Optional.empty()));
+            verify(bookCategoryCounts, never()).getCount(any());
+        }
+
+        @Test
+        @DisplayName("Should read a slice after the given book id")
+        void test_getBookSliceByCategoryId_shouldReadSliceAfterId() {
+            // Arrange
+            var pageRequest = PageRequest.of(0, 10, Sort.Direction.ASC, "id");
+            var slice = new SliceImpl<>(List.of(book2), pageRequest, false);
+
+            // Act
+            when(bookCategoryService.getBookCategory(bookCategory.getId())).thenReturn(bookCategory);
+            when(bookRepository.findSliceByCategoryAndIdGreaterThan(bookCategory, book1.getId(), pageRequest))
+                    .thenReturn(slice);
+
+            // Assert
+            Assertions.assertEquals(slice, bookService.getBookSliceByCategoryId(bookCategory.getId(),
+                    Optional.empty(), Optional.of(10), Optional.of(book1.getId())));
+        }
+
+        @Test
+        @DisplayName("Should throw InvalidRequestException when both page and afterId are given")
+        void test_getBookSliceByCategoryId_whenPageAndAfterIdAreGiven() {
+            // Arrange
+
+            // Act
+
+            // Assert
+            Assertions.assertThrows(InvalidRequestException.class, () -> bookService.getBookSliceByCategoryId(
+                    bookCategory.getId(), Optional.of(1), Optional.empty(), Optional.of(book1.getId())));
+        }
+    }
+
+    @Nested
+    @DisplayName("Test exportBooks method")
+    class TestExportBooks {
+        @Test
+        @DisplayName("Should write one json document per line for every book read from the cursor")
+        void test_exportBooks_shouldWriteOneJsonDocumentPerLine() throws Exception {
+            // Arrange
+            var response1 = new BookResponse(book1, null);
+            var response2 = new BookResponse(book2, null);
+            var outputStream = new ByteArrayOutputStream();
+
+            // Act
+            doAnswer(invocation -> {
+                Consumer<BookResponse> consumer = invocation.getArgument(1);
+                consumer.accept(response1);
+                consumer.accept(response2);
+                return null;
+            }).when(bookRepository).exportBooks(anyInt(), any());
+            bookService.exportBooks(outputStream);
+
+            // Assert
+            var lines = outputStream.toString(StandardCharsets.UTF_8).split("\n", -1);
+            Assertions.assertEquals(3, lines.length);
+            Assertions.assertEquals(response1, objectMapper.readValue(lines[0], BookResponse.class));
+            Assertions.assertEquals(response2, objectMapper.readValue(lines[1], BookResponse.class));
+            Assertions.assertEquals("", lines[2]);
+            verify(bookRepository).exportBooks(eq(1000), any());
+        }
+
+        @Test
+        @DisplayName("Should write nothing when there are no books")
+        void test_exportBooks_shouldWriteNothingWhenThereAreNoBooks() throws Exception {
+            // Arrange
+            var outputStream = new ByteArrayOutputStream();
+
+            // Act
+            bookService.exportBooks(outputStream);
+
+            // Assert
+            Assertions.assertEquals(0, outputStream.size());
         }
     }
 }
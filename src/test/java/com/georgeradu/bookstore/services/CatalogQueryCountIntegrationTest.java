@@ -0,0 +1,212 @@
+package com.georgeradu.bookstore.services;
+
+import com.georgeradu.bookstore.CatalogFixtures;
+import com.georgeradu.bookstore.dto.BookResponse;
+import com.georgeradu.bookstore.dto.ReviewResponse;
+import com.georgeradu.bookstore.dto.ShoppingCartItemResponse;
+import com.georgeradu.bookstore.model.*;
+import com.georgeradu.bookstore.repository.*;
+import com.georgeradu.bookstore.service.BookService;
+import com.georgeradu.bookstore.service.ReviewService;
+import com.georgeradu.bookstore.service.ShoppingCartItemService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// pins the number of statements of the book, review and shopping cart reads against the real database, including
+// the mapping to the response the endpoint serializes. The associations are lazy, so a read only joins what its
+// response needs. The book cache is turned off so every getBook reaches the database. The data is written in a
+// transaction that is rolled back after each test.
+// run with: mvn test -Dtest=CatalogQueryCountIntegrationTest -Dintegration=true
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.cache.books.enabled=false"
+})
+@EnabledIfSystemProperty(named = "integration", matches = "true")
+@Import(CatalogFixtures.class)
+public class CatalogQueryCountIntegrationTest {
+    private static final int BOOKS = 4;
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private ReviewService reviewService;
+    @Autowired
+    private ShoppingCartItemService shoppingCartItemService;
+    @Autowired
+    private CatalogFixtures catalogFixtures;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private ShoppingCartItemRepository shoppingCartItemRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private StatementCounter statementCounter;
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new StatementCounter(entityManager);
+    }
+
+    @AfterEach
+    void tearDown() {}
+
+    @Nested
+    @DisplayName("Test the number of queries of the book reads")
+    class TestBookReadQueryCount {
+        @Test
+        @DisplayName("Book should run one query joining its category")
+        void test_getBook_shouldRunOneQuery() {
+            inRolledBackTransaction(catalog -> {
+                var bookId = catalog.books.get(0).getId();
+                var book = statementCounter.expect(1, () -> bookService.getBook(bookId));
+                Assertions.assertTrue(Hibernate.isInitialized(book.getCategory()));
+                Assertions.assertEquals(bookId, new BookResponse(book).getId());
+            });
+        }
+
+        @Test
+        @DisplayName("Books of a category should run two queries")
+        void test_getBookSliceByCategoryId_shouldRunTwoQueries() {
+            inRolledBackTransaction(catalog -> {
+                var categoryId = catalog.books.get(0).getCategory().getId();
+                var books = statementCounter.expect(2, () -> bookService
+                        .getBookSliceByCategoryId(categoryId, Optional.empty(), Optional.of(BOOKS), Optional.empty())
+                        .map(BookResponse::new)
+                        .getContent());
+                Assertions.assertEquals(BOOKS, books.size());
+            });
+        }
+    }
+
+    @Nested
+    @DisplayName("Test the number of queries of the review reads")
+    class TestReviewReadQueryCount {
+        @Test
+        @DisplayName("Review should run one query without loading its book and user")
+        void test_getReview_shouldRunOneQuery() {
+            inRolledBackTransaction(catalog -> {
+                var reviewId = catalog.reviews.get(0).getId();
+                var review = statementCounter.expect(1, () -> reviewService.getReview(reviewId));
+                Assertions.assertFalse(Hibernate.isInitialized(review.getBook()));
+                Assertions.assertFalse(Hibernate.isInitialized(review.getUser()));
+                Assertions.assertEquals(reviewId, new ReviewResponse(review).getId());
+            });
+        }
+
+        @Test
+        @DisplayName("Review should equal the saved review without loading its book and user")
+        void test_getReview_shouldEqualSavedReviewWithoutLoadingAssociations() {
+            inRolledBackTransaction(catalog -> {
+                var saved = catalog.reviews.get(0);
+                var review = statementCounter.expect(1, () -> reviewService.getReview(saved.getId()));
+                Assertions.assertEquals(saved, review);
+                Assertions.assertEquals(saved.hashCode(), review.hashCode());
+                Assertions.assertFalse(Hibernate.isInitialized(review.getBook()));
+                Assertions.assertFalse(Hibernate.isInitialized(review.getUser()));
+            });
+        }
+
+        @Test
+        @DisplayName("Reviews of a book should run two queries")
+        void test_getReviewsForBook_shouldRunTwoQueries() {
+            inRolledBackTransaction(catalog -> {
+                var bookId = catalog.books.get(0).getId();
+                var page = statementCounter.expect(2,
+                        () -> reviewService.getReviewsForBook(bookId, Optional.empty(), Optional.empty()));
+                Assertions.assertEquals(1, page.getContent().size());
+            });
+        }
+
+        @Test
+        @DisplayName("Reviews of a user should run two queries")
+        void test_getReviewsForUser_shouldRunTwoQueries() {
+            inRolledBackTransaction(catalog -> {
+                var userId = catalog.user.getId();
+                var page = statementCounter.expect(2,
+                        () -> reviewService.getReviewsForUser(userId, Optional.empty(), Optional.empty()));
+                Assertions.assertEquals(BOOKS, page.getContent().size());
+            });
+        }
+    }
+
+    @Nested
+    @DisplayName("Test the number of queries of the shopping cart reads")
+    class TestShoppingCartReadQueryCount {
+        @Test
+        @DisplayName("Shopping cart should run one query without loading the books")
+        void test_getResolvedUserShoppingCart_shouldRunOneQuery() {
+            inRolledBackTransaction(catalog -> {
+                var userId = catalog.user.getId();
+                var items = statementCounter.expect(1,
+                        () -> shoppingCartItemService.getResolvedUserShoppingCart(userId));
+                Assertions.assertEquals(BOOKS, items.size());
+                for (var item : items) {
+                    Assertions.assertFalse(Hibernate.isInitialized(item.getBook()));
+                    Assertions.assertEquals(userId, new ShoppingCartItemResponse(item).getUserId());
+                }
+            });
+        }
+
+        @Test
+        @DisplayName("Shopping cart of a user by id should run two queries")
+        void test_getUserShoppingCart_shouldRunTwoQueries() {
+            inRolledBackTransaction(catalog -> {
+                var userId = catalog.user.getId();
+                var items = statementCounter.expect(2, () -> shoppingCartItemService
+                        .getUserShoppingCart(userId)
+                        .stream()
+                        .map(ShoppingCartItemResponse::new)
+                        .toList());
+                Assertions.assertEquals(BOOKS, items.size());
+            });
+        }
+    }
+
+    private void inRolledBackTransaction(Consumer<Catalog> test) {
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            test.accept(createCatalog());
+        });
+    }
+
+    // one user who reviewed every book of a category and has all of them in the shopping cart
+    private Catalog createCatalog() {
+        // postgres keeps microseconds, the saved entities compare equal to the ones read back
+        var timestamp = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        var catalog = new Catalog();
+        catalog.user = catalogFixtures.createUser(timestamp);
+        var category = catalogFixtures.createCategory(timestamp);
+        for (var book : catalogFixtures.createBooks(category, BOOKS, 10, timestamp)) {
+            catalog.books.add(book);
+            catalog.reviews.add(reviewRepository.save(new Review(null, book, catalog.user, 5, "commentValue",
+                    timestamp, timestamp, null)));
+            shoppingCartItemRepository.save(new ShoppingCartItem(null, catalog.user, book, 1, timestamp, timestamp,
+                    null));
+        }
+        return catalog;
+    }
+
+    private static class Catalog {
+        private User user;
+        private final List<Book> books = new ArrayList<>();
+        private final List<Review> reviews = new ArrayList<>();
+    }
+}
@@ -0,0 +1,114 @@
+package com.georgeradu.bookstore.services;
+
+import com.georgeradu.bookstore.config.CacheConfig;
+import com.georgeradu.bookstore.model.User;
+import com.georgeradu.bookstore.model.UserRole;
+import com.georgeradu.bookstore.service.JwtServiceImpl;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.*;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.LocalDateTime;
+
+public class JwtServiceTest {
+    private static final String SECRET_KEY = "2f2ce870d3eae7bbb6175beedf234facf5086c5ecdc995f5bdbd01d477e01ead";
+    private static final String OTHER_SECRET_KEY = "0a1b2c3d4e5f60718293a4b5c6d7e8f90a1b2c3d4e5f60718293a4b5c6d7e8f9";
+    private final static LocalDateTime NOW = LocalDateTime.now();
+    private User user1, user2;
+    private CacheManager cacheManager;
+    private JwtServiceImpl jwtService;
+
+    @BeforeEach
+    public void setUp() {
+        var caffeineCacheManager = new CaffeineCacheManager();
+        caffeineCacheManager.registerCustomCache(CacheConfig.VERIFIED_TOKENS,
+                CacheConfig.verifiedTokensCache("maximumSize=100,recordStats"));
+        cacheManager = caffeineCacheManager;
+        jwtService = new JwtServiceImpl(SECRET_KEY, 60_000L, cacheManager);
+        user1 = new User(1L, "firstNameValue", "lastNameValue", "emailValue1", "passwordValue", UserRole.ROLE_USER,
+                NOW, NOW, null);
+        user2 = new User(2L, "firstNameValue", "lastNameValue", "emailValue2", "passwordValue", UserRole.ROLE_USER,
+                NOW, NOW, null);
+    }
+
+    @AfterEach
+    void tearDown() {}
+
+    @Nested
+    @DisplayName("Test isTokenValid method")
+    class TestIsTokenValid {
+        @Test
+        @DisplayName("Should accept the token of the user from the parsed claims")
+        void test_isTokenValid_shouldAcceptTokenOfTheUser() {
+            // Arrange
+            var token = jwtService.generateToken(user1);
+
+            // Act
+            var claims = jwtService.extractAllClaims(token);
+
+            // Assert
+            Assertions.assertEquals(user1.getUsername(), claims.getSubject());
+            Assertions.assertTrue(jwtService.isTokenValid(claims, user1));
+            Assertions.assertTrue(jwtService.isTokenValid(token, user1));
+            Assertions.assertFalse(jwtService.isTokenValid(claims, user2));
+        }
+
+        @Test
+        @DisplayName("Should reject tokens signed with another key or expired")
+        void test_isTokenValid_shouldRejectForeignOrExpiredTokens() {
+            // Arrange
+            var foreignToken = new JwtServiceImpl(OTHER_SECRET_KEY, 60_000L, cacheManager).generateToken(user1);
+            var expiredToken = new JwtServiceImpl(SECRET_KEY, -1_000L, cacheManager).generateToken(user1);
+
+            // Act
+
+            // Assert
+            Assertions.assertThrows(SignatureException.class, () -> jwtService.extractAllClaims(foreignToken));
+            Assertions.assertThrows(ExpiredJwtException.class, () -> jwtService.extractAllClaims(expiredToken));
+        }
+    }
+
+    @Nested
+    @DisplayName("Test extractAllClaims method")
+    class TestExtractAllClaims {
+        @Test
+        @DisplayName("Should verify a token once and serve it from the cache afterwards")
+        void test_extractAllClaims_shouldServeVerifiedTokenFromCache() {
+            // Arrange
+            var token1 = jwtService.generateToken(user1);
+            var token2 = jwtService.generateToken(user2);
+
+            // Act
+            var claims1 = jwtService.extractAllClaims(token1);
+            var claims2 = jwtService.extractAllClaims(token2);
+
+            // Assert
+            Assertions.assertSame(claims1, jwtService.extractAllClaims(token1));
+            Assertions.assertSame(claims2, jwtService.extractAllClaims(token2));
+            Assertions.assertEquals(user2.getUsername(), claims2.getSubject());
+            var nativeCache = (com.github.benmanes.caffeine.cache.Cache<?, ?>) cacheManager
+                    .getCache(CacheConfig.VERIFIED_TOKENS)
+                    .getNativeCache();
+            Assertions.assertEquals(2, nativeCache.stats().hitCount());
+            Assertions.assertEquals(2, nativeCache.stats().missCount());
+        }
+
+        @Test
+        @DisplayName("Should not cache a token that fails the verification")
+        void test_extractAllClaims_shouldNotCacheInvalidToken() {
+            // Arrange
+            var token = jwtService.generateToken(user1);
+            var signatureStart = token.lastIndexOf('.') + 1;
+            var tamperedToken = token.substring(0, signatureStart) +
+                                (token.charAt(signatureStart) == 'A' ? 'B' : 'A') + token.substring(signatureStart + 1);
+
+            // Act
+
+            // Assert
+            Assertions.assertThrows(SignatureException.class, () -> jwtService.extractAllClaims(tamperedToken));
+            Assertions.assertThrows(SignatureException.class, () -> jwtService.extractAllClaims(tamperedToken));
+        }
+    }
+}
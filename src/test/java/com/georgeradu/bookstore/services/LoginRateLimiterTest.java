@@ -0,0 +1,76 @@
+package com.georgeradu.bookstore.services;
+
+import com.georgeradu.bookstore.exception.TooManyRequestsException;
+import com.georgeradu.bookstore.service.LoginRateLimiterImpl;
+import org.junit.jupiter.api.*;
+
+import java.time.Clock;
+import java.time.Instant;
+
+import static org.mockito.Mockito.*;
+
+public class LoginRateLimiterTest {
+    private final static Instant NOW = Instant.now();
+    private Clock clock;
+    private LoginRateLimiterImpl loginRateLimiter;
+
+    @BeforeEach
+    public void setUp() {
+        clock = mock(Clock.class);
+        when(clock.millis()).thenReturn(NOW.toEpochMilli());
+        loginRateLimiter = new LoginRateLimiterImpl(clock, 2, 2, 3, 60);
+    }
+
+    @AfterEach
+    void tearDown() {}
+
+    @Nested
+    @DisplayName("Test acquire method")
+    class TestAcquire {
+        @Test
+        @DisplayName("Should limit the attempts of an account whatever the case of the email")
+        void test_acquire_shouldLimitAttemptsPerAccount() {
+            // Arrange
+
+            // Act
+            loginRateLimiter.acquire("email@value.com", "127.0.0.1");
+            loginRateLimiter.acquire("EMAIL@value.com", "127.0.0.2");
+
+            // Assert
+            Assertions.assertThrows(TooManyRequestsException.class,
+                    () -> loginRateLimiter.acquire("email@value.com", "127.0.0.3"));
+            Assertions.assertDoesNotThrow(() -> loginRateLimiter.acquire("other@value.com", "127.0.0.3"));
+        }
+
+        @Test
+        @DisplayName("Should limit the attempts of an address across accounts")
+        void test_acquire_shouldLimitAttemptsPerAddress() {
+            // Arrange
+
+            // Act
+            loginRateLimiter.acquire("email1@value.com", "127.0.0.1");
+            loginRateLimiter.acquire("email2@value.com", "127.0.0.1");
+            loginRateLimiter.acquire("email3@value.com", "127.0.0.1");
+
+            // Assert
+            Assertions.assertThrows(TooManyRequestsException.class,
+                    () -> loginRateLimiter.acquire("email4@value.com", "127.0.0.1"));
+        }
+
+        @Test
+        @DisplayName("Should refill the attempts over time")
+        void test_acquire_shouldRefillAttemptsOverTime() {
+            // Arrange
+            loginRateLimiter.acquire("email@value.com", "127.0.0.1");
+            loginRateLimiter.acquire("email@value.com", "127.0.0.1");
+
+            // Act
+            when(clock.millis()).thenReturn(NOW.plusSeconds(30).toEpochMilli());
+
+            // Assert
+            Assertions.assertDoesNotThrow(() -> loginRateLimiter.acquire("email@value.com", "127.0.0.1"));
+            Assertions.assertThrows(TooManyRequestsException.class,
+                    () -> loginRateLimiter.acquire("email@value.com", "127.0.0.1"));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.georgeradu.bookstore.services;
+
+import com.georgeradu.bookstore.CatalogFixtures;
+import com.georgeradu.bookstore.model.*;
+import com.georgeradu.bookstore.repository.*;
+import com.georgeradu.bookstore.service.OrderService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// pins the number of statements every order read runs against the real database, whatever the number of orders and
+// items. The data is written in a transaction that is rolled back after each test.
+// run with: mvn test -Dtest=OrderQueryCountIntegrationTest -Dintegration=true
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@EnabledIfSystemProperty(named = "integration", matches = "true")
+@Import(CatalogFixtures.class)
+public class OrderQueryCountIntegrationTest {
+    private static final int ORDERS = 5;
+    private static final int ITEMS_PER_ORDER = 4;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CatalogFixtures catalogFixtures;
+    @Autowired
+    private OrderInfoRepository orderInfoRepository;
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private StatementCounter statementCounter;
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new StatementCounter(entityManager);
+    }
+
+    @AfterEach
+    void tearDown() {}
+
+    @Nested
+    @DisplayName("Test the number of queries of the order reads")
+    class TestOrderReadQueryCount {
+        @Test
+        @DisplayName("Order history should run one query")
+        void test_getUserOrderHistory_shouldRunOneQuery() {
+            inRolledBackTransaction(orders -> {
+                var userId = orders.get(0).getUser().getId();
+                var rows = countQueries(1, () -> orderService.getUserOrderHistory(userId));
+                Assertions.assertEquals(ORDERS, rows);
+            });
+        }
+
+        @Test
+        @DisplayName("Order history of a user by id should run two queries")
+        void test_getOrderHistoryForUserById_shouldRunTwoQueries() {
+            inRolledBackTransaction(orders -> {
+                var userId = orders.get(0).getUser().getId();
+                var rows = countQueries(2, () -> orderService.getOrderHistoryForUserById(userId));
+                Assertions.assertEquals(ORDERS, rows);
+            });
+        }
+
+        @Test
+        @DisplayName("Order info should run one query")
+        void test_getUserOrderInfoById_shouldRunOneQuery() {
+            inRolledBackTransaction(orders -> {
+                var order = orders.get(0);
+                countQueries(1, () -> List.of(orderService.getUserOrderInfoById(order.getUser().getId(),
+                        order.getId())));
+            });
+        }
+
+        @Test
+        @DisplayName("Order items should run two queries")
+        void test_getUserOrderItemsByOrderInfoId_shouldRunTwoQueries() {
+            inRolledBackTransaction(orders -> {
+                var order = orders.get(0);
+                var rows = countQueries(2,
+                        () -> orderService.getUserOrderItemsByOrderInfoId(order.getUser().getId(), order.getId()));
+                Assertions.assertEquals(ITEMS_PER_ORDER, rows);
+            });
+        }
+
+        @Test
+        @DisplayName("Order with its items should run two queries")
+        void test_getUserOrderDetailsById_shouldRunTwoQueries() {
+            inRolledBackTransaction(orders -> {
+                var order = orders.get(0);
+                var rows = countQueries(2, () -> orderService
+                        .getUserOrderDetailsById(order.getUser().getId(), order.getId())
+                        .getOrderItems());
+                Assertions.assertEquals(ITEMS_PER_ORDER, rows);
+            });
+        }
+    }
+
+    // runs the read on an empty persistence context, checks the number of prepared statements and returns the
+    // number of rows read
+    private int countQueries(long expectedQueries, Supplier<List<?>> read) {
+        return statementCounter.expect(expectedQueries, read).size();
+    }
+
+    private void inRolledBackTransaction(Consumer<List<OrderInfo>> test) {
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            test.accept(createOrders());
+        });
+    }
+
+    private List<OrderInfo> createOrders() {
+        var timestamp = LocalDateTime.now();
+        var user = catalogFixtures.createUser(timestamp);
+        var category = catalogFixtures.createCategory(timestamp);
+        var books = catalogFixtures.createBooks(category, ITEMS_PER_ORDER, 10, timestamp);
+        var orders = new ArrayList<OrderInfo>();
+        for (int i = 0; i < ORDERS; i++) {
+            var order = orderInfoRepository.save(new OrderInfo(null, user,
+                    BigDecimal.TEN.multiply(BigDecimal.valueOf(ITEMS_PER_ORDER)), "shippingAddressValue",
+                    OrderStatus.PENDING, null, timestamp, timestamp, null));
+            for (var book : books) {
+                orderItemRepository.save(new OrderItem(null, order, book, 1, BigDecimal.TEN, timestamp, timestamp,
+                        null));
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+}
@@ -1,5 +1,8 @@
 package com.georgeradu.bookstore.services;
 
+import com.georgeradu.bookstore.dto.OrderDetailsResponse;
+import com.georgeradu.bookstore.dto.OrderInfoResponse;
+import com.georgeradu.bookstore.dto.OrderItemResponse;
 import com.georgeradu.bookstore.exception.EntityNotFoundException;
 import com.georgeradu.bookstore.exception.IllegalEntityStateException;
 import com.georgeradu.bookstore.exception.InvalidUserAccessException;
@@ -11,18 +14,22 @@ import com.georgeradu.bookstore.service.OrderService;
 import com.georgeradu.bookstore.service.ShoppingCartItemService;
 import com.georgeradu.bookstore.service.UserService;
 import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doReturn;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @SpringBootTest
 public class OrderServiceTest {
@@ -31,6 +38,8 @@ public class OrderServiceTest {
     private Book book1, book2;
     private OrderInfo orderInfo, orderInfo2;
     private OrderItem orderItem1, orderItem2;
+    private OrderInfoResponse orderInfoResponse, orderInfoResponse2;
+    private OrderItemResponse orderItemResponse1, orderItemResponse2;
 
     @MockBean
     private Clock clock;
@@ -45,6 +54,9 @@ public class OrderServiceTest {
     private OrderInfoRepository orderInfoRepository;
     @MockBean
     private OrderItemRepository orderItemRepository;
+    // the transactional methods run without a database
+    @MockBean
+    private PlatformTransactionManager transactionManager;
     @Autowired
     private OrderService orderService;
 
@@ -64,20 +76,24 @@ public class OrderServiceTest {
                 LocalDateTime.now(clock), LocalDateTime.now(clock), null);
         var bookCategory = new BookCategory(1L, "nameValue1", "descriptionValue1", LocalDateTime.now(clock),
                 LocalDateTime.now(clock), null);
-        book1 = new Book(1L, "titleValue1", "authorValue1", "descriptionValue1", 1, "imageUrl1", 1, "language1",
-                "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131", "dimensions1", 0, bookCategory,
-                LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        book2 = new Book(2L, "titleValue2", "authorValue2", "descriptionValue2", 2, "imageUrl2", 2, "language2",
-                "publisher2", LocalDateTime.now(clock), "isbn102", "isbn132", "dimensions2", 0, bookCategory,
-                LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        orderInfo = new OrderInfo(1L, user1, 100.0, "shippingAddressValue", OrderStatus.PENDING, null,
-                LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        orderInfo2 = new OrderInfo(2L, user1, 10.0, "shippingAddressValue", OrderStatus.DELIVERED,
+        book1 = new Book(1L, "titleValue1", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1), "imageUrl1", 1,
+                "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131", "dimensions1", 0,
+                bookCategory, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
+        book2 = new Book(2L, "titleValue2", "authorValue2", "descriptionValue2", BigDecimal.valueOf(2), "imageUrl2", 2,
+                "language2", "publisher2", LocalDateTime.now(clock), "isbn102", "isbn132", "dimensions2", 0,
+                bookCategory, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
+        orderInfo = new OrderInfo(1L, user1, new BigDecimal("100.0"), "shippingAddressValue", OrderStatus.PENDING,
+                null, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
+        orderInfo2 = new OrderInfo(2L, user1, new BigDecimal("10.0"), "shippingAddressValue", OrderStatus.DELIVERED,
                 LocalDateTime.now(clock), LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        orderItem1 = new OrderItem(1L, orderInfo, book1, 1, 100.0, LocalDateTime.now(clock), LocalDateTime.now(clock),
-                null);
-        orderItem2 = new OrderItem(2L, orderInfo, book2, 2, 200.0, LocalDateTime.now(clock), LocalDateTime.now(clock),
-                null);
+        orderItem1 = new OrderItem(1L, orderInfo, book1, 1, new BigDecimal("100.0"), LocalDateTime.now(clock),
+                LocalDateTime.now(clock), null);
+        orderItem2 = new OrderItem(2L, orderInfo, book2, 2, new BigDecimal("200.0"), LocalDateTime.now(clock),
+                LocalDateTime.now(clock), null);
+        orderInfoResponse = new OrderInfoResponse(orderInfo);
+        orderInfoResponse2 = new OrderInfoResponse(orderInfo2);
+        orderItemResponse1 = new OrderItemResponse(orderItem1);
+        orderItemResponse2 = new OrderItemResponse(orderItem2);
     }
 
     @AfterEach
@@ -120,11 +136,11 @@ public class OrderServiceTest {
             // Arrange
 
             // Act
-            when(orderInfoRepository.findById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
+            when(orderInfoRepository.findResponseById(orderInfo.getId())).thenReturn(Optional.of(orderInfoResponse));
 
             // Assert
-            Assertions.assertEquals(orderInfo, orderService.getUserOrderInfoById(user1.getEmail(), orderInfo.getId()));
+            Assertions.assertEquals(orderInfoResponse,
+                    orderService.getUserOrderInfoById(user1.getId(), orderInfo.getId()));
         }
 
         @Test
@@ -133,12 +149,24 @@ public class OrderServiceTest {
             // Arrange
 
             // Act
-            when(orderInfoRepository.findById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
-            when(userService.getUserByEmail(user2.getEmail())).thenReturn(user2);
+            when(orderInfoRepository.findResponseById(orderInfo.getId())).thenReturn(Optional.of(orderInfoResponse));
 
             // Assert
             Assertions.assertThrows(InvalidUserAccessException.class,
-                    () -> orderService.getUserOrderInfoById(user2.getEmail(), orderInfo.getId()));
+                    () -> orderService.getUserOrderInfoById(user2.getId(), orderInfo.getId()));
+        }
+
+        @Test
+        @DisplayName("Should throw EntityNotFoundException when order info does not exist")
+        void test_getUserOrderInfoById_whenOrderInfoDoesNotExist() {
+            // Arrange
+
+            // Act
+            when(orderInfoRepository.findResponseById(orderInfo.getId())).thenReturn(Optional.empty());
+
+            // Assert
+            Assertions.assertThrows(EntityNotFoundException.class,
+                    () -> orderService.getUserOrderInfoById(user1.getId(), orderInfo.getId()));
         }
     }
 
@@ -149,11 +177,10 @@ public class OrderServiceTest {
         @DisplayName("Should return order items when order info exists")
         void test_getOrderItemsByOrderInfoId_whenOrderInfoExists() {
             // Arrange
-            var orderItems = List.of(orderItem1, orderItem2);
+            var orderItems = List.of(orderItemResponse1, orderItemResponse2);
 
             // Act
-            when(orderInfoRepository.findById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
-            when(orderItemRepository.findAllByOrderInfoId(orderInfo.getId())).thenReturn(orderItems);
+            when(orderItemRepository.findResponsesByOrderInfoId(orderInfo.getId())).thenReturn(orderItems);
 
             // Assert
             Assertions.assertEquals(orderItems, orderService.getOrderItemsByOrderInfoId(orderInfo.getId()));
@@ -166,8 +193,7 @@ public class OrderServiceTest {
             var orderItems = List.of();
 
             // Act
-            when(orderInfoRepository.findById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
-            when(orderItemRepository.findAllByOrderInfoId(orderInfo.getId())).thenReturn(List.of());
+            when(orderItemRepository.findResponsesByOrderInfoId(orderInfo.getId())).thenReturn(List.of());
 
             // Assert
             Assertions.assertEquals(orderItems, orderService.getOrderItemsByOrderInfoId(orderInfo.getId()));
@@ -181,32 +207,63 @@ public class OrderServiceTest {
         @DisplayName("Should return order items when order info exists and user is owner")
         void test_getUserOrderItemsByOrderInfoId_whenOrderInfoExistsAndUserIsOwner() {
             // Arrange
-            var orderItems = List.of(orderItem1, orderItem2);
+            var orderItems = List.of(orderItemResponse1, orderItemResponse2);
 
             // Act
-            when(orderInfoRepository.findById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
-            when(orderItemRepository.findAllByOrderInfoId(orderInfo.getId())).thenReturn(orderItems);
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
+            when(orderInfoRepository.findResponseById(orderInfo.getId())).thenReturn(Optional.of(orderInfoResponse));
+            when(orderItemRepository.findResponsesByOrderInfoId(orderInfo.getId())).thenReturn(orderItems);
 
             // Assert
             Assertions.assertEquals(orderItems,
-                    orderService.getUserOrderItemsByOrderInfoId(user1.getEmail(), orderInfo.getId()));
+                    orderService.getUserOrderItemsByOrderInfoId(user1.getId(), orderInfo.getId()));
         }
 
         @Test
         @DisplayName("Should throw InvalidUserAccessException when user is not owner")
         void test_getUserOrderItemsByOrderInfoId_whenUserIsNotOwner() {
             // Arrange
-            var orderItems = List.of(orderItem1, orderItem2);
+            var orderItems = List.of(orderItemResponse1, orderItemResponse2);
 
             // Act
-            when(orderInfoRepository.findById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
-            when(orderItemRepository.findAllByOrderInfoId(orderInfo.getId())).thenReturn(orderItems);
-            when(userService.getUserByEmail(user2.getEmail())).thenReturn(user2);
+            when(orderInfoRepository.findResponseById(orderInfo.getId())).thenReturn(Optional.of(orderInfoResponse));
+            when(orderItemRepository.findResponsesByOrderInfoId(orderInfo.getId())).thenReturn(orderItems);
+
+            // Assert
+            Assertions.assertThrows(InvalidUserAccessException.class,
+                    () -> orderService.getUserOrderItemsByOrderInfoId(user2.getId(), orderInfo.getId()));
+            verify(orderItemRepository, never()).findResponsesByOrderInfoId(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for getUserOrderDetailsById method")
+    class TestGetUserOrderDetailsById {
+        @Test
+        @DisplayName("Should return order info with its items when user is owner")
+        void test_getUserOrderDetailsById_whenUserIsOwner() {
+            // Arrange
+            var orderItems = List.of(orderItemResponse1, orderItemResponse2);
+
+            // Act
+            when(orderInfoRepository.findResponseById(orderInfo.getId())).thenReturn(Optional.of(orderInfoResponse));
+            when(orderItemRepository.findResponsesByOrderInfoId(orderInfo.getId())).thenReturn(orderItems);
+
+            // Assert
+            Assertions.assertEquals(new OrderDetailsResponse(orderInfoResponse, orderItems),
+                    orderService.getUserOrderDetailsById(user1.getId(), orderInfo.getId()));
+        }
+
+        @Test
+        @DisplayName("Should throw InvalidUserAccessException when user is not owner")
+        void test_getUserOrderDetailsById_whenUserIsNotOwner() {
+            // Arrange
+
+            // Act
+            when(orderInfoRepository.findResponseById(orderInfo.getId())).thenReturn(Optional.of(orderInfoResponse));
 
             // Assert
             Assertions.assertThrows(InvalidUserAccessException.class,
-                    () -> orderService.getUserOrderItemsByOrderInfoId(user2.getEmail(), orderInfo.getId()));
+                    () -> orderService.getUserOrderDetailsById(user2.getId(), orderInfo.getId()));
         }
     }
 
@@ -217,14 +274,13 @@ public class OrderServiceTest {
         @DisplayName("Should return order info list when user has order history")
         void test_getUserOrderHistory_whenUserHasOrderHistory() {
             // Arrange
-            var orderInfoList = List.of(orderInfo, orderInfo2);
+            var orderInfoList = List.of(orderInfoResponse, orderInfoResponse2);
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
-            when(orderInfoRepository.findAllByUserId(user1.getId())).thenReturn(orderInfoList);
+            when(orderInfoRepository.findResponsesByUserId(user1.getId())).thenReturn(orderInfoList);
 
             // Assert
-            Assertions.assertEquals(orderInfoList, orderService.getUserOrderHistory(user1.getEmail()));
+            Assertions.assertEquals(orderInfoList, orderService.getUserOrderHistory(user1.getId()));
         }
 
         @Test
@@ -234,11 +290,10 @@ public class OrderServiceTest {
             var orderInfoList = List.of();
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
-            when(orderInfoRepository.findAllByUserId(user1.getId())).thenReturn(List.of());
+            when(orderInfoRepository.findResponsesByUserId(user1.getId())).thenReturn(List.of());
 
             // Assert
-            Assertions.assertEquals(orderInfoList, orderService.getUserOrderHistory(user1.getEmail()));
+            Assertions.assertEquals(orderInfoList, orderService.getUserOrderHistory(user1.getId()));
         }
     }
 
@@ -249,11 +304,11 @@ public class OrderServiceTest {
         @DisplayName("Should return order info list when user has order history")
         void test_getOrderHistoryForUserById_whenUserHasOrderHistory() {
             // Arrange
-            var orderInfoList = List.of(orderInfo, orderInfo2);
+            var orderInfoList = List.of(orderInfoResponse, orderInfoResponse2);
 
             // Act
             when(userService.getUser(user1.getId())).thenReturn(user1);
-            when(orderInfoRepository.findAllByUserId(user1.getId())).thenReturn(orderInfoList);
+            when(orderInfoRepository.findResponsesByUserId(user1.getId())).thenReturn(orderInfoList);
 
             // Assert
             Assertions.assertEquals(orderInfoList, orderService.getOrderHistoryForUserById(user1.getId()));
@@ -267,7 +322,7 @@ public class OrderServiceTest {
 
             // Act
             when(userService.getUser(user1.getId())).thenReturn(user1);
-            when(orderInfoRepository.findAllByUserId(user1.getId())).thenReturn(List.of());
+            when(orderInfoRepository.findResponsesByUserId(user1.getId())).thenReturn(List.of());
 
             // Assert
             Assertions.assertEquals(orderInfoList, orderService.getOrderHistoryForUserById(user1.getId()));
@@ -277,20 +332,74 @@ public class OrderServiceTest {
     @Nested
     @DisplayName("Tests for saveUserShoppingCartAsOrder method")
     class TestSaveUserShoppingCartAsOrder {
+        private ShoppingCartItem shoppingCartItem(Long id, Book book, int quantity) {
+            return new ShoppingCartItem(id, user1, book, quantity, LocalDateTime.now(clock), LocalDateTime.now(clock),
+                    null);
+        }
+
         @Test
         @DisplayName("Should save order info when shopping cart is not empty")
         void test_saveUserShoppingCartAsOrder_whenShoppingCartIsNotEmpty() {
             // Arrange
-            var shoppingCartItems = List.of(new ShoppingCartItem(1L, user1, book1, 1, LocalDateTime.now(clock),
-                    LocalDateTime.now(clock), null));
+            var shoppingCartItems = List.of(shoppingCartItem(1L, book1, 1));
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
-            when(shoppingCartItemService.getUserShoppingCartByEmail(user1.getEmail())).thenReturn(shoppingCartItems);
+            when(userService.getUserReference(user1.getId())).thenReturn(user1);
+            when(shoppingCartItemService.getLockedUserShoppingCart(user1.getId())).thenReturn(shoppingCartItems);
+            when(shoppingCartItemService.getShoppingCartItemsTotalPrice(List.of(1L)))
+                    .thenReturn(new BigDecimal("100.0"));
             when(orderInfoRepository.save(any())).thenReturn(orderInfo);
 
             // Assert
-            Assertions.assertEquals(orderInfo, orderService.saveUserShoppingCartAsOrder(user1.getEmail(), "shippingAddressValue"));
+            Assertions.assertEquals(orderInfo, orderService.saveUserShoppingCartAsOrder(user1.getId(), "shippingAddressValue"));
+            verify(orderItemRepository).insertFromShoppingCart(orderInfo.getId(), List.of(1L),
+                    LocalDateTime.now(clock));
+            verify(shoppingCartItemService).deleteShoppingCartItems(List.of(1L));
+        }
+
+        @Test
+        @DisplayName("Should price, copy and delete only the locked shopping cart items")
+        void test_saveUserShoppingCartAsOrder_shouldOrderOnlyTheLockedItems() {
+            // Arrange
+            var shoppingCartItems = List.of(shoppingCartItem(3L, book1, 1), shoppingCartItem(5L, book2, 2));
+            var shoppingCartItemIds = List.of(3L, 5L);
+
+            // Act
+            when(userService.getUserReference(user1.getId())).thenReturn(user1);
+            when(shoppingCartItemService.getLockedUserShoppingCart(user1.getId())).thenReturn(shoppingCartItems);
+            when(shoppingCartItemService.getShoppingCartItemsTotalPrice(shoppingCartItemIds))
+                    .thenReturn(new BigDecimal("5.00"));
+            when(orderInfoRepository.save(any())).thenReturn(orderInfo);
+            orderService.saveUserShoppingCartAsOrder(user1.getId(), "shippingAddressValue");
+
+            // Assert
+            verify(shoppingCartItemService).getShoppingCartItemsTotalPrice(shoppingCartItemIds);
+            verify(orderItemRepository).insertFromShoppingCart(orderInfo.getId(), shoppingCartItemIds,
+                    LocalDateTime.now(clock));
+            verify(shoppingCartItemService).deleteShoppingCartItems(shoppingCartItemIds);
+        }
+
+        @Test
+        @DisplayName("Should save the total price summed by the database")
+        void test_saveUserShoppingCartAsOrder_shouldSaveTheTotalPriceSummedByTheDatabase() {
+            // Arrange
+            var shoppingCartItems = List.of(shoppingCartItem(1L, book1, 3));
+            var totalPrice = new BigDecimal("0.30");
+
+            // Act
+            when(userService.getUserReference(user1.getId())).thenReturn(user1);
+            when(shoppingCartItemService.getLockedUserShoppingCart(user1.getId())).thenReturn(shoppingCartItems);
+            when(shoppingCartItemService.getShoppingCartItemsTotalPrice(List.of(1L))).thenReturn(totalPrice);
+            when(orderInfoRepository.save(any())).thenReturn(orderInfo);
+            orderService.saveUserShoppingCartAsOrder(user1.getId(), "shippingAddressValue");
+
+            // Assert
+            var orderInfoCaptor = ArgumentCaptor.forClass(OrderInfo.class);
+            verify(orderInfoRepository).save(orderInfoCaptor.capture());
+            Assertions.assertEquals(totalPrice, orderInfoCaptor.getValue().getTotalPrice());
+            var inOrder = inOrder(bookService, shoppingCartItemService);
+            inOrder.verify(bookService).reserveStock(any());
+            inOrder.verify(shoppingCartItemService).getShoppingCartItemsTotalPrice(List.of(1L));
         }
 
         @Test
@@ -299,12 +408,52 @@ public class OrderServiceTest {
             // Arrange
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
-            when(shoppingCartItemService.getUserShoppingCartByEmail(user1.getEmail())).thenReturn(List.of());
+            when(userService.getUserReference(user1.getId())).thenReturn(user1);
+            when(shoppingCartItemService.getLockedUserShoppingCart(user1.getId())).thenReturn(List.of());
 
             // Assert
             Assertions.assertThrows(EntityNotFoundException.class,
-                    () -> orderService.saveUserShoppingCartAsOrder(user1.getEmail(), "shippingAddressValue"));
+                    () -> orderService.saveUserShoppingCartAsOrder(user1.getId(), "shippingAddressValue"));
+        }
+
+        @Test
+        @DisplayName("Should reserve the stock of the shopping cart books ordered by book id")
+        void test_saveUserShoppingCartAsOrder_shouldReserveStockOrderedByBookId() {
+            // Arrange
+            var shoppingCartItems = List.of(shoppingCartItem(1L, book2, 3), shoppingCartItem(2L, book1, 1));
+            var expectedQuantities = new TreeMap<Long, Integer>();
+            expectedQuantities.put(book1.getId(), 1);
+            expectedQuantities.put(book2.getId(), 3);
+
+            // Act
+            when(userService.getUserReference(user1.getId())).thenReturn(user1);
+            when(shoppingCartItemService.getLockedUserShoppingCart(user1.getId())).thenReturn(shoppingCartItems);
+            when(orderInfoRepository.save(any())).thenReturn(orderInfo);
+            orderService.saveUserShoppingCartAsOrder(user1.getId(), "shippingAddressValue");
+
+            // Assert
+            var quantitiesCaptor = ArgumentCaptor.forClass(SortedMap.class);
+            verify(bookService).reserveStock(quantitiesCaptor.capture());
+            Assertions.assertEquals(expectedQuantities, quantitiesCaptor.getValue());
+            Assertions.assertIterableEquals(List.of(book1.getId(), book2.getId()), quantitiesCaptor.getValue().keySet());
+        }
+
+        @Test
+        @DisplayName("Should throw IllegalEntityStateException and not save the order when a book is out of stock")
+        void test_saveUserShoppingCartAsOrder_whenBookIsOutOfStock() {
+            // Arrange
+            var shoppingCartItems = List.of(shoppingCartItem(1L, book1, 5));
+
+            // Act
+            when(shoppingCartItemService.getLockedUserShoppingCart(user1.getId())).thenReturn(shoppingCartItems);
+            doThrow(new IllegalEntityStateException("Not enough stock for books [1]"))
+                    .when(bookService).reserveStock(any());
+
+            // Assert
+            Assertions.assertThrows(IllegalEntityStateException.class,
+                    () -> orderService.saveUserShoppingCartAsOrder(user1.getId(), "shippingAddressValue"));
+            verify(orderInfoRepository, never()).save(any());
+            verify(shoppingCartItemService, never()).deleteShoppingCartItems(any());
         }
     }
 
@@ -315,11 +464,12 @@ public class OrderServiceTest {
         @DisplayName("Should set order status to DELIVERED when order exists and user is owner")
         void test_setOrderToBeDelivered_whenOrderExistsAndUserIsOwner() {
             // Arrange
-            var updatedOrderInfo = new OrderInfo(1L, user1, 100.0, "shippingAddressValue", OrderStatus.DELIVERED,
-                    LocalDateTime.now(clock), LocalDateTime.now(clock), LocalDateTime.now(clock), null);
+            var updatedOrderInfo = new OrderInfo(1L, user1, new BigDecimal("100.0"), "shippingAddressValue",
+                    OrderStatus.DELIVERED, LocalDateTime.now(clock), LocalDateTime.now(clock), LocalDateTime.now(clock),
+                    null);
 
             // Act
-            when(orderInfoRepository.findById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
+            when(orderInfoRepository.findLockedById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
             when(orderInfoRepository.save(updatedOrderInfo)).thenReturn(updatedOrderInfo);
 
             // Assert
@@ -333,7 +483,7 @@ public class OrderServiceTest {
             orderInfo.setStatus(OrderStatus.CANCELLED);
 
             // Act
-            when(orderInfoRepository.findById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
+            when(orderInfoRepository.findLockedById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
 
             // Assert
             Assertions.assertThrows(IllegalEntityStateException.class,
@@ -347,7 +497,7 @@ public class OrderServiceTest {
             orderInfo.setStatus(OrderStatus.DELIVERED);
 
             // Act
-            when(orderInfoRepository.findById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
+            when(orderInfoRepository.findLockedById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
 
             // Assert
             Assertions.assertThrows(IllegalEntityStateException.class,
@@ -362,16 +512,34 @@ public class OrderServiceTest {
         @DisplayName("Should cancel order when order exists and user is owner")
         void test_cancelOrder_whenOrderExistsAndUserIsOwner() {
             // Arrange
-            var updatedOrderInfo = new OrderInfo(1L, user1, 100.0, "shippingAddressValue", OrderStatus.CANCELLED,
-                    null, LocalDateTime.now(clock), LocalDateTime.now(clock), LocalDateTime.now(clock));
+            var updatedOrderInfo = new OrderInfo(1L, user1, new BigDecimal("100.0"), "shippingAddressValue",
+                    OrderStatus.CANCELLED, null, LocalDateTime.now(clock), LocalDateTime.now(clock),
+                    LocalDateTime.now(clock));
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
-            when(orderInfoRepository.findById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
+            when(orderInfoRepository.findLockedById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
             when(orderInfoRepository.save(updatedOrderInfo)).thenReturn(updatedOrderInfo);
 
             // Assert
-            Assertions.assertEquals(updatedOrderInfo, orderService.cancelOrder(user1.getEmail(), orderInfo.getId()));
+            Assertions.assertEquals(updatedOrderInfo, orderService.cancelOrder(user1.getId(), orderInfo.getId()));
+        }
+
+        @Test
+        @DisplayName("Should return the stock of the ordered books")
+        void test_cancelOrder_shouldReleaseStock() {
+            // Arrange
+            var expectedQuantities = new TreeMap<Long, Integer>();
+            expectedQuantities.put(book1.getId(), orderItem1.getQuantity());
+            expectedQuantities.put(book2.getId(), orderItem2.getQuantity());
+
+            // Act
+            when(orderInfoRepository.findLockedById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
+            when(orderItemRepository.findResponsesByOrderInfoId(orderInfo.getId()))
+                    .thenReturn(List.of(orderItemResponse1, orderItemResponse2));
+            orderService.cancelOrder(user1.getId(), orderInfo.getId());
+
+            // Assert
+            verify(bookService).releaseStock(expectedQuantities);
         }
 
         @Test
@@ -380,12 +548,11 @@ public class OrderServiceTest {
             // Arrange
 
             // Act
-            when(userService.getUserByEmail(user2.getEmail())).thenReturn(user2);
-            when(orderInfoRepository.findById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
+            when(orderInfoRepository.findLockedById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
 
             // Assert
             Assertions.assertThrows(InvalidUserAccessException.class,
-                    () -> orderService.cancelOrder(user2.getEmail(), orderInfo.getId()));
+                    () -> orderService.cancelOrder(user2.getId(), orderInfo.getId()));
         }
 
         @Test
@@ -395,12 +562,11 @@ public class OrderServiceTest {
             orderInfo.setStatus(OrderStatus.DELIVERED);
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
-            when(orderInfoRepository.findById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
+            when(orderInfoRepository.findLockedById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
 
             // Assert
             Assertions.assertThrows(IllegalEntityStateException.class,
-                    () -> orderService.cancelOrder(user1.getEmail(), orderInfo.getId()));
+                    () -> orderService.cancelOrder(user1.getId(), orderInfo.getId()));
         }
 
         @Test
@@ -410,12 +576,11 @@ public class OrderServiceTest {
             orderInfo.setStatus(OrderStatus.CANCELLED);
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
-            when(orderInfoRepository.findById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
+            when(orderInfoRepository.findLockedById(orderInfo.getId())).thenReturn(Optional.of(orderInfo));
 
             // Assert
             Assertions.assertThrows(IllegalEntityStateException.class,
-                    () -> orderService.cancelOrder(user1.getEmail(), orderInfo.getId()));
+                    () -> orderService.cancelOrder(user1.getId(), orderInfo.getId()));
         }
     }
 }
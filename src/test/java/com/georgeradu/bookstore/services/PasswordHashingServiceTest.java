@@ -0,0 +1,71 @@
+package com.georgeradu.bookstore.services;
+
+import com.georgeradu.bookstore.exception.TooManyRequestsException;
+import com.georgeradu.bookstore.service.PasswordHashingServiceImpl;
+import org.junit.jupiter.api.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.mockito.Mockito.*;
+
+public class PasswordHashingServiceTest {
+    private PasswordHashingServiceImpl passwordHashingService;
+
+    @BeforeEach
+    public void setUp() {}
+
+    @AfterEach
+    void tearDown() {
+        if (passwordHashingService != null) {
+            passwordHashingService.shutdown();
+        }
+    }
+
+    @Nested
+    @DisplayName("Test encode and matches methods")
+    class TestEncodeAndMatches {
+        @Test
+        @DisplayName("Should hash and check the password on the password hashing pool")
+        void test_encodeAndMatches_shouldRunOnPool() {
+            // Arrange
+            passwordHashingService = new PasswordHashingServiceImpl(new BCryptPasswordEncoder(4), 1, 1);
+
+            // Act
+            var encodedPassword = passwordHashingService.encode("passwordValue").join();
+
+            // Assert
+            Assertions.assertTrue(passwordHashingService.matches("passwordValue", encodedPassword).join());
+            Assertions.assertFalse(passwordHashingService.matches("otherPasswordValue", encodedPassword).join());
+        }
+
+        @Test
+        @DisplayName("Should throw TooManyRequestsException when the pool is full")
+        void test_encodeAndMatches_shouldThrowWhenPoolIsFull() throws InterruptedException {
+            // Arrange
+            var hashing = new CountDownLatch(1);
+            var release = new CountDownLatch(1);
+            var passwordEncoder = mock(PasswordEncoder.class);
+            when(passwordEncoder.encode(any())).thenAnswer(invocation -> {
+                hashing.countDown();
+                release.await();
+                return "encodedPasswordValue";
+            });
+            // one thread and no queue, the pool is full while the first hash runs
+            passwordHashingService = new PasswordHashingServiceImpl(passwordEncoder, 1, 0);
+
+            // Act
+            var first = passwordHashingService.encode("passwordValue");
+            hashing.await();
+
+            // Assert
+            Assertions.assertThrows(TooManyRequestsException.class,
+                    () -> passwordHashingService.encode("passwordValue"));
+            Assertions.assertThrows(TooManyRequestsException.class,
+                    () -> passwordHashingService.matches("passwordValue", "encodedPasswordValue"));
+            release.countDown();
+            Assertions.assertEquals("encodedPasswordValue", first.join());
+        }
+    }
+}
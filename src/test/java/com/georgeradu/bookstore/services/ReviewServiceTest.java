@@ -1,28 +1,38 @@
 package com.georgeradu.bookstore.services;
 
 
+import com.georgeradu.bookstore.dto.ReviewPageResponse;
 import com.georgeradu.bookstore.dto.ReviewRequest;
+import com.georgeradu.bookstore.dto.ReviewResponse;
 import com.georgeradu.bookstore.exception.DuplicateObjectException;
 import com.georgeradu.bookstore.exception.EntityNotFoundException;
+import com.georgeradu.bookstore.exception.InvalidRequestException;
 import com.georgeradu.bookstore.exception.InvalidUserAccessException;
 import com.georgeradu.bookstore.model.*;
 import com.georgeradu.bookstore.repository.ReviewRepository;
+import com.georgeradu.bookstore.service.BookRatingService;
 import com.georgeradu.bookstore.service.BookService;
 import com.georgeradu.bookstore.service.ReviewService;
 import com.georgeradu.bookstore.service.UserService;
+import com.georgeradu.bookstore.utils.KeysetCursor;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doReturn;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
 
 @SpringBootTest
 public class ReviewServiceTest {
@@ -41,6 +51,11 @@ public class ReviewServiceTest {
     private UserService userService;
     @MockBean
     private BookService bookService;
+    @MockBean
+    private BookRatingService bookRatingService;
+    // the review writes run in a transaction, run them without a database
+    @MockBean
+    private PlatformTransactionManager transactionManager;
     @Autowired
     private ReviewService reviewService;
 
@@ -56,10 +71,10 @@ public class ReviewServiceTest {
 
         bookCategory = new BookCategory(1L, "nameValue1", "descriptionValue1",
                 LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        book1 = new Book(1L, "titleValue1", "authorValue1", "descriptionValue1", 1, "imageUrl1",
+        book1 = new Book(1L, "titleValue1", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1), "imageUrl1",
                 1, "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131", "dimensions1", 0,
                 bookCategory, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        book2 = new Book(2L, "titleValue2", "authorValue2", "descriptionValue2", 2, "imageUrl2",
+        book2 = new Book(2L, "titleValue2", "authorValue2", "descriptionValue2", BigDecimal.valueOf(2), "imageUrl2",
                 2, "language2", "publisher2", LocalDateTime.now(clock), "isbn102", "isbn132", "dimensions2", 0,
                 bookCategory, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
         user1 = new User(1L, "firstNameValue", "lastNameValue", "emailValue", "passwordValue", UserRole.ROLE_USER,
@@ -104,19 +119,83 @@ public class ReviewServiceTest {
     }
 
     @Nested
-    @DisplayName("Tests for getReviewsForUser method")
+    @DisplayName("Tests for getReviewsForBook method")
     class TestGetReviewsForBook {
         @Test
-        @DisplayName("Test should return reviews for book when book exists")
+        @DisplayName("Test should return the first page and the cursor of the next page when book exists")
         void test_getReviewsForBook_whenBookExists() {
             // Arrange
+            var response1 = new ReviewResponse(review1);
+            var response2 = new ReviewResponse(review2);
+
+            // Act
+            when(bookService.getBook(book1.getId())).thenReturn(book1);
+            when(reviewRepository.findFirstPageByBookId(book1.getId(), PageRequest.of(0, 2)))
+                    .thenReturn(List.of(response2, response1));
+            var page = reviewService.getReviewsForBook(book1.getId(), Optional.empty(), Optional.of(1));
+
+            // Assert
+            Assertions.assertEquals(List.of(response2), page.getContent());
+            var cursor = KeysetCursor.decode(page.getNextCursor());
+            Assertions.assertEquals(review2.getCreatedAt(), cursor.getCreatedAt());
+            Assertions.assertEquals(review2.getId(), cursor.getId());
+        }
+
+        @Test
+        @DisplayName("Test should continue after the cursor and return no cursor on the last page")
+        void test_getReviewsForBook_whenCursorIsGiven() {
+            // Arrange
+            var response1 = new ReviewResponse(review1);
+            var cursor = new KeysetCursor(review2.getCreatedAt(), review2.getId()).encode();
 
             // Act
             when(bookService.getBook(book1.getId())).thenReturn(book1);
-            when(reviewRepository.findAllByBookId(book1.getId())).thenReturn(List.of(review1, review2));
+            when(reviewRepository.findPageByBookIdAfter(book1.getId(), review2.getCreatedAt(), review2.getId(),
+                    PageRequest.of(0, 21))).thenReturn(List.of(response1));
+            var page = reviewService.getReviewsForBook(book1.getId(), Optional.of(cursor), Optional.empty());
 
             // Assert
-            Assertions.assertEquals(List.of(review1, review2), reviewService.getReviewsForBook(book1.getId()));
+            Assertions.assertEquals(new ReviewPageResponse(List.of(response1), null), page);
+        }
+
+        @Test
+        @DisplayName("Test should throw InvalidRequestException for an invalid cursor or page size")
+        void test_getReviewsForBook_whenCursorOrSizeIsInvalid() {
+            // Arrange
+
+            // Act
+            when(bookService.getBook(book1.getId())).thenReturn(book1);
+
+            // Assert
+            Assertions.assertThrows(InvalidRequestException.class,
+                    () -> reviewService.getReviewsForBook(book1.getId(), Optional.of("notACursor"), Optional.empty()));
+            Assertions.assertThrows(InvalidRequestException.class,
+                    () -> reviewService.getReviewsForBook(book1.getId(), Optional.empty(), Optional.of(0)));
+            Assertions.assertThrows(InvalidRequestException.class,
+                    () -> reviewService.getReviewsForBook(book1.getId(), Optional.empty(), Optional.of(101)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for the configured review page size")
+    class TestReviewPageSize {
+        @AfterEach
+        void tearDown() {
+            ReflectionTestUtils.setField(reviewService, "maxPageSize", 100);
+        }
+
+        @Test
+        @DisplayName("Test should throw InvalidRequestException for a page size above the configured max")
+        void test_getReviewsForBook_whenSizeIsAboveConfiguredMax() {
+            // Arrange
+            ReflectionTestUtils.setField(reviewService, "maxPageSize", 5);
+
+            // Act
+            when(bookService.getBook(book1.getId())).thenReturn(book1);
+
+            // Assert
+            Assertions.assertThrows(InvalidRequestException.class,
+                    () -> reviewService.getReviewsForBook(book1.getId(), Optional.empty(), Optional.of(6)));
         }
     }
 
@@ -127,13 +206,16 @@ public class ReviewServiceTest {
         @DisplayName("Test should return reviews for user when user exists")
         void test_getReviewsForUser_whenUserExists() {
             // Arrange
+            var response1 = new ReviewResponse(review1);
 
             // Act
             when(userService.getUser(user1.getId())).thenReturn(user1);
-            when(reviewRepository.findAllByUserId(user1.getId())).thenReturn(List.of(review1, review2));
+            when(reviewRepository.findFirstPageByUserId(user1.getId(), PageRequest.of(0, 21)))
+                    .thenReturn(List.of(response1));
 
             // Assert
-            Assertions.assertEquals(List.of(review1, review2), reviewService.getReviewsForUser(user1.getId()));
+            Assertions.assertEquals(new ReviewPageResponse(List.of(response1), null),
+                    reviewService.getReviewsForUser(user1.getId(), Optional.empty(), Optional.empty()));
         }
     }
 
@@ -147,13 +229,14 @@ public class ReviewServiceTest {
             var request = new ReviewRequest(book1.getId(), 1, "reviewValue");
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
+            when(userService.getUserReference(user1.getId())).thenReturn(user1);
             when(bookService.getBook(book1.getId())).thenReturn(book1);
             when(reviewRepository.findByBookIdAndUserId(book1.getId(), user1.getId())).thenReturn(Optional.empty());
             when(reviewRepository.save(any())).thenReturn(review1);
 
             // Assert
-            Assertions.assertEquals(review1, reviewService.createReview(request, user1.getEmail()));
+            Assertions.assertEquals(review1, reviewService.createReview(request, user1.getId()));
+            verify(bookRatingService, times(1)).addRating(book1.getId(), 1);
         }
 
         @Test
@@ -163,12 +246,13 @@ public class ReviewServiceTest {
             var request = new ReviewRequest(book1.getId(), 1, "reviewValue");
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
+            when(userService.getUserReference(user1.getId())).thenReturn(user1);
             when(bookService.getBook(book1.getId())).thenReturn(book1);
             when(reviewRepository.findByBookIdAndUserId(book1.getId(), user1.getId())).thenReturn(Optional.of(review1));
 
             // Assert
-            Assertions.assertThrows(DuplicateObjectException.class, () -> reviewService.createReview(request, user1.getEmail()));
+            Assertions.assertThrows(DuplicateObjectException.class, () -> reviewService.createReview(request, user1.getId()));
+            verify(bookRatingService, never()).addRating(anyLong(), anyInt());
         }
     }
 
@@ -179,15 +263,15 @@ public class ReviewServiceTest {
         @DisplayName("Test should return review when review is updated")
         void test_updateReview_whenReviewIsUpdated() {
             // Arrange
-            var request = new ReviewRequest(book1.getId(), 1, "reviewValue");
+            var request = new ReviewRequest(book1.getId(), 4, "reviewValue");
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
             when(reviewRepository.findById(review1.getId())).thenReturn(Optional.of(review1));
             when(reviewRepository.save(any())).thenReturn(review1);
 
             // Assert
-            Assertions.assertEquals(review1, reviewService.updateReview(review1.getId(), request, user1.getEmail()));
+            Assertions.assertEquals(review1, reviewService.updateReview(review1.getId(), request, user1.getId()));
+            verify(bookRatingService, times(1)).replaceRating(book1.getId(), 1, 4);
         }
 
         @Test
@@ -197,12 +281,11 @@ public class ReviewServiceTest {
             var request = new ReviewRequest(book1.getId(), 1, "reviewValue");
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
             when(reviewRepository.findById(review2.getId())).thenReturn(Optional.of(review2));
 
             // Assert
             Assertions.assertThrows(
-                    InvalidUserAccessException.class, () -> reviewService.updateReview(review2.getId(), request, user1.getEmail()));
+                    InvalidUserAccessException.class, () -> reviewService.updateReview(review2.getId(), request, user1.getId()));
         }
     }
 
@@ -215,11 +298,11 @@ public class ReviewServiceTest {
             // Arrange
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
             when(reviewRepository.findById(review1.getId())).thenReturn(Optional.of(review1));
 
             // Assert
-            Assertions.assertDoesNotThrow(() -> reviewService.deleteReview(review1.getId(), user1.getEmail()));
+            Assertions.assertDoesNotThrow(() -> reviewService.deleteReview(review1.getId(), user1.getId()));
+            verify(bookRatingService, times(1)).removeRating(book1.getId(), 1);
         }
 
         @Test
@@ -228,12 +311,12 @@ public class ReviewServiceTest {
             // Arrange
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
             when(reviewRepository.findById(review2.getId())).thenReturn(Optional.of(review2));
 
             // Assert
             Assertions.assertThrows(
-                    InvalidUserAccessException.class, () -> reviewService.deleteReview(review2.getId(), user1.getEmail()));
+                    InvalidUserAccessException.class, () -> reviewService.deleteReview(review2.getId(), user1.getId()));
+            verify(bookRatingService, never()).removeRating(anyLong(), anyInt());
         }
     }
 }
@@ -13,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
+import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -55,12 +56,12 @@ public class ShoppingCartItemServiceTest {
                 LocalDateTime.now(clock), LocalDateTime.now(clock), null);
         var bookCategory = new BookCategory(1L, "nameValue1", "descriptionValue1", LocalDateTime.now(clock),
                 LocalDateTime.now(clock), null);
-        book1 = new Book(1L, "titleValue1", "authorValue1", "descriptionValue1", 1, "imageUrl1", 1, "language1",
-                "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131", "dimensions1", 0, bookCategory,
-                LocalDateTime.now(clock), LocalDateTime.now(clock), null);
-        book2 = new Book(2L, "titleValue2", "authorValue2", "descriptionValue2", 2, "imageUrl2", 2, "language2",
-                "publisher2", LocalDateTime.now(clock), "isbn102", "isbn132", "dimensions2", 0, bookCategory,
-                LocalDateTime.now(clock), LocalDateTime.now(clock), null);
+        book1 = new Book(1L, "titleValue1", "authorValue1", "descriptionValue1", BigDecimal.valueOf(1), "imageUrl1", 1,
+                "language1", "publisher1", LocalDateTime.now(clock), "isbn101", "isbn131", "dimensions1", 0,
+                bookCategory, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
+        book2 = new Book(2L, "titleValue2", "authorValue2", "descriptionValue2", BigDecimal.valueOf(2), "imageUrl2", 2,
+                "language2", "publisher2", LocalDateTime.now(clock), "isbn102", "isbn132", "dimensions2", 0,
+                bookCategory, LocalDateTime.now(clock), LocalDateTime.now(clock), null);
         shoppingCartItem1 = new ShoppingCartItem(1L, user1, book1, 1, LocalDateTime.now(clock), LocalDateTime.now(clock),
                 null);
         shoppingCartItem2 = new ShoppingCartItem(2L, user1, book2, 2, LocalDateTime.now(clock), LocalDateTime.now(clock),
@@ -90,24 +91,45 @@ public class ShoppingCartItemServiceTest {
     }
 
     @Nested
-    @DisplayName("Tests for getUserShoppingCartByEmail method")
-    class TestGetUserShoppingCartByEmail {
+    @DisplayName("Tests for getResolvedUserShoppingCart method")
+    class TestGetResolvedUserShoppingCart {
         @Test
         @DisplayName("Should return user shopping cart items")
-        void test_getUserShoppingCartByEmail_shouldReturnShoppingCartItems() {
+        void test_getResolvedUserShoppingCart_shouldReturnShoppingCartItems() {
             // Arrange
             var shoppingCartItems = List.of(shoppingCartItem1, shoppingCartItem2);
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
             when(shoppingCartItemRepository.findAllByUserId(user1.getId())).thenReturn(shoppingCartItems);
 
             // Assert
-            var result = shoppingCartItemService.getUserShoppingCartByEmail(user1.getEmail());
+            var result = shoppingCartItemService.getResolvedUserShoppingCart(user1.getId());
             Assertions.assertEquals(shoppingCartItems, result);
         }
     }
 
+    @Nested
+    @DisplayName("Tests for getLockedUserShoppingCart and getShoppingCartItemsTotalPrice methods")
+    class TestGetLockedUserShoppingCartAndTotalPrice {
+        @Test
+        @DisplayName("Should return the locked items and the total price read by the repository")
+        void test_getLockedUserShoppingCartAndTotalPrice_shouldReturnRepositoryResults() {
+            // Arrange
+            var shoppingCartItems = List.of(shoppingCartItem1, shoppingCartItem2);
+            var shoppingCartItemIds = List.of(shoppingCartItem1.getId(), shoppingCartItem2.getId());
+            var totalPrice = new BigDecimal("12.30");
+
+            // Act
+            when(shoppingCartItemRepository.findLockedByUserId(user1.getId())).thenReturn(shoppingCartItems);
+            when(shoppingCartItemRepository.getTotalPriceByIds(shoppingCartItemIds)).thenReturn(totalPrice);
+
+            // Assert
+            Assertions.assertEquals(shoppingCartItems, shoppingCartItemService.getLockedUserShoppingCart(user1.getId()));
+            Assertions.assertEquals(totalPrice,
+                    shoppingCartItemService.getShoppingCartItemsTotalPrice(shoppingCartItemIds));
+        }
+    }
+
     @Nested
     @DisplayName("Tests for addBookToShoppingCart method")
     class TestAddBookToShoppingCart {
@@ -118,14 +140,14 @@ public class ShoppingCartItemServiceTest {
             var request = new ShoppingCartItemRequest(book1.getId(), 1);
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
+            when(userService.getUserReference(user1.getId())).thenReturn(user1);
             when(bookService.getBook(book1.getId())).thenReturn(book1);
             when(shoppingCartItemRepository.findByUserIdAndBookId(user1.getId(), book1.getId())).thenReturn(
                     Optional.empty());
             when(shoppingCartItemRepository.save(any())).thenReturn(shoppingCartItem1);
 
             // Assert
-            var result = shoppingCartItemService.addBookToShoppingCart(user1.getEmail(), request);
+            var result = shoppingCartItemService.addBookToShoppingCart(user1.getId(), request);
             Assertions.assertEquals(shoppingCartItem1, result);
         }
 
@@ -136,14 +158,14 @@ public class ShoppingCartItemServiceTest {
             var request = new ShoppingCartItemRequest(book1.getId(), 1);
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
+            when(userService.getUserReference(user1.getId())).thenReturn(user1);
             when(bookService.getBook(book1.getId())).thenReturn(book1);
             when(shoppingCartItemRepository.findByUserIdAndBookId(user1.getId(), book1.getId())).thenReturn(
                     Optional.of(shoppingCartItem1));
 
             // Assert
             Assertions.assertThrows(DuplicateObjectException.class,
-                    () -> shoppingCartItemService.addBookToShoppingCart(user1.getEmail(), request));
+                    () -> shoppingCartItemService.addBookToShoppingCart(user1.getId(), request));
         }
     }
 
@@ -157,14 +179,13 @@ public class ShoppingCartItemServiceTest {
             var request = new ShoppingCartItemRequest(book1.getId(), 2);
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
             when(shoppingCartItemRepository.findById(shoppingCartItem1.getId())).thenReturn(Optional.of(shoppingCartItem1));
             shoppingCartItem1.setQuantity(request.getQuantity());
             shoppingCartItem1.setUpdatedAt(LocalDateTime.now(clock));
             when(shoppingCartItemRepository.save(shoppingCartItem1)).thenReturn(shoppingCartItem1);
 
             // Assert
-            var result = shoppingCartItemService.updateShoppingCartItem(user1.getEmail(), shoppingCartItem1.getId(), request);
+            var result = shoppingCartItemService.updateShoppingCartItem(user1.getId(), shoppingCartItem1.getId(), request);
             Assertions.assertEquals(shoppingCartItem1, result);
         }
 
@@ -175,12 +196,11 @@ public class ShoppingCartItemServiceTest {
             var request = new ShoppingCartItemRequest(book1.getId(), 1);
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user2);
             when(shoppingCartItemRepository.findById(shoppingCartItem1.getId())).thenReturn(Optional.of(shoppingCartItem1));
 
             // Assert
             Assertions.assertThrows(InvalidUserAccessException.class,
-                    () -> shoppingCartItemService.updateShoppingCartItem(user1.getEmail(), shoppingCartItem1.getId(), request));
+                    () -> shoppingCartItemService.updateShoppingCartItem(user2.getId(), shoppingCartItem1.getId(), request));
         }
     }
 
@@ -193,11 +213,10 @@ public class ShoppingCartItemServiceTest {
             // Arrange
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
             when(shoppingCartItemRepository.findById(shoppingCartItem1.getId())).thenReturn(Optional.of(shoppingCartItem1));
 
             // Assert
-            Assertions.assertDoesNotThrow(() -> shoppingCartItemService.deleteShoppingCartItem(user1.getEmail(), shoppingCartItem1.getId()));
+            Assertions.assertDoesNotThrow(() -> shoppingCartItemService.deleteShoppingCartItem(user1.getId(), shoppingCartItem1.getId()));
         }
 
         @Test
@@ -206,28 +225,28 @@ public class ShoppingCartItemServiceTest {
             // Arrange
 
             // Act
-            when(userService.getUserByEmail(user2.getEmail())).thenReturn(user2);
             when(shoppingCartItemRepository.findById(shoppingCartItem1.getId())).thenReturn(Optional.of(shoppingCartItem1));
 
             // Assert
             Assertions.assertThrows(InvalidUserAccessException.class,
-                    () -> shoppingCartItemService.deleteShoppingCartItem(user2.getEmail(), shoppingCartItem1.getId()));
+                    () -> shoppingCartItemService.deleteShoppingCartItem(user2.getId(), shoppingCartItem1.getId()));
         }
     }
 
     @Nested
-    @DisplayName("Tests for deleteAllUserShoppingCartItems method")
-    class TestDeleteAllUserShoppingCartItems {
+    @DisplayName("Tests for deleteShoppingCartItems method")
+    class TestDeleteShoppingCartItems {
         @Test
-        @DisplayName("Should delete all user shopping cart items")
-        void test_deleteAllUserShoppingCartItems_shouldDeleteAllUserShoppingCartItems() {
+        @DisplayName("Should delete only the given shopping cart items in one statement")
+        void test_deleteShoppingCartItems_shouldDeleteTheGivenItems() {
             // Arrange
+            var shoppingCartItemIds = List.of(shoppingCartItem1.getId());
 
             // Act
-            when(userService.getUserByEmail(user1.getEmail())).thenReturn(user1);
+            shoppingCartItemService.deleteShoppingCartItems(shoppingCartItemIds);
 
             // Assert
-            Assertions.assertDoesNotThrow(() -> shoppingCartItemService.deleteAllUserShoppingCartItems(user1.getEmail()));
+            verify(shoppingCartItemRepository).deleteAllByIdInBatch(shoppingCartItemIds);
         }
     }
 }
@@ -0,0 +1,31 @@
+package com.georgeradu.bookstore.services;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+
+import java.util.function.Supplier;
+
+// counts the statements hibernate prepares while a service method runs, the test context needs
+// spring.jpa.properties.hibernate.generate_statistics=true. The persistence context is emptied before the call so
+// every entity the method reads has to come from the database
+class StatementCounter {
+    private final EntityManager entityManager;
+    private final Statistics statistics;
+
+    StatementCounter(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // runs the call, checks the number of prepared statements and returns the result of the call
+    <T> T expect(long expectedStatements, Supplier<T> call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        var result = call.get();
+        Assertions.assertEquals(expectedStatements, statistics.getPrepareStatementCount(), statistics.toString());
+        return result;
+    }
+}
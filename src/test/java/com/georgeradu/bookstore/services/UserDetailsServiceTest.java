@@ -1,19 +1,20 @@
 package com.georgeradu.bookstore.services;
 
+import com.georgeradu.bookstore.config.CacheConfig;
 import com.georgeradu.bookstore.model.User;
 import com.georgeradu.bookstore.repository.UserRepository;
 import com.georgeradu.bookstore.service.UserDetailsServiceImpl;
-import org.junit.jupiter.api.Assertions;
-import org.junit.jupiter.api.DisplayName;
-import org.junit.jupiter.api.Nested;
-import org.junit.jupiter.api.Test;
+import com.georgeradu.bookstore.service.UserService;
+import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
 
 import java.util.Optional;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @SpringBootTest
 
@@ -22,6 +23,15 @@ public class UserDetailsServiceTest {
     private UserRepository userRepository;
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void setUp() {
+        cacheManager.getCache(CacheConfig.PRINCIPALS).clear();
+    }
 
     @Nested
     @DisplayName("Test UserDetailsService implementation")
@@ -42,5 +52,41 @@ public class UserDetailsServiceTest {
             // Assert
             Assertions.assertEquals(user, userDetailsService.loadUserByUsername(user.getEmail()));
         }
+    
+        @Test
+        @DisplayName("Should load the user from the cache after the first call")
+        void test_loadUserByUsername_shouldLoadUserFromCacheAfterFirstCall() {
+            // Arrange
+            User user = new User();
+            user.setEmail("emailValue");
+            when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+            // Act
+            userDetailsService.loadUserByUsername(user.getEmail());
+            var userDetails = userDetailsService.loadUserByUsername(user.getEmail());
+
+            // Assert
+            Assertions.assertEquals(user, userDetails);
+            verify(userRepository, times(1)).findByEmail(user.getEmail());
+        }
+
+        @Test
+        @DisplayName("Should evict the cached user when a user with the same email is added")
+        void test_addUser_shouldEvictCachedUser() {
+            // Arrange
+            User user = new User();
+            user.setEmail("emailValue");
+            when(userRepository.findByEmail(user.getEmail()))
+                    .thenReturn(Optional.of(user), Optional.empty(), Optional.of(user));
+            when(userRepository.save(any(User.class))).thenReturn(user);
+            userDetailsService.loadUserByUsername(user.getEmail());
+
+            // Act
+            userService.addUser(user);
+            userDetailsService.loadUserByUsername(user.getEmail());
+
+            // Assert
+            verify(userRepository, times(3)).findByEmail(user.getEmail());
+        }
     }
 }
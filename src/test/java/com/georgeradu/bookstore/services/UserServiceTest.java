@@ -15,8 +15,7 @@ import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
-import static org.mockito.Mockito.doReturn;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @SpringBootTest
 public class UserServiceTest {
@@ -189,4 +188,23 @@ public class UserServiceTest {
             Assertions.assertThrows(EntityNotFoundException.class, () -> userService.getUserByEmail(user.getEmail()));
         }
     }
+
+    @Nested
+    @DisplayName("Test getUserReference method")
+    class TestGetUserReference {
+        @Test
+        @DisplayName("Should return the user reference without querying the user")
+        void test_getUserReference_shouldReturnUserReferenceWithoutQueryingUser() {
+            // Arrange
+            User user = new User();
+            user.setId(1L);
+
+            // Act
+            when(userRepository.getReferenceById(user.getId())).thenReturn(user);
+
+            // Assert
+            Assertions.assertEquals(user, userService.getUserReference(user.getId()));
+            verify(userRepository, never()).findById(user.getId());
+        }
+    }
 }
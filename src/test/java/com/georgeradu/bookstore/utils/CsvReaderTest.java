@@ -0,0 +1,56 @@
+package com.georgeradu.bookstore.utils;
+
+import com.georgeradu.bookstore.exception.InvalidRequestException;
+import org.junit.jupiter.api.*;
+
+import java.io.StringReader;
+import java.util.List;
+
+public class CsvReaderTest {
+    @Nested
+    @DisplayName("Test readRecord method")
+    class TestReadRecord {
+        @Test
+        @DisplayName("Should read plain and quoted fields with commas, quotes and line breaks")
+        void test_readRecord_shouldReadPlainAndQuotedFields() throws Exception {
+            // Arrange
+            var reader = new CsvReader(new StringReader("a,\"b,c\",\"say \"\"hi\"\"\"\r\n\"two\nlines\",,x\n"));
+
+            // Act
+            var first = reader.readRecord();
+            var second = reader.readRecord();
+            var end = reader.readRecord();
+
+            // Assert
+            Assertions.assertEquals(List.of("a", "b,c", "say \"hi\""), first);
+            Assertions.assertEquals(List.of("two\nlines", "", "x"), second);
+            Assertions.assertNull(end);
+        }
+
+        @Test
+        @DisplayName("Should read the last record without a trailing line break")
+        void test_readRecord_shouldReadLastRecordWithoutLineBreak() throws Exception {
+            // Arrange
+            var reader = new CsvReader(new StringReader("a,b"));
+
+            // Act
+            var record = reader.readRecord();
+
+            // Assert
+            Assertions.assertEquals(List.of("a", "b"), record);
+            Assertions.assertNull(reader.readRecord());
+        }
+
+        @Test
+        @DisplayName("Should throw InvalidRequestException for an unterminated quoted field")
+        void test_readRecord_shouldThrowForUnterminatedQuotedField() {
+            // Arrange
+            var reader = new CsvReader(new StringReader("a,\"b\n"));
+
+            // Act
+
+            // Assert
+            Assertions.assertThrows(InvalidRequestException.class, reader::readRecord);
+        }
+    }
+}
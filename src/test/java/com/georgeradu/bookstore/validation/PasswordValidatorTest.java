@@ -0,0 +1,47 @@
+package com.georgeradu.bookstore.validation;
+
+import com.georgeradu.bookstore.dto.RegisterRequest;
+import org.junit.jupiter.api.*;
+
+public class PasswordValidatorTest {
+    private PasswordValidator passwordValidator;
+
+    @BeforeEach
+    public void setUp() throws NoSuchFieldException {
+        passwordValidator = new PasswordValidator();
+        passwordValidator.initialize(RegisterRequest.class.getDeclaredField("password").getAnnotation(Password.class));
+    }
+
+    @AfterEach
+    void tearDown() {}
+
+    @Nested
+    @DisplayName("Test isValid method")
+    class TestIsValid {
+        @Test
+        @DisplayName("Should accept a password meeting every rule")
+        void test_isValid_shouldAcceptValidPassword() {
+            Assertions.assertTrue(passwordValidator.isValid("Password1!", null));
+            Assertions.assertTrue(passwordValidator.isValid("  \"pASS 9word{}", null));
+        }
+
+        @Test
+        @DisplayName("Should reject a missing, blank, too short or too long password")
+        void test_isValid_shouldRejectInvalidLength() {
+            Assertions.assertFalse(passwordValidator.isValid(null, null));
+            Assertions.assertFalse(passwordValidator.isValid("          ", null));
+            Assertions.assertFalse(passwordValidator.isValid("Pass1!", null));
+            Assertions.assertFalse(passwordValidator.isValid("Password1!".repeat(26), null));
+        }
+
+        @Test
+        @DisplayName("Should reject a password missing an uppercase, a lowercase, a digit or a special character")
+        void test_isValid_shouldRejectMissingCharacterClass() {
+            Assertions.assertFalse(passwordValidator.isValid("password1!", null));
+            Assertions.assertFalse(passwordValidator.isValid("PASSWORD1!", null));
+            Assertions.assertFalse(passwordValidator.isValid("Password!!", null));
+            Assertions.assertFalse(passwordValidator.isValid("Password11", null));
+            Assertions.assertFalse(passwordValidator.isValid("Password1_", null));
+        }
+    }
+}